@@ -1,13 +1,22 @@
 package com.alten.bookingapp;
 
+import com.alten.bookingapp.cli.BulkCommandLineRunner;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableScheduling
 @SpringBootApplication
 public class BookingAppApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(BookingAppApplication.class, args);
+		SpringApplication application = new SpringApplication(BookingAppApplication.class);
+		if (BulkCommandLineRunner.isBulkCommand(args)) {
+			application.setWebApplicationType(WebApplicationType.NONE);
+			System.exit(SpringApplication.exit(application.run(args)));
+		}
+		application.run(args);
 	}
 
 }
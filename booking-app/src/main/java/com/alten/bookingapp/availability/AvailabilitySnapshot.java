@@ -0,0 +1,70 @@
+package com.alten.bookingapp.availability;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Copy of the nights occupied by the active reservations and holds of every room, taken at a point in time, with one
+ * bit per night from {@link #getFrom()}. As in the database checks, a stay occupies its room on every date from
+ * check-in to check-out, both included.
+ * <p>
+ * A snapshot is filled in by the thread that takes it and is read-only once published.
+ */
+public class AvailabilitySnapshot {
+
+    private final LocalDate from;
+    private final LocalDateTime takenAt;
+    private final Map<Long, Long> hotelRooms = new HashMap<>();
+    private final Map<Long, BitSet> occupiedNights = new HashMap<>();
+
+    public AvailabilitySnapshot(LocalDate from, LocalDateTime takenAt) {
+        this.from = from;
+        this.takenAt = takenAt;
+    }
+
+    public void addHotelRoom(Long hotelId, Long roomId) {
+        hotelRooms.put(hotelId, roomId);
+    }
+
+    public void occupy(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        int first = (int) Math.max(0, ChronoUnit.DAYS.between(from, checkIn));
+        int last = (int) ChronoUnit.DAYS.between(from, checkOut);
+        if (last >= first) {
+            occupiedNights.computeIfAbsent(roomId, id -> new BitSet()).set(first, last + 1);
+        }
+    }
+
+    /**
+     * Finds the room booked by the single-room operations of the hotel.
+     */
+    public Optional<Long> getHotelRoom(Long hotelId) {
+        return Optional.ofNullable(hotelRooms.get(hotelId));
+    }
+
+    /**
+     * Tells whether no stay occupied the room between the dates, both included, when the snapshot was taken.
+     */
+    public boolean isAvailable(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        BitSet nights = occupiedNights.get(roomId);
+        if (nights == null) {
+            return true;
+        }
+        int first = (int) Math.max(0, ChronoUnit.DAYS.between(from, checkIn));
+        int last = (int) ChronoUnit.DAYS.between(from, checkOut);
+        int occupied = nights.nextSetBit(first);
+        return occupied < 0 || occupied > last;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTakenAt() {
+        return takenAt;
+    }
+}
@@ -0,0 +1,118 @@
+package com.alten.bookingapp.availability;
+
+import com.alten.bookingapp.model.dto.ResponseDto;
+import com.alten.bookingcore.BookingRules;
+import com.alten.bookingcore.exception.RoomNotAvailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the availability searches answering while PostgreSQL is slow or unreachable.
+ * <p>
+ * The availability is read from the database in a read-only transaction whose queries time out after
+ * {@code reservation.degraded.query-timeout-seconds}, and a {@link LatencyCircuitBreaker} keeps track of how the
+ * queries went. When they keep being slow or failing, or when a query fails, the availability is answered from the
+ * latest {@link AvailabilitySnapshot}, marked as stale, until a trial query is fast again. Only the availability
+ * searches are degraded: bookings, modifications and cancellations always go to the database.
+ */
+@Component
+@Profile("!edge")
+public class DegradedAvailability {
+
+    private static final Logger log = LoggerFactory.getLogger(DegradedAvailability.class);
+
+    private final BookingRules bookingRules;
+    private final TransactionTemplate transactionTemplate;
+    private final LatencyCircuitBreaker circuitBreaker;
+    private final AtomicReference<AvailabilitySnapshot> snapshot = new AtomicReference<>();
+
+    public DegradedAvailability(BookingRules bookingRules, PlatformTransactionManager transactionManager,
+                                @Value("${reservation.degraded.query-timeout-seconds}") int queryTimeoutSeconds,
+                                @Value("${reservation.degraded.slow-call-ms}") long slowCallMillis,
+                                @Value("${reservation.degraded.failure-rate-threshold}") double failureRateThreshold,
+                                @Value("${reservation.degraded.window-size}") int windowSize,
+                                @Value("${reservation.degraded.minimum-calls}") int minimumCalls,
+                                @Value("${reservation.degraded.open-ms}") long openMillis) {
+        this.bookingRules = bookingRules;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setTimeout(queryTimeoutSeconds);
+        this.circuitBreaker = new LatencyCircuitBreaker(slowCallMillis, failureRateThreshold, windowSize,
+                minimumCalls, openMillis, System::nanoTime);
+    }
+
+    /**
+     * Checks the availability of the room of the hotel with {@code databaseCheck}, or with the snapshot while the
+     * database is degraded. Until the first snapshot has been taken, the database is always queried.
+     *
+     * @param hotelId       the hotel of the room
+     * @param checkIn       the check-in date
+     * @param checkOut      the check-out date
+     * @param databaseCheck the availability check against the database
+     * @return the availability, marked as stale if it comes from the snapshot
+     */
+    public ResponseDto checkRoomAvailability(Long hotelId, LocalDate checkIn, LocalDate checkOut,
+                                             Supplier<ResponseDto> databaseCheck) {
+        AvailabilitySnapshot current = snapshot.get();
+        if (current != null && !circuitBreaker.tryAcquire()) {
+            return fromSnapshot(current, hotelId, checkIn, checkOut);
+        }
+        long start = System.nanoTime();
+        try {
+            ResponseDto response = transactionTemplate.execute(status -> databaseCheck.get());
+            circuitBreaker.record(System.nanoTime() - start, false);
+            return response;
+        } catch (DataAccessException | TransactionException e) {
+            circuitBreaker.record(System.nanoTime() - start, true);
+            if (current == null) {
+                throw e;
+            }
+            log.warn("Availability query failed, answering from the snapshot taken at {}: {}", current.getTakenAt(),
+                    e.toString());
+            return fromSnapshot(current, hotelId, checkIn, checkOut);
+        } catch (RuntimeException e) {
+            circuitBreaker.record(System.nanoTime() - start, false);
+            throw e;
+        }
+    }
+
+    public void setSnapshot(AvailabilitySnapshot snapshot) {
+        this.snapshot.set(snapshot);
+    }
+
+    public LatencyCircuitBreaker.State getState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * Answers the availability from the snapshot. The dates are validated like in the database check; an unavailable
+     * room is reported in the response rather than with an exception, so that it is marked as stale too.
+     */
+    private ResponseDto fromSnapshot(AvailabilitySnapshot current, Long hotelId, LocalDate checkIn,
+                                     LocalDate checkOut) {
+        bookingRules.validateStay(checkIn, checkOut);
+        Long roomId = current.getHotelRoom(hotelId)
+                .orElseThrow(() -> new RoomNotAvailableException("Hotel with id " + hotelId + " has no rooms."));
+        boolean available = current.isAvailable(roomId, checkIn, checkOut);
+        return ResponseDto.builder()
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .roomAvailable(available)
+                .stale(true)
+                .snapshotTakenAt(current.getTakenAt())
+                .message((available ? "The room was available for these dates at " :
+                        "The room was already booked for these dates at ") + current.getTakenAt())
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.alten.bookingapp.availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds every start date of a stay of a given length that is free in each room, between a first and a last check-in
+ * date. The occupied nights of each room are kept in a bitmap with one bit per night from the first check-in date,
+ * filled in from the monthly rows of {@code room_nights} and from the active holds, and each room is then read in a
+ * single pass: the stay slides along every run of free nights long enough to hold it.
+ * <p>
+ * As in the database checks, a stay occupies its room on every date from check-in to check-out, both included.
+ */
+public class FreeStayFinder {
+
+    private final LocalDate from;
+    private final int lastStart;
+    private final int days;
+    private final Map<Long, BitSet> occupiedNights = new LinkedHashMap<>();
+
+    /**
+     * @param from the first check-in date
+     * @param to   the last check-in date
+     * @param days the number of days of the stay, check-in and check-out dates included
+     */
+    public FreeStayFinder(LocalDate from, LocalDate to, int days) {
+        this.from = from;
+        this.lastStart = (int) ChronoUnit.DAYS.between(from, to);
+        this.days = days;
+    }
+
+    /**
+     * Adds a room to search, in the order the rooms are searched.
+     */
+    public void addRoom(Long roomId) {
+        occupiedNights.putIfAbsent(roomId, new BitSet(horizon()));
+    }
+
+    /**
+     * Marks the nights of a month of an added room as occupied, bit 0 being the first day of the month.
+     */
+    public void occupyMonth(Long roomId, LocalDate monthStart, long nights) {
+        BitSet occupied = occupiedNights.get(roomId);
+        if (occupied == null) {
+            return;
+        }
+        int offset = (int) ChronoUnit.DAYS.between(from, monthStart);
+        long remaining = nights;
+        while (remaining != 0) {
+            int night = offset + Long.numberOfTrailingZeros(remaining);
+            if (night >= 0 && night < horizon()) {
+                occupied.set(night);
+            }
+            remaining &= remaining - 1;
+        }
+    }
+
+    /**
+     * Marks the nights of a stay of an added room as occupied.
+     */
+    public void occupy(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        BitSet occupied = occupiedNights.get(roomId);
+        if (occupied == null) {
+            return;
+        }
+        int first = (int) Math.max(0, ChronoUnit.DAYS.between(from, checkIn));
+        int last = (int) Math.min(horizon() - 1, ChronoUnit.DAYS.between(from, checkOut));
+        if (last >= first) {
+            occupied.set(first, last + 1);
+        }
+    }
+
+    /**
+     * Lists every free stay of every room, by room and then by check-in date.
+     */
+    public List<FreeStay> findStays() {
+        List<FreeStay> stays = new ArrayList<>();
+        for (Map.Entry<Long, BitSet> room : occupiedNights.entrySet()) {
+            BitSet occupied = room.getValue();
+            int runStart = occupied.nextClearBit(0);
+            while (runStart <= lastStart) {
+                int nextOccupied = occupied.nextSetBit(runStart);
+                int runEnd = (nextOccupied < 0 ? horizon() : nextOccupied) - 1;
+                for (int start = runStart; start <= Math.min(runEnd - days + 1, lastStart); start++) {
+                    stays.add(new FreeStay(room.getKey(), from.plusDays(start), from.plusDays(start + days - 1L),
+                            start - runStart, runEnd - (start + days - 1)));
+                }
+                runStart = occupied.nextClearBit(runEnd + 1);
+            }
+        }
+        return stays;
+    }
+
+    /**
+     * The number of nights read from the first check-in date: up to the check-out date of a stay starting on the last
+     * check-in date.
+     */
+    private int horizon() {
+        return lastStart + days;
+    }
+
+    /**
+     * A stay free in a room, with the free nights it leaves on each side until the nearest occupied night or the end
+     * of the searched nights.
+     */
+    @AllArgsConstructor
+    @Data
+    public static class FreeStay {
+        private Long roomId;
+        private LocalDate checkInDate;
+        private LocalDate checkOutDate;
+        private int freeNightsBefore;
+        private int freeNightsAfter;
+    }
+}
@@ -0,0 +1,129 @@
+package com.alten.bookingapp.availability;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker that opens when too many of the last calls to the database were slow or failed.
+ * <p>
+ * While closed, every call goes through and its outcome is kept in a window of the last {@code windowSize} calls. Once
+ * the window holds at least {@code minimumCalls} calls and the share of calls slower than {@code slowCallMillis} or
+ * failed reaches {@code failureRateThreshold}, equal shares included, the breaker opens and rejects the calls for
+ * {@code openMillis}: with a threshold of 0.5, two bad calls out of four are enough. It then lets a single trial call
+ * through: the breaker closes with an empty window if the trial is fast, and opens again otherwise.
+ */
+public class LatencyCircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(LatencyCircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final long slowCallNanos;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private final boolean[] badOutcomes;
+    private int nextOutcome;
+    private int calls;
+    private int badCalls;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public LatencyCircuitBreaker(long slowCallMillis, double failureRateThreshold, int windowSize, int minimumCalls,
+                                 long openMillis, LongSupplier nanoClock) {
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.nanoClock = nanoClock;
+        this.badOutcomes = new boolean[windowSize];
+    }
+
+    /**
+     * Tells whether a call may go to the database. A call that is let through must be followed by a call to
+     * {@link #record}.
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (nanoClock.getAsLong() - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                return true;
+            default:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    /**
+     * Records the outcome of a call that was let through.
+     *
+     * @param elapsedNanos how long the call took
+     * @param failed       true if the database could not answer the call
+     */
+    public synchronized void record(long elapsedNanos, boolean failed) {
+        boolean bad = failed || elapsedNanos > slowCallNanos;
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+            if (bad) {
+                open();
+            } else {
+                close();
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+        if (calls == badOutcomes.length) {
+            if (badOutcomes[nextOutcome]) {
+                badCalls--;
+            }
+        } else {
+            calls++;
+        }
+        badOutcomes[nextOutcome] = bad;
+        if (bad) {
+            badCalls++;
+        }
+        nextOutcome = (nextOutcome + 1) % badOutcomes.length;
+        if (calls >= minimumCalls && badCalls >= failureRateThreshold * calls) {
+            log.warn("{} of the last {} availability queries were slow or failed, serving the availability snapshot",
+                    badCalls, calls);
+            open();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoClock.getAsLong();
+    }
+
+    private void close() {
+        log.info("The database answered the trial availability query in time, leaving degraded mode");
+        state = State.CLOSED;
+        calls = 0;
+        badCalls = 0;
+        nextOutcome = 0;
+    }
+}
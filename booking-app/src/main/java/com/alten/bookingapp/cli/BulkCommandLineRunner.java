@@ -0,0 +1,84 @@
+package com.alten.bookingapp.cli;
+
+import com.alten.bookingapp.config.HotelContext;
+import com.alten.bookingapp.model.dto.BulkImportResultDto;
+import com.alten.bookingapp.service.ReservationBulkService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Runs a bulk import or export when the application is started with {@code --import=<file>} or
+ * {@code --export=<file>}, for example:
+ * <pre>
+ * java -jar booking-app.jar --import=reservations.csv
+ * </pre>
+ * The reservations belong to the default hotel unless {@code --hotel=<id>} is given.
+ */
+@Component
+@Profile("!edge")
+public class BulkCommandLineRunner implements ApplicationRunner {
+
+    static final String IMPORT_OPTION = "import";
+    static final String EXPORT_OPTION = "export";
+    static final String HOTEL_OPTION = "hotel";
+
+    private static final Logger log = LoggerFactory.getLogger(BulkCommandLineRunner.class);
+
+    private final ReservationBulkService bulkService;
+
+    public BulkCommandLineRunner(ReservationBulkService bulkService) {
+        this.bulkService = bulkService;
+    }
+
+    /**
+     * Checks if the command line asks for a bulk import or export, in which case the application runs without web
+     * server and exits once the command is done.
+     */
+    public static boolean isBulkCommand(String[] args) {
+        return Arrays.stream(args)
+                .anyMatch(arg -> arg.startsWith("--" + IMPORT_OPTION + "=") || arg.startsWith("--" + EXPORT_OPTION + "="));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (args.containsOption(HOTEL_OPTION)) {
+            HotelContext.setHotelId(Long.valueOf(args.getOptionValues(HOTEL_OPTION).get(0)));
+        }
+        try {
+            runCommands(args);
+        } finally {
+            HotelContext.clear();
+        }
+    }
+
+    private void runCommands(ApplicationArguments args) throws IOException {
+        if (args.containsOption(IMPORT_OPTION)) {
+            Path file = Path.of(args.getOptionValues(IMPORT_OPTION).get(0));
+            try (Reader csv = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                BulkImportResultDto result = bulkService.importReservations(csv);
+                log.info("Imported {} of {} reservations from {}, {} rejected",
+                        result.getImported(), result.getReceived(), file, result.getRejected());
+                result.getRejects().forEach(reject -> log.warn("Line {} rejected: {}", reject.getLine(), reject.getReason()));
+            }
+        }
+        if (args.containsOption(EXPORT_OPTION)) {
+            Path file = Path.of(args.getOptionValues(EXPORT_OPTION).get(0));
+            try (OutputStream out = Files.newOutputStream(file)) {
+                long exported = bulkService.exportReservations(HotelContext.getHotelId(), out);
+                log.info("Exported {} reservations to {}", exported, file);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.alten.bookingapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executors of the work that runs after a request has committed, off the request threads.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncConfig.class);
+
+    /**
+     * Matches the freed nights with the waitlist one event at a time. On shutdown, the queued events are processed
+     * before the application stops. When the queue is full, the event is dropped rather than failing the request that
+     * freed the nights; its entries are matched by the next change that frees overlapping nights.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor waitlistExecutor(@Value("${reservation.waitlist.queue-capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("waitlist-");
+        executor.setRejectedExecutionHandler((task, pool) -> log.warn("Waitlist queue is full, dropping a match"));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
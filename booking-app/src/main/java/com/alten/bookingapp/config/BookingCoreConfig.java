@@ -0,0 +1,53 @@
+package com.alten.bookingapp.config;
+
+import com.alten.bookingcore.BookingEngine;
+import com.alten.bookingcore.BookingRules;
+import com.alten.bookingcore.store.JournaledReservationStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.nio.file.Path;
+
+/**
+ * Exposes the framework-free booking core to the application, configured from the {@code reservation} properties.
+ * <p>
+ * With the {@code edge} profile, the reservations are kept by the {@link BookingEngine} on top of a
+ * {@link JournaledReservationStore} instead of PostgreSQL.
+ */
+@Configuration
+public class BookingCoreConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingCoreConfig.class);
+
+    @Bean
+    public BookingRules bookingRules(@Value("${reservation.max-stay-days}") int maxStayDays,
+                                     @Value("${reservation.max-advance-booking-days}") int maxAdvanceBookingDays) {
+        return new BookingRules(maxStayDays, maxAdvanceBookingDays);
+    }
+
+    /**
+     * Opens the journaled store, which replays its snapshot and journal before the replica reports itself ready.
+     */
+    @Bean(destroyMethod = "close")
+    @Profile("edge")
+    public JournaledReservationStore reservationStore(@Value("${reservation.edge.journal-dir}") String journalDir,
+                                                      @Value("${reservation.edge.snapshot-every}") int snapshotEvery,
+                                                      @Value("${reservation.edge.sync-on-write}") boolean syncOnWrite) {
+        JournaledReservationStore store = new JournaledReservationStore(Path.of(journalDir), snapshotEvery,
+                syncOnWrite);
+        log.info("Recovered {} reservations from {} records ({} KiB) of {} in {} ms", store.size(),
+                store.getRecoveredRecords(), store.getRecoveredBytes() / 1024, journalDir,
+                store.getRecoveryMillis());
+        return store;
+    }
+
+    @Bean
+    @Profile("edge")
+    public BookingEngine bookingEngine(BookingRules bookingRules, JournaledReservationStore reservationStore) {
+        return new BookingEngine(bookingRules, reservationStore);
+    }
+}
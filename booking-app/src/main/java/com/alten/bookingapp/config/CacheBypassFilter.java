@@ -0,0 +1,48 @@
+package com.alten.bookingapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Marks the clients that change bookings so nginx bypasses its micro-cache for their next reads. The fresh responses
+ * fetched for them replace the cached ones, so the change is visible to every client right after.
+ */
+@Component
+public class CacheBypassFilter extends OncePerRequestFilter {
+
+    public static final String BYPASS_COOKIE = "booking_nocache";
+
+    private static final String API_PATH = "/api/v1/";
+
+    @Value("${reservation.cache.bypass-seconds}")
+    private int BYPASS_SECONDS;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(BYPASS_COOKIE, "1")
+                .path("/")
+                .maxAge(BYPASS_SECONDS)
+                .httpOnly(true)
+                .build()
+                .toString());
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        HttpMethod method = HttpMethod.resolve(request.getMethod());
+        boolean isRead = method == HttpMethod.GET || method == HttpMethod.HEAD || method == HttpMethod.OPTIONS;
+        return isRead || !request.getRequestURI().startsWith(API_PATH);
+    }
+}
@@ -0,0 +1,32 @@
+package com.alten.bookingapp.config;
+
+/**
+ * Holds the hotel that the current thread works for. Requests set it from the {@code X-Hotel-Id} header through the
+ * {@link HotelInterceptor}; scheduled jobs, the command line and the warm-up work for the default hotel unless they
+ * set another one.
+ */
+public final class HotelContext {
+
+    public static final long DEFAULT_HOTEL_ID = 1L;
+
+    private static final ThreadLocal<Long> CURRENT_HOTEL = new ThreadLocal<>();
+
+    private HotelContext() {
+    }
+
+    /**
+     * @return the ID of the hotel of the current thread, or {@link #DEFAULT_HOTEL_ID} if none was set
+     */
+    public static Long getHotelId() {
+        Long hotelId = CURRENT_HOTEL.get();
+        return hotelId == null ? DEFAULT_HOTEL_ID : hotelId;
+    }
+
+    public static void setHotelId(Long hotelId) {
+        CURRENT_HOTEL.set(hotelId);
+    }
+
+    public static void clear() {
+        CURRENT_HOTEL.remove();
+    }
+}
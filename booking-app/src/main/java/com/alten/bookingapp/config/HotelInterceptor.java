@@ -0,0 +1,40 @@
+package com.alten.bookingapp.config;
+
+import com.alten.bookingapp.exception.InvalidHotelException;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Resolves the hotel of each API request from the {@code X-Hotel-Id} header, without any database access. Requests
+ * without the header work for the default hotel.
+ */
+public class HotelInterceptor implements HandlerInterceptor {
+
+    public static final String HOTEL_HEADER = "X-Hotel-Id";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String header = request.getHeader(HOTEL_HEADER);
+        if (header == null || header.isBlank()) {
+            HotelContext.clear();
+            return true;
+        }
+        try {
+            long hotelId = Long.parseLong(header.trim());
+            if (hotelId <= 0) {
+                throw new NumberFormatException();
+            }
+            HotelContext.setHotelId(hotelId);
+        } catch (NumberFormatException e) {
+            throw new InvalidHotelException("Invalid " + HOTEL_HEADER + " header: " + header);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        HotelContext.clear();
+    }
+}
@@ -0,0 +1,31 @@
+package com.alten.bookingapp.controller;
+
+import com.alten.bookingapp.model.dto.FlexibleAvailabilityDto;
+import com.alten.bookingapp.service.AvailabilitySearchService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@Profile("!edge")
+@RequestMapping("api/v1/bookings/availability")
+public class AvailabilitySearchController {
+
+    private final AvailabilitySearchService service;
+
+    public AvailabilitySearchController(AvailabilitySearchService service) {
+        this.service = service;
+    }
+
+    @GetMapping("/flexible")
+    public FlexibleAvailabilityDto findFlexibleStays(@RequestParam("days") int days,
+                                                     @RequestParam(value = "from", required = false) LocalDate from,
+                                                     @RequestParam(value = "to", required = false) LocalDate to,
+                                                     @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return service.findFlexibleStays(days, from, to, limit);
+    }
+}
@@ -0,0 +1,44 @@
+package com.alten.bookingapp.controller;
+
+import com.alten.bookingapp.model.dto.ModifyResponseDto;
+import com.alten.bookingapp.model.dto.OccupancyDto;
+import com.alten.bookingapp.service.OccupancyService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@Profile("!edge")
+@RequestMapping("api/v1/analytics")
+public class OccupancyController {
+
+    private final OccupancyService service;
+
+    public OccupancyController(OccupancyService service) {
+        this.service = service;
+    }
+
+    @GetMapping("/occupancy")
+    public List<OccupancyDto> getOccupancy(@RequestParam("from") LocalDate from,
+                                           @RequestParam("to") LocalDate to) {
+        return service.getOccupancy(from, to);
+    }
+
+    @PostMapping("/occupancy/rebuild")
+    public ModifyResponseDto rebuildOccupancy() {
+        int rows = service.rebuildOccupancy();
+        return ModifyResponseDto.builder()
+                .message("Occupancy rebuilt successfully: " + rows + " daily rows.")
+                .build();
+    }
+
+    @PostMapping("/occupancy/room-nights/repair")
+    public ModifyResponseDto repairRoomNights() {
+        int repaired = service.repairRoomNights();
+        return ModifyResponseDto.builder()
+                .message("Occupied nights checked successfully: " + repaired + " room months repaired.")
+                .build();
+    }
+}
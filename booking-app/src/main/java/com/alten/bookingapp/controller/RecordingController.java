@@ -0,0 +1,44 @@
+package com.alten.bookingapp.controller;
+
+import com.alten.bookingapp.jfr.FlightRecordings;
+import com.alten.bookingapp.model.dto.RecordingDto;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.text.ParseException;
+
+/**
+ * Starts, dumps and stops Flight Recorder recordings of the replica serving the request.
+ */
+@RestController
+@RequestMapping("api/v1/admin/recordings")
+public class RecordingController {
+
+    private final FlightRecordings flightRecordings;
+
+    public RecordingController(FlightRecordings flightRecordings) {
+        this.flightRecordings = flightRecordings;
+    }
+
+    @PostMapping
+    public RecordingDto startRecording() throws IOException, ParseException {
+        return flightRecordings.start();
+    }
+
+    @GetMapping(value = "/{recordingId}", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> dumpRecording(@PathVariable long recordingId) {
+        flightRecordings.getRecording(recordingId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header("Content-Disposition", "attachment; filename=\"booking-" + recordingId + ".jfr\"")
+                .body(output -> flightRecordings.dump(recordingId, output));
+    }
+
+    @DeleteMapping("/{recordingId}")
+    public RecordingDto stopRecording(@PathVariable long recordingId) {
+        return flightRecordings.stop(recordingId);
+    }
+}
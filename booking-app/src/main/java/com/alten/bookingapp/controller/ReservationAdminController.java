@@ -0,0 +1,61 @@
+package com.alten.bookingapp.controller;
+
+import com.alten.bookingapp.config.HotelContext;
+import com.alten.bookingapp.model.dto.BulkCancelDTO;
+import com.alten.bookingapp.model.dto.BulkChangeResultDto;
+import com.alten.bookingapp.model.dto.BulkImportResultDto;
+import com.alten.bookingapp.model.dto.BulkShiftDTO;
+import com.alten.bookingapp.service.ReservationBulkService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@Profile("!edge")
+@RequestMapping("api/v1/admin/reservations")
+public class ReservationAdminController {
+
+    private static final String TEXT_CSV = "text/csv";
+
+    private final ReservationBulkService bulkService;
+
+    public ReservationAdminController(ReservationBulkService bulkService) {
+        this.bulkService = bulkService;
+    }
+
+    @PostMapping(value = "/import", consumes = TEXT_CSV)
+    public BulkImportResultDto importReservations(HttpServletRequest request) throws IOException {
+        try (Reader csv = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8)) {
+            return bulkService.importReservations(csv);
+        }
+    }
+
+    @GetMapping(value = "/export", produces = TEXT_CSV)
+    public ResponseEntity<StreamingResponseBody> exportReservations() {
+        // the body is streamed from an async thread, where the hotel of the request is not set
+        long hotelId = HotelContext.getHotelId();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(TEXT_CSV))
+                .header("Content-Disposition", "attachment; filename=\"reservations.csv\"")
+                .body(out -> bulkService.exportReservations(hotelId, out));
+    }
+
+    @PostMapping("/cancel")
+    public BulkChangeResultDto cancelReservations(@RequestBody BulkCancelDTO requestDto) {
+        return bulkService.cancelReservations(requestDto);
+    }
+
+    @PostMapping("/shift")
+    public BulkChangeResultDto shiftReservations(@Valid @RequestBody BulkShiftDTO requestDto) {
+        return bulkService.shiftReservations(requestDto);
+    }
+}
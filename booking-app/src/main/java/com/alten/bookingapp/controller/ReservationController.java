@@ -1,10 +1,18 @@
 package com.alten.bookingapp.controller;
 
+import com.alten.bookingapp.model.dto.GroupReservationDTO;
+import com.alten.bookingapp.model.dto.GroupReservationResponseDto;
+import com.alten.bookingapp.model.dto.HoldDTO;
 import com.alten.bookingapp.model.dto.ModifyResponseDto;
 import com.alten.bookingapp.model.dto.ReservationDTO;
+import com.alten.bookingapp.model.dto.ReservationSummaryDto;
 import com.alten.bookingapp.model.dto.ResponseDto;
-import com.alten.bookingapp.model.entities.Reservation;
 import com.alten.bookingapp.service.ReservationService;
+import com.alten.bookingcore.exception.ReservationVersionMismatchException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,13 +32,26 @@ public class ReservationController {
     }
 
     @GetMapping
-    public List<Reservation> getAll() {
+    public List<ReservationSummaryDto> getAll() {
         return service.getAllReservations();
     }
 
+    @GetMapping("/search")
+    public Page<ReservationSummaryDto> search(@RequestParam("guestName") String guestName,
+                                    @RequestParam(value = "fuzzy", defaultValue = "false") boolean fuzzy,
+                                    @PageableDefault(size = 20) Pageable pageable) {
+        return service.searchReservations(guestName, fuzzy, pageable);
+    }
+
     @PostMapping("/add")
     public ResponseEntity<ReservationDTO> book(@Valid @RequestBody ReservationDTO requestDto) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(service.placeReservation(requestDto));
+        ReservationDTO reservation = service.placeReservation(requestDto);
+        return withETag(ResponseEntity.status(HttpStatus.CREATED), reservation).body(reservation);
+    }
+
+    @PostMapping("/group")
+    public ResponseEntity<GroupReservationResponseDto> bookGroup(@Valid @RequestBody GroupReservationDTO requestDto) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(service.placeGroupReservation(requestDto));
     }
 
     @GetMapping("/availability")
@@ -41,13 +62,59 @@ public class ReservationController {
 
     @DeleteMapping("/cancel/{reservationId}")
     @ResponseStatus(HttpStatus.OK)
-    public ModifyResponseDto cancelReservation(@PathVariable Long reservationId) {
-        return service.cancelReservation(reservationId);
+    public ModifyResponseDto cancelReservation(@PathVariable Long reservationId,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return service.cancelReservation(reservationId, parseVersion(ifMatch));
     }
 
     @PutMapping("/modify/{reservationId}")
     public ResponseEntity<ReservationDTO> changeReservation(@PathVariable Long reservationId,
-                                                            @Valid @RequestBody ReservationDTO requestDto) {
-        return new ResponseEntity<>(service.modifyReservation(reservationId, requestDto), HttpStatus.OK);
+                                                            @Valid @RequestBody ReservationDTO requestDto,
+                                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ReservationDTO reservation = service.modifyReservation(reservationId, requestDto, parseVersion(ifMatch));
+        return withETag(ResponseEntity.status(HttpStatus.OK), reservation).body(reservation);
+    }
+
+    @PostMapping("/hold")
+    public ResponseEntity<HoldDTO> hold(@Valid @RequestBody ReservationDTO requestDto) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(service.placeHold(requestDto));
+    }
+
+    @PostMapping("/hold/{holdId}/confirm")
+    public ResponseEntity<ReservationDTO> confirmHold(@PathVariable Long holdId) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(service.confirmHold(holdId));
+    }
+
+    @DeleteMapping("/hold/{holdId}")
+    @ResponseStatus(HttpStatus.OK)
+    public ModifyResponseDto releaseHold(@PathVariable Long holdId) {
+        return service.releaseHold(holdId);
+    }
+
+    /**
+     * Extracts the reservation version from an If-Match header such as {@code "3"} or {@code W/"3"}.
+     *
+     * @return the version, or null if the header is absent or {@code *}
+     */
+    private static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String etag = ifMatch.trim();
+        if (etag.startsWith("W/")) {
+            etag = etag.substring(2);
+        }
+        try {
+            return Long.valueOf(etag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new ReservationVersionMismatchException("Invalid If-Match header: " + ifMatch);
+        }
+    }
+
+    private static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder, ReservationDTO reservation) {
+        if (reservation != null && reservation.getVersion() != null) {
+            builder.eTag(String.valueOf(reservation.getVersion()));
+        }
+        return builder;
     }
 }
@@ -0,0 +1,41 @@
+package com.alten.bookingapp.controller;
+
+import com.alten.bookingapp.model.dto.ArchivedReservationDto;
+import com.alten.bookingapp.model.dto.ReservationChangeDto;
+import com.alten.bookingapp.service.ReservationHistoryService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@Profile("!edge")
+@RequestMapping("api/v1/bookings/history")
+public class ReservationHistoryController {
+
+    private final ReservationHistoryService service;
+
+    public ReservationHistoryController(ReservationHistoryService service) {
+        this.service = service;
+    }
+
+    @GetMapping
+    public Page<ArchivedReservationDto> getHistory(@RequestParam(value = "guestName", required = false) String guestName,
+                                                   @PageableDefault(size = 50, sort = "id", direction = Sort.Direction.DESC) Pageable pageable) {
+        return service.getHistory(guestName, pageable);
+    }
+
+    @GetMapping("/{reservationId}")
+    public ArchivedReservationDto getArchivedReservation(@PathVariable Long reservationId) {
+        return service.getArchivedReservation(reservationId);
+    }
+
+    @GetMapping("/{reservationId}/changes")
+    public List<ReservationChangeDto> getChanges(@PathVariable Long reservationId) {
+        return service.getChanges(reservationId);
+    }
+}
@@ -0,0 +1,39 @@
+package com.alten.bookingapp.controller;
+
+import com.alten.bookingapp.model.dto.ModifyResponseDto;
+import com.alten.bookingapp.model.dto.ReservationDTO;
+import com.alten.bookingapp.model.dto.WaitlistDTO;
+import com.alten.bookingapp.service.WaitlistService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+
+@RestController
+@Profile("!edge")
+@RequestMapping("api/v1/bookings/waitlist")
+public class WaitlistController {
+
+    private final WaitlistService service;
+
+    public WaitlistController(WaitlistService service) {
+        this.service = service;
+    }
+
+    @PostMapping
+    public ResponseEntity<WaitlistDTO> join(@Valid @RequestBody ReservationDTO requestDto) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(service.joinWaitlist(requestDto));
+    }
+
+    @GetMapping("/{entryId}")
+    public WaitlistDTO get(@PathVariable Long entryId) {
+        return service.getWaitlistEntry(entryId);
+    }
+
+    @DeleteMapping("/{entryId}")
+    public ModifyResponseDto leave(@PathVariable Long entryId) {
+        return service.leaveWaitlist(entryId);
+    }
+}
@@ -0,0 +1,47 @@
+package com.alten.bookingapp.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Published when a reservation is booked, modified or cancelled. Listeners run once the transaction that changed the
+ * reservation has committed.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class ReservationChangedEvent {
+
+    public enum Type {
+        BOOKED,
+        MODIFIED,
+        CANCELLED
+    }
+
+    private Type type;
+
+    private Long reservationId;
+
+    /**
+     * The version of the reservation once changed.
+     */
+    private Long version;
+
+    private Long hotelId;
+
+    private Long roomId;
+
+    private String guestName;
+
+    private LocalDate checkInDate;
+
+    private LocalDate checkOutDate;
+
+    private LocalDateTime occurredAt;
+}
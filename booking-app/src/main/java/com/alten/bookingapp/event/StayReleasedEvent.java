@@ -0,0 +1,23 @@
+package com.alten.bookingapp.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Published when nights of a room become available again, because a reservation was cancelled or moved, or a hold was
+ * released. Listeners run once the transaction that freed the nights has committed.
+ */
+@AllArgsConstructor
+@Data
+public class StayReleasedEvent {
+
+    private Long hotelId;
+
+    private Long roomId;
+
+    private LocalDate checkInDate;
+
+    private LocalDate checkOutDate;
+}
@@ -1,5 +1,11 @@
 package com.alten.bookingapp.exception;
 
+import com.alten.bookingcore.exception.InvalidCheckInDateException;
+import com.alten.bookingcore.exception.InvalidCheckOutDateException;
+import com.alten.bookingcore.exception.InvalidReservationException;
+import com.alten.bookingcore.exception.ReservationAlreadyCancelledException;
+import com.alten.bookingcore.exception.ReservationVersionMismatchException;
+import com.alten.bookingcore.exception.RoomNotAvailableException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -56,6 +62,54 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
+    @ExceptionHandler(HoldExpiredException.class)
+    public ResponseEntity<ErrorDetails> handleHoldExpiredException(HoldExpiredException ex, WebRequest request) {
+        ErrorDetails errorResponse = new ErrorDetails(HttpStatus.BAD_REQUEST.toString(),
+                request.getDescription(false),
+                ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler(WaitlistEntryNotFoundException.class)
+    public ResponseEntity<ErrorDetails> handleWaitlistEntryNotFoundException(WaitlistEntryNotFoundException ex, WebRequest request) {
+        ErrorDetails errorResponse = new ErrorDetails(HttpStatus.BAD_REQUEST.toString(),
+                request.getDescription(false),
+                ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler(RecordingNotFoundException.class)
+    public ResponseEntity<ErrorDetails> handleRecordingNotFoundException(RecordingNotFoundException ex, WebRequest request) {
+        ErrorDetails errorResponse = new ErrorDetails(HttpStatus.BAD_REQUEST.toString(),
+                request.getDescription(false),
+                ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler(ReservationVersionMismatchException.class)
+    public ResponseEntity<ErrorDetails> handleReservationVersionMismatchException(ReservationVersionMismatchException ex, WebRequest request) {
+        ErrorDetails errorResponse = new ErrorDetails(HttpStatus.PRECONDITION_FAILED.toString(),
+                request.getDescription(false),
+                ex.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(errorResponse);
+    }
+
+    @ExceptionHandler(ReservationConflictException.class)
+    public ResponseEntity<ErrorDetails> handleReservationConflictException(ReservationConflictException ex, WebRequest request) {
+        ErrorDetails errorResponse = new ErrorDetails(HttpStatus.CONFLICT.toString(),
+                request.getDescription(false),
+                ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    @ExceptionHandler(InvalidHotelException.class)
+    public ResponseEntity<ErrorDetails> handleInvalidHotelException(InvalidHotelException ex, WebRequest request) {
+        ErrorDetails errorResponse = new ErrorDetails(HttpStatus.BAD_REQUEST.toString(),
+                request.getDescription(false),
+                ex.getMessage());
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ValidationError> handleMethodArgumentNotValid(MethodArgumentNotValidException ex,
@@ -0,0 +1,7 @@
+package com.alten.bookingapp.exception;
+
+public class HoldExpiredException extends RuntimeException{
+    public HoldExpiredException(String message) {
+        super(message);
+    }
+}
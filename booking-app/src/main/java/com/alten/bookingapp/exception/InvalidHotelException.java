@@ -0,0 +1,7 @@
+package com.alten.bookingapp.exception;
+
+public class InvalidHotelException extends RuntimeException {
+    public InvalidHotelException(String message) {
+        super(message);
+    }
+}
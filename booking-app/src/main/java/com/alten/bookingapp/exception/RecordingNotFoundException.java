@@ -0,0 +1,7 @@
+package com.alten.bookingapp.exception;
+
+public class RecordingNotFoundException extends RuntimeException{
+    public RecordingNotFoundException(String message) {
+        super(message);
+    }
+}
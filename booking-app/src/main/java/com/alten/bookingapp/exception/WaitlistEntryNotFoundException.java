@@ -0,0 +1,7 @@
+package com.alten.bookingapp.exception;
+
+public class WaitlistEntryNotFoundException extends RuntimeException{
+    public WaitlistEntryNotFoundException(String message) {
+        super(message);
+    }
+}
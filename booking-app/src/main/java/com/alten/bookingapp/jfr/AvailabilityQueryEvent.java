@@ -0,0 +1,18 @@
+package com.alten.bookingapp.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.alten.booking.AvailabilityQuery")
+@Label("Availability Query")
+@Description("The availability of a room was checked for a stay")
+public class AvailabilityQueryEvent extends StayEvent {
+
+    @Label("Available")
+    boolean available;
+
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+}
@@ -0,0 +1,11 @@
+package com.alten.bookingapp.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.alten.booking.BookingCancelled")
+@Label("Booking Cancelled")
+@Description("A reservation was cancelled")
+public class BookingCancelledEvent extends ReservationEvent {
+}
@@ -0,0 +1,11 @@
+package com.alten.bookingapp.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.alten.booking.BookingModified")
+@Label("Booking Modified")
+@Description("A reservation was modified")
+public class BookingModifiedEvent extends ReservationEvent {
+}
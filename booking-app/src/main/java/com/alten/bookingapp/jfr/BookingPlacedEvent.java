@@ -0,0 +1,11 @@
+package com.alten.bookingapp.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.alten.booking.BookingPlaced")
+@Label("Booking Placed")
+@Description("A reservation was placed")
+public class BookingPlacedEvent extends ReservationEvent {
+}
@@ -0,0 +1,32 @@
+package com.alten.bookingapp.jfr;
+
+import com.alten.bookingapp.config.HotelContext;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Emits an {@link ExceptionRaisedEvent} for every exception a request fails with, before the
+ * {@link com.alten.bookingapp.exception.GlobalExceptionHandler} turns it into a response. It never resolves the
+ * exception itself.
+ */
+@Component
+public class ExceptionEventResolver implements HandlerExceptionResolver, Ordered {
+
+    @Override
+    public ModelAndView resolveException(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                         Exception ex) {
+        new ExceptionRaisedEvent().commitException(ex, request.getMethod() + " " + request.getRequestURI(),
+                HotelContext.getHotelId());
+        return null;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
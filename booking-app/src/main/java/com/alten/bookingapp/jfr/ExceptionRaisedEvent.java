@@ -0,0 +1,41 @@
+package com.alten.bookingapp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.alten.booking.ExceptionRaised")
+@Label("Exception Raised")
+@Description("A request failed with an exception")
+@Category("Booking")
+@StackTrace(false)
+public class ExceptionRaisedEvent extends Event {
+
+    @Label("Exception Class")
+    String exceptionClass;
+
+    @Label("Message")
+    String message;
+
+    @Label("Request")
+    String request;
+
+    @Label("Hotel ID")
+    long hotelId;
+
+    /**
+     * Commits the event, if a recording enables it.
+     */
+    public void commitException(Exception exception, String request, Long hotelId) {
+        if (shouldCommit()) {
+            this.exceptionClass = exception.getClass().getName();
+            this.message = exception.getMessage();
+            this.request = request;
+            this.hotelId = hotelId == null ? 0 : hotelId;
+            commit();
+        }
+    }
+}
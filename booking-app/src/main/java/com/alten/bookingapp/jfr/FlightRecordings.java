@@ -0,0 +1,133 @@
+package com.alten.bookingapp.jfr;
+
+import com.alten.bookingapp.exception.RecordingNotFoundException;
+import com.alten.bookingapp.model.dto.RecordingDto;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Starts and dumps Flight Recorder recordings on demand, with the JDK {@code default} settings plus the bundled
+ * {@code jfr/booking.jfc} profile, which enables the booking events.
+ * <p>
+ * A recording keeps at most {@code reservation.jfr.max-age-minutes} and {@code reservation.jfr.max-size-mb} of data
+ * on disk, and runs until it is stopped or the application shuts down.
+ */
+@Component
+public class FlightRecordings {
+
+    static final String PROFILE = "jfr/booking.jfc";
+
+    @Value("${reservation.jfr.max-age-minutes}")
+    private long MAX_AGE_MINUTES;
+
+    @Value("${reservation.jfr.max-size-mb}")
+    private long MAX_SIZE_MB;
+
+    private final Map<Long, Recording> recordings = new ConcurrentHashMap<>();
+
+    /**
+     * Starts a new recording.
+     *
+     * @throws IllegalStateException if Flight Recorder is not available in this JVM
+     */
+    public RecordingDto start() throws IOException, ParseException {
+        if (!FlightRecorder.isAvailable()) {
+            throw new IllegalStateException("Flight Recorder is not available");
+        }
+        Recording recording = new Recording(settings());
+        recording.setName("booking-" + recording.getId());
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofMinutes(MAX_AGE_MINUTES));
+        recording.setMaxSize(MAX_SIZE_MB * 1024 * 1024);
+        recording.start();
+        recordings.put(recording.getId(), recording);
+        return toDto(recording);
+    }
+
+    /**
+     * @throws RecordingNotFoundException if there is no such recording
+     */
+    public RecordingDto getRecording(long id) {
+        return toDto(find(id));
+    }
+
+    /**
+     * Writes what the recording has captured so far, in the JFR format, without stopping it.
+     *
+     * @throws RecordingNotFoundException if there is no such recording
+     */
+    public void dump(long id, OutputStream output) throws IOException {
+        Path file = Files.createTempFile("booking-", ".jfr");
+        try {
+            find(id).dump(file);
+            Files.copy(file, output);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Stops the recording and discards its data.
+     *
+     * @throws RecordingNotFoundException if there is no such recording
+     */
+    public RecordingDto stop(long id) {
+        Recording recording = find(id);
+        recordings.remove(id);
+        recording.close();
+        return toDto(recording);
+    }
+
+    @PreDestroy
+    public void stopAll() {
+        recordings.values().forEach(Recording::close);
+        recordings.clear();
+    }
+
+    private Recording find(long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            throw new RecordingNotFoundException("Recording with id " + id + " not found.");
+        }
+        return recording;
+    }
+
+    /**
+     * @return the settings of the {@code default} configuration, overridden by those of the bundled profile
+     */
+    static Map<String, String> settings() throws IOException, ParseException {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        try (Reader profile = new InputStreamReader(Objects.requireNonNull(
+                FlightRecordings.class.getClassLoader().getResourceAsStream(PROFILE)), StandardCharsets.UTF_8)) {
+            settings.putAll(Configuration.create(profile).getSettings());
+        }
+        return settings;
+    }
+
+    private static RecordingDto toDto(Recording recording) {
+        return RecordingDto.builder()
+                .id(recording.getId())
+                .name(recording.getName())
+                .state(recording.getState().name())
+                .startTime(recording.getStartTime())
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package com.alten.bookingapp.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.alten.booking.OverlapQuery")
+@Label("Overlap Query")
+@Description("The reservations or holds of a room overlapping a stay were looked up")
+public class OverlapQueryEvent extends StayEvent {
+
+    @Label("Table")
+    String table;
+
+    @Label("Matches")
+    long matches;
+
+    public OverlapQueryEvent(String table) {
+        this.table = table;
+    }
+
+    public void setMatches(long matches) {
+        this.matches = matches;
+    }
+}
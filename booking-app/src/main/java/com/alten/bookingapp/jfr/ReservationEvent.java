@@ -0,0 +1,22 @@
+package com.alten.bookingapp.jfr;
+
+import com.alten.bookingapp.model.entities.Reservation;
+import jdk.jfr.Label;
+
+/**
+ * Flight Recorder event about a change of a reservation.
+ */
+public abstract class ReservationEvent extends StayEvent {
+
+    @Label("Reservation ID")
+    long reservationId;
+
+    /**
+     * Ends the event and commits it with the reservation, once changed.
+     */
+    public void commitReservation(Reservation reservation) {
+        reservationId = reservation.getId() == null ? 0 : reservation.getId();
+        commitStay(reservation.getHotelId(), reservation.getRoom().getId(), reservation.getCheckInDate(),
+                reservation.getCheckOutDate());
+    }
+}
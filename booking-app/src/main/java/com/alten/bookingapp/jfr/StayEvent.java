@@ -0,0 +1,45 @@
+package com.alten.bookingapp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+import java.time.LocalDate;
+
+/**
+ * Flight Recorder event about a stay in a room, timed from {@link #begin()} to {@link #commitStay}.
+ * <p>
+ * While no recording enables the event, {@link #shouldCommit()} is false and the stay is never formatted, so an
+ * instrumented method costs little more than a few field writes.
+ */
+@Category("Booking")
+@StackTrace(false)
+public abstract class StayEvent extends Event {
+
+    @Label("Hotel ID")
+    long hotelId;
+
+    @Label("Room ID")
+    long roomId;
+
+    @Label("Check-in Date")
+    String checkInDate;
+
+    @Label("Check-out Date")
+    String checkOutDate;
+
+    /**
+     * Ends the event and commits it with the stay, if a recording enables it and it lasted longer than its threshold.
+     */
+    public void commitStay(Long hotelId, Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+        end();
+        if (shouldCommit()) {
+            this.hotelId = hotelId == null ? 0 : hotelId;
+            this.roomId = roomId == null ? 0 : roomId;
+            this.checkInDate = String.valueOf(checkInDate);
+            this.checkOutDate = String.valueOf(checkOutDate);
+            commit();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.alten.bookingapp.job;
+
+import com.alten.bookingapp.availability.AvailabilitySnapshot;
+import com.alten.bookingapp.availability.DegradedAvailability;
+import com.alten.bookingapp.repository.ReservationHoldRepository;
+import com.alten.bookingapp.repository.ReservationRepository;
+import com.alten.bookingapp.repository.RoomRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Periodically copies the nights occupied by the active reservations and holds into a new
+ * {@link AvailabilitySnapshot}, which answers the availability searches while the database is degraded.
+ * <p>
+ * The rooms, holds and reservations are read in a single repeatable-read transaction, so a hold confirmed while the
+ * snapshot is taken is seen either as a hold or as a reservation. When the database cannot be read, the previous
+ * snapshot is kept.
+ */
+@Component
+@Profile("!edge")
+public class AvailabilitySnapshotRefresher {
+
+    private static final Logger log = LoggerFactory.getLogger(AvailabilitySnapshotRefresher.class);
+
+    private final DegradedAvailability degradedAvailability;
+    private final ReservationRepository reservationRepository;
+    private final ReservationHoldRepository holdRepository;
+    private final RoomRepository roomRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public AvailabilitySnapshotRefresher(DegradedAvailability degradedAvailability,
+                                         ReservationRepository reservationRepository,
+                                         ReservationHoldRepository holdRepository,
+                                         RoomRepository roomRepository,
+                                         PlatformTransactionManager transactionManager) {
+        this.degradedAvailability = degradedAvailability;
+        this.reservationRepository = reservationRepository;
+        this.holdRepository = holdRepository;
+        this.roomRepository = roomRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.degraded.snapshot-refresh-ms}")
+    public void refresh() {
+        try {
+            degradedAvailability.setSnapshot(transactionTemplate.execute(status -> takeSnapshot()));
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Could not refresh the availability snapshot, keeping the previous one: {}", e.toString());
+        }
+    }
+
+    private AvailabilitySnapshot takeSnapshot() {
+        LocalDateTime now = LocalDateTime.now();
+        AvailabilitySnapshot snapshot = new AvailabilitySnapshot(LocalDate.now(), now);
+        roomRepository.findFirstRoomOfEachHotel()
+                .forEach(room -> snapshot.addHotelRoom(room.getHotelId(), room.getRoomId()));
+        holdRepository.findOccupiedStays(now)
+                .forEach(stay -> snapshot.occupy(stay.getRoomId(), stay.getCheckInDate(), stay.getCheckOutDate()));
+        reservationRepository.findOccupiedStays(snapshot.getFrom())
+                .forEach(stay -> snapshot.occupy(stay.getRoomId(), stay.getCheckInDate(), stay.getCheckOutDate()));
+        return snapshot;
+    }
+}
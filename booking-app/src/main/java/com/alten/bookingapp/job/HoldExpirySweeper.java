@@ -0,0 +1,46 @@
+package com.alten.bookingapp.job;
+
+import com.alten.bookingapp.repository.ReservationHoldRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Periodically removes expired holds in batches.
+ * <p>
+ * Expired holds are already ignored by the overlap checks, so the sweeper only keeps the table small;
+ * a single periodic task handles every hold instead of scheduling one timer per hold.
+ */
+@Component
+@Profile("!edge")
+public class HoldExpirySweeper {
+
+    @Value("${reservation.hold.sweep-batch-size}")
+    private int SWEEP_BATCH_SIZE;
+
+    private final ReservationHoldRepository holdRepository;
+
+    public HoldExpirySweeper(ReservationHoldRepository holdRepository) {
+        this.holdRepository = holdRepository;
+    }
+
+    /**
+     * Deletes every hold that expired before the start of the sweep, one batch at a time.
+     *
+     * @return the number of deleted holds
+     */
+    @Scheduled(fixedDelayString = "${reservation.hold.sweep-interval-ms}")
+    public int sweepExpiredHolds() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = holdRepository.deleteExpired(now, SWEEP_BATCH_SIZE);
+            total += deleted;
+        } while (deleted == SWEEP_BATCH_SIZE);
+        return total;
+    }
+}
@@ -0,0 +1,79 @@
+package com.alten.bookingapp.job;
+
+import com.alten.bookingapp.model.entities.NotificationOutboxEntry;
+import com.alten.bookingapp.notification.NotificationOutbox;
+import com.alten.bookingapp.notification.NotificationSink;
+import com.alten.bookingapp.repository.NotificationOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Periodically delivers the batches stored in the notification outbox. A delivered batch is deleted; a rejected one is
+ * attempted again later, with a delay that doubles with each attempt. The due entries are locked while they are
+ * delivered, so the replicas never deliver the same batch twice.
+ */
+@Component
+@Profile("!edge")
+public class NotificationOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationOutboxRelay.class);
+
+    @Value("${reservation.notifications.outbox-batch-size}")
+    private int OUTBOX_BATCH_SIZE;
+
+    @Value("${reservation.notifications.initial-backoff-ms}")
+    private long INITIAL_BACKOFF_MS;
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationOutbox outbox;
+    private final Map<String, NotificationSink> sinks;
+
+    public NotificationOutboxRelay(NotificationOutboxRepository outboxRepository, NotificationOutbox outbox,
+                                   List<NotificationSink> sinks) {
+        this.outboxRepository = outboxRepository;
+        this.outbox = outbox;
+        this.sinks = sinks.stream().collect(Collectors.toMap(NotificationSink::getName, Function.identity()));
+    }
+
+    /**
+     * Delivers a batch of due entries.
+     *
+     * @return the number of delivered entries
+     */
+    @Scheduled(fixedDelayString = "${reservation.notifications.outbox-retry-interval-ms}")
+    @Transactional
+    public int relayDueEntries() {
+        LocalDateTime now = LocalDateTime.now();
+        int delivered = 0;
+        for (NotificationOutboxEntry entry : outboxRepository.lockDue(now, OUTBOX_BATCH_SIZE)) {
+            try {
+                NotificationSink sink = sinks.get(entry.getSink());
+                if (sink == null) {
+                    throw new IllegalStateException("No notification sink named " + entry.getSink());
+                }
+                sink.deliver(outbox.read(entry));
+                outboxRepository.delete(entry);
+                delivered++;
+            } catch (Exception e) {
+                log.warn("Could not deliver notification outbox entry {} to {}", entry.getId(), entry.getSink(), e);
+                entry.setAttempts(entry.getAttempts() + 1);
+                entry.setLastError(e.toString());
+                entry.setNextAttemptAt(now.plus(
+                        Duration.ofMillis(INITIAL_BACKOFF_MS << Math.min(entry.getAttempts(), 20))));
+            }
+        }
+        return delivered;
+    }
+}
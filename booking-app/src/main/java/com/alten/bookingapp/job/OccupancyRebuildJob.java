@@ -0,0 +1,32 @@
+package com.alten.bookingapp.job;
+
+import com.alten.bookingapp.service.OccupancyService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically rebuilds the daily occupancy rollup and repairs the occupied nights of the rooms from the reservations,
+ * which corrects any drift of the incremental updates (for example after rows have been changed directly in the
+ * database).
+ */
+@Component
+@Profile("!edge")
+public class OccupancyRebuildJob {
+
+    private final OccupancyService occupancyService;
+
+    public OccupancyRebuildJob(OccupancyService occupancyService) {
+        this.occupancyService = occupancyService;
+    }
+
+    @Scheduled(cron = "${reservation.occupancy.rebuild-cron}")
+    public int rebuildOccupancy() {
+        return occupancyService.rebuildOccupancy();
+    }
+
+    @Scheduled(cron = "${reservation.occupancy.room-nights-repair-cron}")
+    public int repairRoomNights() {
+        return occupancyService.repairRoomNights();
+    }
+}
@@ -0,0 +1,46 @@
+package com.alten.bookingapp.job;
+
+import com.alten.bookingapp.repository.ReservationArchiveRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Periodically moves cancelled reservations and finished stays to the archive table, so the reservation table
+ * only keeps the stays that can still be booked, modified or cancelled.
+ */
+@Component
+@Profile("!edge")
+public class ReservationArchiver {
+
+    @Value("${reservation.archive.batch-size}")
+    private int ARCHIVE_BATCH_SIZE;
+
+    private final ReservationArchiveRepository archiveRepository;
+
+    public ReservationArchiver(ReservationArchiveRepository archiveRepository) {
+        this.archiveRepository = archiveRepository;
+    }
+
+    /**
+     * Archives every reservation closed at the start of the run, one batch (and one transaction) at a time.
+     *
+     * @return the number of archived reservations
+     */
+    @Scheduled(fixedDelayString = "${reservation.archive.interval-ms}")
+    public int archiveClosedReservations() {
+        LocalDate today = LocalDate.now();
+        LocalDateTime archivedAt = LocalDateTime.now();
+        int total = 0;
+        int archived;
+        do {
+            archived = archiveRepository.archiveClosedReservations(today, archivedAt, ARCHIVE_BATCH_SIZE);
+            total += archived;
+        } while (archived == ARCHIVE_BATCH_SIZE);
+        return total;
+    }
+}
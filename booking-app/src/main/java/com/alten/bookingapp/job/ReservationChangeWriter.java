@@ -0,0 +1,149 @@
+package com.alten.bookingapp.job;
+
+import com.alten.bookingapp.event.ReservationChangedEvent;
+import com.alten.bookingapp.model.entities.ReservationChange;
+import com.alten.bookingapp.repository.ReservationChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends every committed change of a reservation to the {@code reservation_change} table, behind the requests.
+ * <p>
+ * The changes are queued as they commit and a single writer thread inserts them in batches, in the order they were
+ * queued, so a write request does not pay for an extra insert. The queue is bounded: when it is full, the request
+ * waits up to {@code reservation.history.offer-timeout-ms} for room, and then inserts its change itself rather than
+ * dropping it, which slows the writes down to the pace of the history. A batch that fails is retried with a growing
+ * delay until it is written. On shutdown, the queued changes are written before the application stops; the changes
+ * queued by a replica that crashes are lost.
+ */
+@Component
+@Profile("!edge")
+public class ReservationChangeWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationChangeWriter.class);
+
+    @Value("${reservation.history.queue-capacity}")
+    private int QUEUE_CAPACITY;
+
+    @Value("${reservation.history.batch-size}")
+    private int BATCH_SIZE;
+
+    @Value("${reservation.history.offer-timeout-ms}")
+    private long OFFER_TIMEOUT_MS;
+
+    @Value("${reservation.history.max-backoff-ms}")
+    private long MAX_BACKOFF_MS;
+
+    private final ReservationChangeRepository changeRepository;
+    private BlockingQueue<ReservationChange> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    public ReservationChangeWriter(ReservationChangeRepository changeRepository) {
+        this.changeRepository = changeRepository;
+    }
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        running = true;
+        writer = new Thread(this::run, "reservation-history");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Waits for the queued changes to be written.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        ReservationChange change = ReservationChange.builder()
+                .reservationId(event.getReservationId())
+                .version(event.getVersion())
+                .hotelId(event.getHotelId())
+                .changeType(event.getType())
+                .guestName(event.getGuestName())
+                .checkInDate(event.getCheckInDate())
+                .checkOutDate(event.getCheckOutDate())
+                .roomId(event.getRoomId())
+                .changedAt(event.getOccurredAt())
+                .build();
+        try {
+            if (queue.offer(change, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.warn("Reservation history queue is full, writing the change of reservation {} directly",
+                event.getReservationId());
+        try {
+            changeRepository.insertAll(List.of(change));
+        } catch (RuntimeException e) {
+            log.error("Lost the change of reservation {} to version {}", change.getReservationId(),
+                    change.getVersion(), e);
+        }
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            ReservationChange first;
+            try {
+                first = queue.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (first == null) {
+                continue;
+            }
+            List<ReservationChange> batch = new ArrayList<>(BATCH_SIZE);
+            batch.add(first);
+            queue.drainTo(batch, BATCH_SIZE - 1);
+            write(batch);
+        }
+    }
+
+    /**
+     * Inserts the batch, retrying with a delay that doubles up to {@code reservation.history.max-backoff-ms}. Once
+     * the writer is stopping, a batch that fails again is given up.
+     */
+    private void write(List<ReservationChange> batch) {
+        long backoffMs = 100;
+        while (true) {
+            try {
+                changeRepository.insertAll(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    log.error("Lost {} reservation changes on shutdown", batch.size(), e);
+                    return;
+                }
+                log.warn("Could not write {} reservation changes, retrying in {} ms", batch.size(), backoffMs, e);
+            }
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                // Retried right away, and given up if the writer is stopping.
+            }
+            backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+        }
+    }
+}
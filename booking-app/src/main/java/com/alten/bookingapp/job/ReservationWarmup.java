@@ -0,0 +1,120 @@
+package com.alten.bookingapp.job;
+
+import com.alten.bookingapp.model.dto.ReservationDTO;
+import com.alten.bookingapp.service.ReservationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+
+/**
+ * Exercises the hot paths of the {@link ReservationService} when a replica starts, so the first real requests do not
+ * run on a cold JIT, an empty Hibernate query plan cache and an empty connection pool.
+ * <p>
+ * Spring Boot only reports the replica as ready (readiness probe) once the application runners are done, so the
+ * replica does not take traffic while warming up. Reads run as usual; bookings run in a transaction that is always
+ * rolled back, so the warm-up leaves no data behind.
+ * <p>
+ * The warm-up runs in rounds and stops when a round adds less than {@code reservation.warmup.settled-compilation-ms}
+ * of JIT compilation time, or when {@code reservation.warmup.max-duration-ms} is reached.
+ */
+@Component
+@Profile("!edge")
+@ConditionalOnWebApplication
+@ConditionalOnProperty(name = "reservation.warmup.enabled", havingValue = "true")
+public class ReservationWarmup implements ApplicationRunner {
+
+    private static final String WARMUP_GUEST_NAME = "Warm-up";
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationWarmup.class);
+
+    @Value("${reservation.warmup.round-size}")
+    private int ROUND_SIZE;
+
+    @Value("${reservation.warmup.max-duration-ms}")
+    private long MAX_DURATION_MS;
+
+    @Value("${reservation.warmup.settled-compilation-ms}")
+    private long SETTLED_COMPILATION_MS;
+
+    @Value("${reservation.max-advance-booking-days}")
+    private int MAX_ADVANCE_BOOKING_DAYS;
+
+    private final ReservationService reservationService;
+    private final TransactionTemplate rollbackTransaction;
+
+    public ReservationWarmup(ReservationService reservationService, PlatformTransactionManager transactionManager) {
+        this.reservationService = reservationService;
+        this.rollbackTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+        boolean monitored = compilation != null && compilation.isCompilationTimeMonitoringSupported();
+        long start = System.currentTimeMillis();
+        long deadline = start + MAX_DURATION_MS;
+        int rounds = 0;
+        long compiled;
+        do {
+            long compilationTime = monitored ? compilation.getTotalCompilationTime() : 0;
+            runRound();
+            rounds++;
+            compiled = monitored ? compilation.getTotalCompilationTime() - compilationTime : 0;
+        } while (monitored && compiled >= SETTLED_COMPILATION_MS && System.currentTimeMillis() < deadline);
+        log.info("Warm-up done in {} ms after {} rounds of {} operations, last round compiled for {} ms",
+                System.currentTimeMillis() - start, rounds, ROUND_SIZE, compiled);
+    }
+
+    /**
+     * Runs one round of availability checks, searches, dry-run bookings and listings.
+     */
+    void runRound() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        Pageable firstPage = PageRequest.of(0, 20);
+        for (int i = 0; i < ROUND_SIZE; i++) {
+            LocalDate checkIn = tomorrow.plusDays(i % MAX_ADVANCE_BOOKING_DAYS);
+            boolean fuzzy = i % 2 == 0;
+            ignoreRejection(() -> reservationService.checkRoomAvailability(checkIn, checkIn));
+            ignoreRejection(() -> reservationService.searchReservations(WARMUP_GUEST_NAME, fuzzy, firstPage));
+            ignoreRejection(() -> dryRunReservation(checkIn));
+        }
+        reservationService.getAllReservations();
+    }
+
+    private void dryRunReservation(LocalDate checkIn) {
+        rollbackTransaction.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            reservationService.placeReservation(ReservationDTO.builder()
+                    .guestName(WARMUP_GUEST_NAME)
+                    .checkInDate(checkIn)
+                    .checkOutDate(checkIn)
+                    .build());
+        });
+    }
+
+    /**
+     * Runs an operation whose business rejections (room not available, invalid dates...) are as good as a success
+     * for warming up.
+     */
+    private static void ignoreRejection(Runnable operation) {
+        try {
+            operation.run();
+        } catch (RuntimeException e) {
+            log.debug("Warm-up operation rejected: {}", e.getMessage());
+        }
+    }
+}
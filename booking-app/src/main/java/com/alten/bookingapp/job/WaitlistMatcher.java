@@ -0,0 +1,42 @@
+package com.alten.bookingapp.job;
+
+import com.alten.bookingapp.event.StayReleasedEvent;
+import com.alten.bookingapp.service.WaitlistService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Offers the nights freed by every committed change to the waitlist.
+ * <p>
+ * The matching runs on the {@code waitlistExecutor} rather than on the request thread: the request still holds its
+ * database connection until its transaction is cleaned up, so matching there would need a second connection per
+ * request and could exhaust the pool under load. Nights freed outside of a transaction, such as by a released hold,
+ * are matched as well.
+ */
+@Component
+@Profile("!edge")
+public class WaitlistMatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistMatcher.class);
+
+    private final WaitlistService waitlistService;
+
+    public WaitlistMatcher(WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+
+    @Async("waitlistExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStayReleased(StayReleasedEvent event) {
+        try {
+            waitlistService.fulfilWaitlist(event);
+        } catch (RuntimeException e) {
+            log.warn("Could not match the waitlist with the nights freed in room {} from {} to {}", event.getRoomId(),
+                    event.getCheckInDate(), event.getCheckOutDate(), e);
+        }
+    }
+}
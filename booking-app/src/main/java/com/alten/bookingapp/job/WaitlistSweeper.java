@@ -0,0 +1,44 @@
+package com.alten.bookingapp.job;
+
+import com.alten.bookingapp.repository.WaitlistRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Periodically removes the waitlist entries that can no longer be of use, in batches: waiting entries whose check-in
+ * date has come, which the matching already ignores, and fulfilled entries whose stay is over.
+ */
+@Component
+@Profile("!edge")
+public class WaitlistSweeper {
+
+    @Value("${reservation.waitlist.sweep-batch-size}")
+    private int SWEEP_BATCH_SIZE;
+
+    private final WaitlistRepository waitlistRepository;
+
+    public WaitlistSweeper(WaitlistRepository waitlistRepository) {
+        this.waitlistRepository = waitlistRepository;
+    }
+
+    /**
+     * Deletes every lapsed entry, one batch at a time.
+     *
+     * @return the number of deleted entries
+     */
+    @Scheduled(fixedDelayString = "${reservation.waitlist.sweep-interval-ms}")
+    public int sweepLapsedEntries() {
+        LocalDate today = LocalDate.now();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = waitlistRepository.deleteLapsed(today, SWEEP_BATCH_SIZE);
+            total += deleted;
+        } while (deleted == SWEEP_BATCH_SIZE);
+        return total;
+    }
+}
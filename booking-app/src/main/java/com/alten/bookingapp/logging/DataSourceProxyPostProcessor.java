@@ -0,0 +1,34 @@
+package com.alten.bookingapp.logging;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the data source, so every statement run by JPA or by the JDBC templates goes through the
+ * {@link SlowQueryListener}. Connections are still unwrapped to the driver's for the COPY protocol.
+ */
+@Component
+public class DataSourceProxyPostProcessor implements BeanPostProcessor {
+
+    private final long slowQueryMs;
+
+    public DataSourceProxyPostProcessor(@Value("${reservation.logging.slow-query-ms}") long slowQueryMs) {
+        this.slowQueryMs = slowQueryMs;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource) || bean instanceof ProxyDataSource) {
+            return bean;
+        }
+        return ProxyDataSourceBuilder.create((DataSource) bean)
+                .name(beanName)
+                .listener(new SlowQueryListener(slowQueryMs))
+                .build();
+    }
+}
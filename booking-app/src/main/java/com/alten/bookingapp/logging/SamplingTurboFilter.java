@@ -0,0 +1,62 @@
+package com.alten.bookingapp.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one in every {@code oneIn} events of the loggers under {@code logger}, up to {@code level}, and drops the
+ * others before their message is formatted. The events of higher levels are always kept.
+ * <p>
+ * Configured in {@code logback-spring.xml}, once per noisy logger:
+ * <pre>{@code
+ * <turboFilter class="com.alten.bookingapp.logging.SamplingTurboFilter">
+ *     <logger>com.alten.bookingapp.availability.DegradedAvailability</logger>
+ *     <level>WARN</level>
+ *     <oneIn>100</oneIn>
+ * </turboFilter>
+ * }</pre>
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final AtomicLong events = new AtomicLong();
+
+    private String logger;
+    private Level level = Level.INFO;
+    private int oneIn = 1;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // the isEnabled checks have no format and are not counted as events
+        if (!isStarted() || format == null || oneIn <= 1 || level.toInt() > this.level.toInt()
+                || !logger.getName().startsWith(this.logger)) {
+            return FilterReply.NEUTRAL;
+        }
+        return events.getAndIncrement() % oneIn == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    @Override
+    public void start() {
+        if (logger == null) {
+            addError("No logger set for the sampling filter " + getName());
+            return;
+        }
+        super.start();
+    }
+
+    public void setLogger(String logger) {
+        this.logger = logger;
+    }
+
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.INFO);
+    }
+
+    public void setOneIn(int oneIn) {
+        this.oneIn = oneIn;
+    }
+}
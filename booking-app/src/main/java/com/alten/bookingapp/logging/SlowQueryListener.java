@@ -0,0 +1,104 @@
+package com.alten.bookingapp.logging;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Logs the statements that take longer than a threshold, with their bind parameters, the application method that ran
+ * them and the current trace. The statements under the threshold only cost a comparison, and the caller is only
+ * looked up in the stack of the slow ones.
+ */
+public class SlowQueryListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryListener.class);
+
+    /**
+     * The number of parameter sets logged for a batch, the others are only counted.
+     */
+    private static final int MAX_PARAMETER_SETS = 10;
+
+    private static final String APPLICATION_PACKAGE = "com.alten.bookingapp.";
+    private static final String REPOSITORY_PACKAGE = APPLICATION_PACKAGE + "repository.";
+    private static final String LOGGING_PACKAGE = APPLICATION_PACKAGE + "logging.";
+
+    private static final Comparator<ParameterSetOperation> BY_INDEX = Comparator.comparingInt(
+            operation -> operation.getArgs()[0] instanceof Integer ? (Integer) operation.getArgs()[0] : 0);
+
+    private final long thresholdMs;
+
+    public SlowQueryListener(long thresholdMs) {
+        this.thresholdMs = thresholdMs;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < thresholdMs || !log.isWarnEnabled()) {
+            return;
+        }
+        SpanContext span = Span.current().getSpanContext();
+        log.warn("elapsed_ms={} success={} caller={} trace_id={} sql=\"{}\" params={}", execInfo.getElapsedTime(),
+                execInfo.isSuccess(), caller(), span.isValid() ? span.getTraceId() : "-",
+                queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; ")),
+                parameters(queryInfoList));
+    }
+
+    /**
+     * Finds the first application method in the stack that is not a repository, which is the service or job that ran
+     * the statement, as {@code Class.method:line}.
+     */
+    static String caller() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE)
+                        && !frame.getClassName().startsWith(REPOSITORY_PACKAGE)
+                        && !frame.getClassName().startsWith(LOGGING_PACKAGE)
+                        && !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1) + "."
+                        + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("-"));
+    }
+
+    static String parameters(List<QueryInfo> queryInfoList) {
+        StringBuilder parameters = new StringBuilder("[");
+        int total = 0;
+        for (QueryInfo queryInfo : queryInfoList) {
+            for (List<ParameterSetOperation> parameterSet : queryInfo.getParametersList()) {
+                if (total < MAX_PARAMETER_SETS) {
+                    parameters.append(total > 0 ? ", (" : "(")
+                            .append(parameterSet.stream()
+                                    .sorted(BY_INDEX)
+                                    .map(SlowQueryListener::value)
+                                    .collect(Collectors.joining(", ")))
+                            .append(')');
+                }
+                total++;
+            }
+        }
+        if (total > MAX_PARAMETER_SETS) {
+            parameters.append(", ... ").append(total - MAX_PARAMETER_SETS).append(" more");
+        }
+        return parameters.append(']').toString();
+    }
+
+    private static String value(ParameterSetOperation operation) {
+        if ("setNull".equals(operation.getMethod().getName())) {
+            return "null";
+        }
+        Object value = operation.getArgs()[1];
+        return value instanceof CharSequence ? "'" + value + "'" : String.valueOf(value);
+    }
+}
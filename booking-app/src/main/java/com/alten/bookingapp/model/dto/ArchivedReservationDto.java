@@ -0,0 +1,39 @@
+package com.alten.bookingapp.model.dto;
+
+import com.alten.bookingapp.model.entities.RoomType;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of an archived reservation, built by constructor expressions like {@link ReservationSummaryDto}.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class ArchivedReservationDto {
+    private Long id;
+    private String guestName;
+    @JsonFormat(pattern = "yyyy-MM-dd", timezone = "UTC")
+    private LocalDate checkInDate;
+    @JsonFormat(pattern = "yyyy-MM-dd", timezone = "UTC")
+    private LocalDate checkOutDate;
+    private LocalDateTime createdAt;
+    private LocalDateTime modifiedAt;
+    private Boolean cancelled;
+    private LocalDateTime archivedAt;
+    private RoomDto room;
+
+    public ArchivedReservationDto(Long id, String guestName, LocalDate checkInDate, LocalDate checkOutDate,
+                                  LocalDateTime createdAt, LocalDateTime modifiedAt, Boolean cancelled,
+                                  LocalDateTime archivedAt, Long roomId, Short numberOfBeds, RoomType roomType) {
+        this(id, guestName, checkInDate, checkOutDate, createdAt, modifiedAt, cancelled, archivedAt,
+                RoomDto.of(roomId, numberOfBeds, roomType));
+    }
+}
@@ -0,0 +1,36 @@
+package com.alten.bookingapp.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Filter of the active reservations of the hotel to cancel. Every filter given must match, and at least one must be
+ * given.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class BulkCancelDTO {
+
+    private Long roomId;
+    /**
+     * First date of the range the stays must overlap.
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd", timezone = "UTC")
+    private LocalDate from;
+    /**
+     * Last date, included, of the range the stays must overlap.
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd", timezone = "UTC")
+    private LocalDate to;
+    /**
+     * Guest name of the reservations, ignoring case.
+     */
+    private String guestName;
+}
@@ -0,0 +1,39 @@
+package com.alten.bookingapp.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Outcome of a bulk operation for one reservation, with its dates once changed and before.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@NoArgsConstructor
+public class BulkChangeDto {
+
+    public enum Status {
+        CANCELLED, SHIFTED, NOT_FOUND, INVALID_DATES, CONFLICT
+    }
+
+    private Long reservationId;
+    private Status status;
+    private Long roomId;
+    private String guestName;
+    @JsonFormat(pattern = "yyyy-MM-dd", timezone = "UTC")
+    private LocalDate checkInDate;
+    @JsonFormat(pattern = "yyyy-MM-dd", timezone = "UTC")
+    private LocalDate checkOutDate;
+    @JsonFormat(pattern = "yyyy-MM-dd", timezone = "UTC")
+    private LocalDate previousCheckInDate;
+    @JsonFormat(pattern = "yyyy-MM-dd", timezone = "UTC")
+    private LocalDate previousCheckOutDate;
+    private Long version;
+}
@@ -0,0 +1,20 @@
+package com.alten.bookingapp.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class BulkChangeResultDto {
+    private long changed;
+    private long rejected;
+    @Builder.Default
+    private List<BulkChangeDto> results = new ArrayList<>();
+}
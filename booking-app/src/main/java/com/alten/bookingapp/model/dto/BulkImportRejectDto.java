@@ -0,0 +1,15 @@
+package com.alten.bookingapp.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class BulkImportRejectDto {
+    private long line;
+    private String reason;
+}
@@ -0,0 +1,21 @@
+package com.alten.bookingapp.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class BulkImportResultDto {
+    private long received;
+    private long imported;
+    private long rejected;
+    @Builder.Default
+    private List<BulkImportRejectDto> rejects = new ArrayList<>();
+}
@@ -0,0 +1,26 @@
+package com.alten.bookingapp.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class BulkShiftDTO {
+
+    @NotEmpty(message = "reservation-ids must not be empty")
+    private List<Long> reservationIds;
+
+    /**
+     * Number of days to move the stays by, negative to move them earlier.
+     */
+    @NotNull(message = "days must not be null")
+    private Integer days;
+}
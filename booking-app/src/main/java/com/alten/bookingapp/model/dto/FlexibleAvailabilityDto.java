@@ -0,0 +1,43 @@
+package com.alten.bookingapp.model.dto;
+
+import com.alten.bookingapp.model.entities.RoomType;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class FlexibleAvailabilityDto {
+    private int days;
+    @JsonFormat(pattern = "yyyy-MM-dd", timezone = "UTC")
+    private LocalDate from;
+    @JsonFormat(pattern = "yyyy-MM-dd", timezone = "UTC")
+    private LocalDate to;
+    /**
+     * The number of free stays found, before the limit is applied.
+     */
+    private int found;
+    private List<Stay> stays;
+
+    @AllArgsConstructor
+    @Builder
+    @Data
+    @NoArgsConstructor
+    public static class Stay {
+        private Long roomId;
+        private RoomType roomType;
+        @JsonFormat(pattern = "yyyy-MM-dd", timezone = "UTC")
+        private LocalDate checkInDate;
+        @JsonFormat(pattern = "yyyy-MM-dd", timezone = "UTC")
+        private LocalDate checkOutDate;
+        private int freeNightsBefore;
+        private int freeNightsAfter;
+    }
+}
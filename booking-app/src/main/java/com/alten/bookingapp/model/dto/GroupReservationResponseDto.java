@@ -0,0 +1,34 @@
+package com.alten.bookingapp.model.dto;
+
+import com.alten.bookingapp.model.entities.RoomType;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class GroupReservationResponseDto {
+    private String guestName;
+    @JsonFormat(pattern = "yyyy-MM-dd", timezone = "UTC")
+    private LocalDate checkInDate;
+    @JsonFormat(pattern = "yyyy-MM-dd", timezone = "UTC")
+    private LocalDate checkOutDate;
+    private List<Allocation> reservations;
+
+    @AllArgsConstructor
+    @Builder
+    @Data
+    @NoArgsConstructor
+    public static class Allocation {
+        private Long reservationId;
+        private Long roomId;
+        private RoomType roomType;
+    }
+}
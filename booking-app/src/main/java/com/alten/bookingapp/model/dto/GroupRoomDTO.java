@@ -0,0 +1,23 @@
+package com.alten.bookingapp.model.dto;
+
+import com.alten.bookingapp.model.entities.RoomType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class GroupRoomDTO {
+
+    @NotNull(message = "room-type must not be null")
+    private RoomType roomType;
+
+    @Min(value = 1, message = "quantity must be at least 1")
+    private int quantity;
+}
@@ -0,0 +1,23 @@
+package com.alten.bookingapp.model.dto;
+
+import com.alten.bookingapp.model.entities.RoomType;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class OccupancyDto {
+    @JsonFormat(pattern = "yyyy-MM-dd", timezone = "UTC")
+    private LocalDate day;
+    private RoomType roomType;
+    private int occupiedRooms;
+    private long totalRooms;
+    private double occupancyRate;
+}
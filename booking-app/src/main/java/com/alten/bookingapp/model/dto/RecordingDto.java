@@ -0,0 +1,19 @@
+package com.alten.bookingapp.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class RecordingDto {
+    private Long id;
+    private String name;
+    private String state;
+    private Instant startTime;
+}
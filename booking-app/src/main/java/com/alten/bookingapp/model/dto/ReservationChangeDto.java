@@ -0,0 +1,30 @@
+package com.alten.bookingapp.model.dto;
+
+import com.alten.bookingapp.event.ReservationChangedEvent;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of a change of a reservation, built by a constructor expression like {@link ReservationSummaryDto}.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class ReservationChangeDto {
+    private Long version;
+    private ReservationChangedEvent.Type changeType;
+    private String guestName;
+    @JsonFormat(pattern = "yyyy-MM-dd", timezone = "UTC")
+    private LocalDate checkInDate;
+    @JsonFormat(pattern = "yyyy-MM-dd", timezone = "UTC")
+    private LocalDate checkOutDate;
+    private Long roomId;
+    private LocalDateTime changedAt;
+}
@@ -38,4 +38,7 @@ public class ReservationDTO {
 
     @JsonIgnore
     private boolean cancelled;
+
+    @JsonIgnore
+    private Long version;
 }
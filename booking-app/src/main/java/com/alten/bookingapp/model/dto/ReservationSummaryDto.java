@@ -0,0 +1,40 @@
+package com.alten.bookingapp.model.dto;
+
+import com.alten.bookingapp.model.entities.RoomType;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of a reservation, with the same JSON shape as the entity. It is built by constructor expressions
+ * that select only these columns, so listing reservations does not load managed entities.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class ReservationSummaryDto {
+    private Long id;
+    private String guestName;
+    @JsonFormat(pattern = "yyyy-MM-dd", timezone = "UTC")
+    private LocalDate checkInDate;
+    @JsonFormat(pattern = "yyyy-MM-dd", timezone = "UTC")
+    private LocalDate checkOutDate;
+    private LocalDateTime createdAt;
+    private LocalDateTime modifiedAt;
+    private Boolean cancelled;
+    private Long version;
+    private RoomDto room;
+
+    public ReservationSummaryDto(Long id, String guestName, LocalDate checkInDate, LocalDate checkOutDate,
+                                 LocalDateTime createdAt, LocalDateTime modifiedAt, Boolean cancelled, Long version,
+                                 Long roomId, Short numberOfBeds, RoomType roomType) {
+        this(id, guestName, checkInDate, checkOutDate, createdAt, modifiedAt, cancelled, version,
+                RoomDto.of(roomId, numberOfBeds, roomType));
+    }
+}
@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @AllArgsConstructor
 @Builder
@@ -17,5 +18,11 @@ public class ResponseDto {
     @JsonFormat(pattern = "yyyy-MM-dd", timezone = "UTC")
     private LocalDate checkOutDate;
     private String message;
+    /**
+     * True when the availability was answered from the snapshot because the database is degraded; it may have
+     * changed since {@link #snapshotTakenAt}.
+     */
+    private boolean stale;
+    private LocalDateTime snapshotTakenAt;
 }
 
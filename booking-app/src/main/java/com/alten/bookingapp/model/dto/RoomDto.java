@@ -0,0 +1,24 @@
+package com.alten.bookingapp.model.dto;
+
+import com.alten.bookingapp.model.entities.RoomType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class RoomDto {
+    private Long id;
+    private Short numberOfBeds;
+    private RoomType roomType;
+
+    /**
+     * Builds the room of a projected row, or null if the row has no room.
+     */
+    static RoomDto of(Long id, Short numberOfBeds, RoomType roomType) {
+        return id == null ? null : new RoomDto(id, numberOfBeds, roomType);
+    }
+}
@@ -0,0 +1,34 @@
+package com.alten.bookingapp.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class WaitlistDTO {
+
+    private Long id;
+
+    private String guestName;
+    @JsonFormat(pattern = "yyyy-MM-dd", timezone = "UTC")
+    private LocalDate checkInDate;
+    @JsonFormat(pattern = "yyyy-MM-dd", timezone = "UTC")
+    private LocalDate checkOutDate;
+
+    private LocalDateTime createdAt;
+
+    /**
+     * The reservation booked for the entry, or null while the entry is waiting.
+     */
+    private Long reservationId;
+
+    private LocalDateTime fulfilledAt;
+}
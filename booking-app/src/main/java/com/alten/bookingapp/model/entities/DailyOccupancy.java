@@ -0,0 +1,45 @@
+package com.alten.bookingapp.model.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Number of rooms of a type occupied on a day in a hotel. A reservation occupies its room on every date from check-in
+ * to check-out, both included, as in the availability checks.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@Entity
+@IdClass(DailyOccupancy.Key.class)
+@NoArgsConstructor
+@Table(name = "daily_occupancy")
+public class DailyOccupancy {
+
+    @Id
+    private Long hotelId;
+
+    @Id
+    private LocalDate day;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private RoomType roomType;
+
+    private Integer occupiedRooms;
+
+    @AllArgsConstructor
+    @Data
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private Long hotelId;
+        private LocalDate day;
+        private RoomType roomType;
+    }
+}
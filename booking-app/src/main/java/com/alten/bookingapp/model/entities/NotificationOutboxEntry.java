@@ -0,0 +1,40 @@
+package com.alten.bookingapp.model.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@Builder
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "notification_outbox")
+public class NotificationOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The name of the sink the notifications are for.
+     */
+    private String sink;
+
+    /**
+     * The batch of notifications, as a JSON array.
+     */
+    private String payload;
+
+    private int attempts;
+
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime nextAttemptAt;
+}
@@ -20,6 +20,8 @@ public class Reservation {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    private Long hotelId;
+
     private String guestName;
 
     private LocalDate checkInDate;
@@ -32,7 +34,23 @@ public class Reservation {
 
     private Boolean cancelled;
 
+    @Version
+    private Long version;
+
     @ManyToOne
     @JoinColumn(name = "room_id")
     private Room room;
+
+    /**
+     * The check-in date before the last modification, only set on the reservations returned by
+     * {@link com.alten.bookingapp.repository.ReservationBatchRepository#modifyIfAvailable}.
+     */
+    @Transient
+    private LocalDate previousCheckInDate;
+
+    /**
+     * The check-out date before the last modification, set like {@link #previousCheckInDate}.
+     */
+    @Transient
+    private LocalDate previousCheckOutDate;
 }
@@ -0,0 +1,49 @@
+package com.alten.bookingapp.model.entities;
+
+import com.alten.bookingapp.event.ReservationChangedEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A change of a reservation, with the state of the reservation once changed. The changes are only ever appended.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "reservation_change")
+public class ReservationChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long reservationId;
+
+    /**
+     * The version of the reservation once changed, which orders the changes of a reservation.
+     */
+    private Long version;
+
+    private Long hotelId;
+
+    @Enumerated(EnumType.STRING)
+    private ReservationChangedEvent.Type changeType;
+
+    private String guestName;
+
+    private LocalDate checkInDate;
+
+    private LocalDate checkOutDate;
+
+    private Long roomId;
+
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,39 @@
+package com.alten.bookingapp.model.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@Builder
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "reservation_hold")
+public class ReservationHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long hotelId;
+
+    private String guestName;
+
+    private LocalDate checkInDate;
+
+    private LocalDate checkOutDate;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime expiresAt;
+
+    @ManyToOne
+    @JoinColumn(name = "room_id")
+    private Room room;
+}
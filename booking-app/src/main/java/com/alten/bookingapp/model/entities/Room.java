@@ -17,6 +17,7 @@ public class Room {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+    private Long hotelId;
     private Short numberOfBeds;
     @Enumerated(EnumType.STRING)
     private RoomType roomType;
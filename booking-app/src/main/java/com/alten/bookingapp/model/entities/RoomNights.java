@@ -0,0 +1,41 @@
+package com.alten.bookingapp.model.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Nights of a month occupied by the active reservations of a room, one bit per night: bit 0 is the first day of the
+ * month. A reservation occupies its room on every date from check-in to check-out, both included, as in the
+ * availability checks.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@Entity
+@IdClass(RoomNights.Key.class)
+@NoArgsConstructor
+@Table(name = "room_nights")
+public class RoomNights {
+
+    @Id
+    private Long roomId;
+
+    @Id
+    private LocalDate monthStart;
+
+    private Long nights;
+
+    @AllArgsConstructor
+    @Data
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private Long roomId;
+        private LocalDate monthStart;
+    }
+}
@@ -0,0 +1,44 @@
+package com.alten.bookingapp.model.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@Builder
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "reservation_waitlist")
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long hotelId;
+
+    private String guestName;
+
+    private LocalDate checkInDate;
+
+    private LocalDate checkOutDate;
+
+    private LocalDateTime createdAt;
+
+    /**
+     * The reservation booked for the entry, or null while the entry is waiting.
+     */
+    private Long reservationId;
+
+    private LocalDateTime fulfilledAt;
+
+    @ManyToOne
+    @JoinColumn(name = "room_id")
+    private Room room;
+}
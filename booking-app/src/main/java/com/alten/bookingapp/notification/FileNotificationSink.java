@@ -0,0 +1,51 @@
+package com.alten.bookingapp.notification;
+
+import com.alten.bookingapp.event.ReservationChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Stand-in for the channel manager, which appends the changes to a file, one JSON document per line.
+ */
+@Component
+@ConditionalOnProperty(name = "reservation.notifications.file.enabled", havingValue = "true")
+public class FileNotificationSink implements NotificationSink {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    public FileNotificationSink(@Value("${reservation.notifications.file.path}") String path,
+                                ObjectMapper objectMapper) {
+        this.path = Path.of(path);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String getName() {
+        return "channel-manager";
+    }
+
+    /**
+     * Appends the whole batch with a single write.
+     */
+    @Override
+    public void deliver(List<ReservationChangedEvent> events) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (ReservationChangedEvent event : events) {
+            lines.append(objectMapper.writeValueAsString(event)).append('\n');
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Files.writeString(path, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,67 @@
+package com.alten.bookingapp.notification;
+
+import com.alten.bookingapp.event.ReservationChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Stand-in for the mail server sending the confirmation messages to the guests, which keeps the last messages in
+ * memory instead of sending them.
+ */
+@Component
+@ConditionalOnProperty(name = "reservation.notifications.mail.enabled", havingValue = "true")
+public class InMemoryMailSink implements NotificationSink {
+
+    private final int capacity;
+    private final Deque<String> messages = new ArrayDeque<>();
+
+    public InMemoryMailSink(@Value("${reservation.notifications.mail.capacity}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public String getName() {
+        return "mail";
+    }
+
+    @Override
+    public synchronized void deliver(List<ReservationChangedEvent> events) {
+        for (ReservationChangedEvent event : events) {
+            if (messages.size() == capacity) {
+                messages.removeFirst();
+            }
+            messages.addLast(format(event));
+        }
+    }
+
+    /**
+     * @return the messages kept, oldest first
+     */
+    public synchronized List<String> getMessages() {
+        return new ArrayList<>(messages);
+    }
+
+    private static String format(ReservationChangedEvent event) {
+        String subject;
+        switch (event.getType()) {
+            case BOOKED:
+                subject = "Your reservation " + event.getReservationId() + " is confirmed";
+                break;
+            case MODIFIED:
+                subject = "Your reservation " + event.getReservationId() + " has been modified";
+                break;
+            default:
+                subject = "Your reservation " + event.getReservationId() + " has been cancelled";
+        }
+        return "To: " + event.getGuestName() + "\n" +
+                "Subject: " + subject + "\n\n" +
+                "Check-in: " + event.getCheckInDate() + "\n" +
+                "Check-out: " + event.getCheckOutDate() + "\n";
+    }
+}
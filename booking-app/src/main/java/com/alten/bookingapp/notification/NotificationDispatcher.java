@@ -0,0 +1,170 @@
+package com.alten.bookingapp.notification;
+
+import com.alten.bookingapp.event.ReservationChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatches the committed reservation changes to the {@link NotificationSink}s, off the request threads.
+ * <p>
+ * Each sink has its own bounded queue and worker thread, so a slow or failing sink neither delays the requests nor
+ * the other sinks. A worker delivers what has been queued in batches, and retries a failed batch with exponential
+ * backoff. A batch the sink still rejects after the last attempt, or a change that does not fit in a full queue, is
+ * stored in the {@link NotificationOutbox}, from which the {@link com.alten.bookingapp.job.NotificationOutboxRelay}
+ * delivers it later. The queues are in memory: on shutdown, what is left in them is moved to the outbox, but the
+ * changes queued by a replica that crashes are lost.
+ */
+@Component
+@Profile("!edge")
+public class NotificationDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    @Value("${reservation.notifications.queue-capacity}")
+    private int QUEUE_CAPACITY;
+
+    @Value("${reservation.notifications.batch-size}")
+    private int BATCH_SIZE;
+
+    @Value("${reservation.notifications.max-attempts}")
+    private int MAX_ATTEMPTS;
+
+    @Value("${reservation.notifications.initial-backoff-ms}")
+    private long INITIAL_BACKOFF_MS;
+
+    private final List<NotificationSink> sinks;
+    private final NotificationOutbox outbox;
+    private final List<SinkWorker> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public NotificationDispatcher(List<NotificationSink> sinks, NotificationOutbox outbox) {
+        this.sinks = sinks;
+        this.outbox = outbox;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (NotificationSink sink : sinks) {
+            SinkWorker worker = new SinkWorker(sink);
+            workers.add(worker);
+            worker.thread.start();
+        }
+    }
+
+    /**
+     * Queues the change for every sink once its transaction has committed, without waiting for any of them. Only when
+     * the queue of a sink is full is the change written to the outbox by the calling thread.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        for (SinkWorker worker : workers) {
+            if (!worker.queue.offer(event)) {
+                log.warn("Notification queue of {} is full, storing reservation {} in the outbox",
+                        worker.sink.getName(), event.getReservationId());
+                saveToOutbox(worker.sink, List.of(event), "Queue full");
+            }
+        }
+    }
+
+    /**
+     * Stops the workers, letting them finish the batch at hand, and moves the changes left in the queues to the
+     * outbox.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (SinkWorker worker : workers) {
+            worker.thread.interrupt();
+        }
+        for (SinkWorker worker : workers) {
+            worker.thread.join(TimeUnit.SECONDS.toMillis(10));
+            List<ReservationChangedEvent> pending = new ArrayList<>();
+            worker.queue.drainTo(pending);
+            for (int from = 0; from < pending.size(); from += BATCH_SIZE) {
+                saveToOutbox(worker.sink, pending.subList(from, Math.min(from + BATCH_SIZE, pending.size())),
+                        "Shutdown");
+            }
+        }
+    }
+
+    /**
+     * Delivers a batch to the sink, retrying with exponential backoff, and stores it in the outbox when the sink still
+     * rejects it after the last attempt or when the dispatcher is stopping.
+     */
+    private void deliver(NotificationSink sink, List<ReservationChangedEvent> batch) {
+        long backoffMs = INITIAL_BACKOFF_MS;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                sink.deliver(batch);
+                return;
+            } catch (Exception e) {
+                if (attempt >= MAX_ATTEMPTS || !running) {
+                    log.warn("Could not deliver {} notifications to {} after {} attempts, storing them in the outbox",
+                            batch.size(), sink.getName(), attempt, e);
+                    saveToOutbox(sink, batch, e.toString());
+                    return;
+                }
+            }
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                saveToOutbox(sink, batch, "Shutdown");
+                return;
+            }
+            backoffMs *= 2;
+        }
+    }
+
+    private void saveToOutbox(NotificationSink sink, List<ReservationChangedEvent> events, String error) {
+        try {
+            outbox.save(sink.getName(), new ArrayList<>(events), error);
+        } catch (RuntimeException e) {
+            log.error("Lost {} notifications for {}", events.size(), sink.getName(), e);
+        }
+    }
+
+    private final class SinkWorker implements Runnable {
+
+        private final NotificationSink sink;
+        private final BlockingQueue<ReservationChangedEvent> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private final Thread thread;
+
+        private SinkWorker(NotificationSink sink) {
+            this.sink = sink;
+            this.thread = new Thread(this, "notifications-" + sink.getName());
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<ReservationChangedEvent> batch = new ArrayList<>(BATCH_SIZE);
+            while (running) {
+                try {
+                    ReservationChangedEvent first = queue.poll(1, TimeUnit.SECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                deliver(sink, batch);
+                batch.clear();
+            }
+        }
+    }
+}
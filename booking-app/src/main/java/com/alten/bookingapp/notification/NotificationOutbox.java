@@ -0,0 +1,73 @@
+package com.alten.bookingapp.notification;
+
+import com.alten.bookingapp.event.ReservationChangedEvent;
+import com.alten.bookingapp.model.entities.NotificationOutboxEntry;
+import com.alten.bookingapp.repository.NotificationOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps in the {@code notification_outbox} table the batches a sink could not accept, until the
+ * {@link com.alten.bookingapp.job.NotificationOutboxRelay} delivers them.
+ */
+@Component
+@Profile("!edge")
+public class NotificationOutbox {
+
+    private static final TypeReference<List<ReservationChangedEvent>> EVENTS = new TypeReference<>() {
+    };
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    public NotificationOutbox(NotificationOutboxRepository outboxRepository, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Stores a batch for the sink, due for another attempt right away. The batch is stored in its own transaction,
+     * whatever the transaction of the caller.
+     *
+     * @param error the reason the batch was not delivered
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void save(String sink, List<ReservationChangedEvent> events, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.save(NotificationOutboxEntry.builder()
+                .sink(sink)
+                .payload(write(events))
+                .attempts(0)
+                .lastError(error)
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build());
+    }
+
+    /**
+     * @return the batch stored in the entry
+     */
+    public List<ReservationChangedEvent> read(NotificationOutboxEntry entry) {
+        try {
+            return objectMapper.readValue(entry.getPayload(), EVENTS);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable notification outbox entry " + entry.getId(), e);
+        }
+    }
+
+    private String write(List<ReservationChangedEvent> events) {
+        try {
+            return objectMapper.writeValueAsString(events);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the notifications", e);
+        }
+    }
+}
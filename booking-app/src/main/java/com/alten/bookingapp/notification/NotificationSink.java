@@ -0,0 +1,23 @@
+package com.alten.bookingapp.notification;
+
+import com.alten.bookingapp.event.ReservationChangedEvent;
+
+import java.util.List;
+
+/**
+ * A consumer of the reservation changes, such as the guest confirmation messages or the channel manager, fed by the
+ * {@link NotificationDispatcher} off the request threads.
+ */
+public interface NotificationSink {
+
+    /**
+     * @return the name of the sink, which identifies it in the outbox
+     */
+    String getName();
+
+    /**
+     * Delivers a batch of changes, in the order they were committed. Delivery is retried with the whole batch when
+     * this method throws, so a sink must tolerate receiving a change twice.
+     */
+    void deliver(List<ReservationChangedEvent> events) throws Exception;
+}
@@ -0,0 +1,58 @@
+package com.alten.bookingapp.repository;
+
+import com.alten.bookingapp.model.entities.DailyOccupancy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DailyOccupancyRepository extends JpaRepository<DailyOccupancy, DailyOccupancy.Key> {
+
+    List<DailyOccupancy> findByHotelIdAndDayBetweenOrderByDayAscRoomTypeAsc(Long hotelId, LocalDate from, LocalDate to);
+
+    /**
+     * Adds {@code delta} to the occupancy of the room's hotel and type on every date from {@code checkInDate} to
+     * {@code checkOutDate}, both included, in a single statement.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_occupancy (hotel_id, day, room_type, occupied_rooms) " +
+            "SELECT rm.hotel_id, CAST(d AS date), rm.room_type, :delta " +
+            "FROM room rm " +
+            "CROSS JOIN generate_series(CAST(:checkInDate AS date), CAST(:checkOutDate AS date), interval '1 day') d " +
+            "WHERE rm.id = :roomId " +
+            "ON CONFLICT (hotel_id, day, room_type) " +
+            "DO UPDATE SET occupied_rooms = daily_occupancy.occupied_rooms + EXCLUDED.occupied_rooms",
+            nativeQuery = true)
+    int addStay(@Param("roomId") Long roomId,
+                @Param("checkInDate") LocalDate checkInDate,
+                @Param("checkOutDate") LocalDate checkOutDate,
+                @Param("delta") int delta);
+
+    /**
+     * Adds {@code delta} per room to the occupancy of the rooms' hotels and types on every date from
+     * {@code checkInDate} to {@code checkOutDate}, both included, in a single statement. The rows are upserted in
+     * the order of their key, like every other occupancy change, so concurrent bookings lock them in the same order
+     * and cannot deadlock.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_occupancy (hotel_id, day, room_type, occupied_rooms) " +
+            "SELECT rm.hotel_id, CAST(d AS date), rm.room_type, COUNT(*) * :delta " +
+            "FROM room rm " +
+            "CROSS JOIN generate_series(CAST(:checkInDate AS date), CAST(:checkOutDate AS date), interval '1 day') d " +
+            "WHERE rm.id IN (:roomIds) " +
+            "GROUP BY rm.hotel_id, CAST(d AS date), rm.room_type " +
+            "ORDER BY rm.hotel_id, CAST(d AS date), rm.room_type " +
+            "ON CONFLICT (hotel_id, day, room_type) " +
+            "DO UPDATE SET occupied_rooms = daily_occupancy.occupied_rooms + EXCLUDED.occupied_rooms",
+            nativeQuery = true)
+    int addStays(@Param("roomIds") Collection<Long> roomIds,
+                 @Param("checkInDate") LocalDate checkInDate,
+                 @Param("checkOutDate") LocalDate checkOutDate,
+                 @Param("delta") int delta);
+}
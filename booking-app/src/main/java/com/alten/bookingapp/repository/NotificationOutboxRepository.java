@@ -0,0 +1,27 @@
+package com.alten.bookingapp.repository;
+
+import com.alten.bookingapp.model.entities.NotificationOutboxEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxEntry, Long> {
+
+    /**
+     * Finds and locks at most {@code limit} entries due for another attempt, oldest first. Entries locked by another
+     * replica are skipped, so the replicas relay different entries.
+     */
+    @Query(value = "SELECT * FROM notification_outbox " +
+            "WHERE next_attempt_at <= :now " +
+            "ORDER BY id " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<NotificationOutboxEntry> lockDue(@Param("now") LocalDateTime now,
+                                          @Param("limit") int limit);
+}
@@ -0,0 +1,69 @@
+package com.alten.bookingapp.repository;
+
+import com.alten.bookingapp.model.dto.ArchivedReservationDto;
+import com.alten.bookingapp.model.entities.ArchivedReservation;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ReservationArchiveRepository extends JpaRepository<ArchivedReservation, Long> {
+
+    String SUMMARY = "SELECT new com.alten.bookingapp.model.dto.ArchivedReservationDto(" +
+            "a.id, a.guestName, a.checkInDate, a.checkOutDate, a.createdAt, a.modifiedAt, a.cancelled, a.archivedAt, " +
+            "rm.id, rm.numberOfBeds, rm.roomType) " +
+            "FROM ArchivedReservation a LEFT JOIN a.room rm ";
+
+    @Query(value = SUMMARY + "WHERE a.hotelId = :hotelId",
+            countQuery = "SELECT COUNT(a) FROM ArchivedReservation a WHERE a.hotelId = :hotelId")
+    Page<ArchivedReservationDto> findAllSummaries(@Param("hotelId") Long hotelId, Pageable pageable);
+
+    /**
+     * Finds the archived reservations of a guest of the hotel, ignoring case, through the index on the hotel and the
+     * lower-cased guest name.
+     */
+    @Query(value = SUMMARY + "WHERE a.hotelId = :hotelId AND lower(a.guestName) = lower(:guestName)",
+            countQuery = "SELECT COUNT(a) FROM ArchivedReservation a " +
+                    "WHERE a.hotelId = :hotelId AND lower(a.guestName) = lower(:guestName)")
+    Page<ArchivedReservationDto> findSummariesByGuestName(@Param("hotelId") Long hotelId,
+                                                          @Param("guestName") String guestName, Pageable pageable);
+
+    @Query(SUMMARY + "WHERE a.id = :id AND a.hotelId = :hotelId")
+    Optional<ArchivedReservationDto> findSummaryById(@Param("id") Long id, @Param("hotelId") Long hotelId);
+
+    boolean existsByIdAndHotelIdAndCancelledTrue(Long id, Long hotelId);
+
+    /**
+     * Moves at most {@code batchSize} closed reservations (cancelled, or checked out before {@code cutoff}) from
+     * the reservation table to the archive in a single statement. Rows locked by another replica's archiver are
+     * skipped, so several instances can run the job at the same time.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "WITH moved AS (" +
+            "DELETE FROM reservation WHERE id IN (" +
+            "SELECT id FROM reservation " +
+            "WHERE cancelled = true OR check_out_date < :cutoff " +
+            "ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, hotel_id, guest_name, check_in_date, check_out_date, created_at, modified_at, cancelled, " +
+            "room_id) " +
+            "INSERT INTO reservation_archive " +
+            "(id, hotel_id, guest_name, check_in_date, check_out_date, created_at, modified_at, cancelled, room_id, " +
+            "archived_at) " +
+            "SELECT id, hotel_id, guest_name, check_in_date, check_out_date, created_at, modified_at, cancelled, " +
+            "room_id, :archivedAt " +
+            "FROM moved",
+            nativeQuery = true)
+    int archiveClosedReservations(@Param("cutoff") LocalDate cutoff,
+                                  @Param("archivedAt") LocalDateTime archivedAt,
+                                  @Param("batchSize") int batchSize);
+}
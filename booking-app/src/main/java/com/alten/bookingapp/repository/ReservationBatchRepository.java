@@ -0,0 +1,74 @@
+package com.alten.bookingapp.repository;
+
+import com.alten.bookingapp.model.dto.BulkChangeDto;
+import com.alten.bookingapp.model.entities.Reservation;
+import com.alten.bookingapp.model.entities.Room;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ReservationBatchRepository {
+
+    /**
+     * Inserts one reservation per room, all for the same guest and dates, in a single statement. Each reservation
+     * belongs to the hotel of its room.
+     *
+     * @return the inserted reservations, with their IDs, in the order of {@code rooms}
+     */
+    List<Reservation> insertForRooms(List<Room> rooms, String guestName, LocalDate checkInDate,
+                                     LocalDate checkOutDate, LocalDateTime createdAt);
+
+    /**
+     * Cancels the reservation of the hotel, if it is not cancelled yet and has the expected version, and removes its
+     * stay from the daily occupancy, in a single statement.
+     *
+     * @param expectedVersion the version the reservation must have, or null to cancel any version
+     * @return the cancelled reservation, or empty if no reservation matched
+     */
+    Optional<Reservation> cancelIfActive(Long hotelId, Long id, Long expectedVersion, LocalDateTime modifiedAt);
+
+    /**
+     * Moves the reservation of the hotel to the given dates, if it is not cancelled, has the expected version, has
+     * other dates and no other reservation or active hold overlaps the new dates in its room, and moves its stay in the
+     * daily occupancy, in a single statement.
+     * <p>
+     * The caller must have locked the room in an earlier statement, with {@link RoomRepository#lockByReservation}: the
+     * overlap checks read the snapshot taken when this statement starts, so a hold or reservation committed while it
+     * waited for the room lock would not be seen.
+     *
+     * @param expectedVersion the version the reservation must have, or null to modify any version
+     * @return the modified reservation, with its previous dates, or empty if no reservation matched
+     */
+    Optional<Reservation> modifyIfAvailable(Long hotelId, Long id, Long expectedVersion, String guestName,
+                                            LocalDate checkInDate, LocalDate checkOutDate, LocalDateTime modifiedAt);
+
+    /**
+     * Cancels every active reservation of the hotel matching all the given filters, and removes their stays from the
+     * daily occupancy and the occupied nights of their rooms, in a single statement. Their rooms are locked first, in
+     * the order of their IDs, like the other changes of the rooms do.
+     *
+     * @param roomId    the room of the reservations, or null for any room
+     * @param from      the first date the stays must overlap, or null for no lower bound
+     * @param to        the last date, included, the stays must overlap, or null for no upper bound
+     * @param guestName the guest name of the reservations, ignoring case, or null for any guest
+     * @return the cancelled reservations, by ID
+     */
+    List<BulkChangeDto> cancelMatching(Long hotelId, Long roomId, LocalDate from, LocalDate to, String guestName,
+                                       LocalDateTime modifiedAt);
+
+    /**
+     * Moves the stays of the given reservations of the hotel by the same number of days, and moves them in the daily
+     * occupancy and the occupied nights of their rooms. A reservation is only moved if its new check-in date is
+     * between {@code minCheckInDate} and {@code maxCheckInDate} and its new dates overlap neither an active hold nor
+     * a reservation that stays where it is, so moving a reservation onto the dates another one of the request frees
+     * is allowed. The rooms of the reservations are locked like the other bookings of the rooms do, until the end of
+     * the transaction.
+     *
+     * @param ids the IDs of the reservations, without duplicates
+     * @return the outcome for each ID, in the order of {@code ids}
+     */
+    List<BulkChangeDto> shiftReservations(Long hotelId, List<Long> ids, int days, LocalDate minCheckInDate,
+                                          LocalDate maxCheckInDate, LocalDateTime modifiedAt);
+}
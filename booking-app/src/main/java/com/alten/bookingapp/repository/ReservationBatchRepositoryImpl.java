@@ -0,0 +1,427 @@
+package com.alten.bookingapp.repository;
+
+import com.alten.bookingapp.model.dto.BulkChangeDto;
+import com.alten.bookingapp.model.entities.Reservation;
+import com.alten.bookingapp.model.entities.Room;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+class ReservationBatchRepositoryImpl implements ReservationBatchRepository {
+
+    private static final String INSERT_FOR_ROOMS = "INSERT INTO reservation " +
+            "(hotel_id, guest_name, check_in_date, check_out_date, created_at, modified_at, cancelled, room_id) " +
+            "SELECT rm.hotel_id, ?, ?, ?, ?, ?, false, rm.id " +
+            "FROM unnest(?) AS room_id JOIN room rm ON rm.id = room_id " +
+            "RETURNING id, room_id";
+
+    private static final String RETURNED_COLUMNS = "id, hotel_id, room_id, guest_name, check_in_date, check_out_date, " +
+            "cancelled, created_at, modified_at, version";
+
+    private static final String CANCEL_IF_ACTIVE = "WITH cancelled AS (" +
+            "UPDATE reservation SET cancelled = true, modified_at = ?, version = version + 1 " +
+            "WHERE hotel_id = ? AND id = ? AND cancelled = false AND version = COALESCE(CAST(? AS bigint), version) " +
+            "RETURNING " + RETURNED_COLUMNS + "), " +
+            "occupancy AS (" +
+            "INSERT INTO daily_occupancy (hotel_id, day, room_type, occupied_rooms) " +
+            "SELECT c.hotel_id, CAST(d AS date), rm.room_type, -1 " +
+            "FROM cancelled c " +
+            "JOIN room rm ON rm.id = c.room_id " +
+            "CROSS JOIN generate_series(CAST(c.check_in_date AS date), CAST(c.check_out_date AS date), interval '1 day') d " +
+            "ON CONFLICT (hotel_id, day, room_type) " +
+            "DO UPDATE SET occupied_rooms = daily_occupancy.occupied_rooms + EXCLUDED.occupied_rooms) " +
+            "SELECT " + RETURNED_COLUMNS + " FROM cancelled";
+
+    private static final String MODIFY_IF_AVAILABLE = "WITH request AS (" +
+            "SELECT CAST(? AS bigint) AS hotel_id, CAST(? AS bigint) AS id, CAST(? AS bigint) AS version, " +
+            "CAST(? AS varchar) AS guest_name, " +
+            "CAST(? AS date) AS check_in_date, CAST(? AS date) AS check_out_date, CAST(? AS timestamp) AS modified_at), " +
+            "previous AS (" +
+            "SELECT r.hotel_id, r.id, r.room_id, r.check_in_date, r.check_out_date " +
+            "FROM reservation r, request q " +
+            "WHERE r.hotel_id = q.hotel_id AND r.id = q.id AND r.cancelled = false " +
+            "AND r.version = COALESCE(q.version, r.version) " +
+            "AND NOT (r.check_in_date = q.check_in_date AND r.check_out_date = q.check_out_date) " +
+            "FOR UPDATE OF r), " +
+            "modified AS (" +
+            "UPDATE reservation r SET guest_name = q.guest_name, check_in_date = q.check_in_date, " +
+            "check_out_date = q.check_out_date, modified_at = q.modified_at, version = r.version + 1 " +
+            "FROM previous p, request q " +
+            "WHERE r.hotel_id = p.hotel_id AND r.id = p.id " +
+            "AND NOT EXISTS (SELECT 1 FROM reservation o WHERE o.hotel_id = p.hotel_id AND o.room_id = p.room_id " +
+            "AND o.id <> p.id " +
+            "AND o.cancelled = false AND o.check_out_date >= q.check_in_date AND o.check_in_date <= q.check_out_date) " +
+            "AND NOT EXISTS (SELECT 1 FROM reservation_hold h WHERE h.room_id = p.room_id AND h.expires_at > q.modified_at " +
+            "AND h.check_out_date >= q.check_in_date AND h.check_in_date <= q.check_out_date) " +
+            "RETURNING r.id, r.hotel_id, r.room_id, r.guest_name, r.check_in_date, r.check_out_date, r.cancelled, " +
+            "r.created_at, r.modified_at, r.version, p.check_in_date AS previous_check_in_date, " +
+            "p.check_out_date AS previous_check_out_date), " +
+            "occupancy AS (" +
+            "INSERT INTO daily_occupancy (hotel_id, day, room_type, occupied_rooms) " +
+            "SELECT rm.hotel_id, s.day, rm.room_type, SUM(s.delta) " +
+            "FROM (SELECT m.room_id, CAST(d AS date) AS day, -1 AS delta FROM modified m " +
+            "CROSS JOIN generate_series(CAST(m.previous_check_in_date AS date), CAST(m.previous_check_out_date AS date), interval '1 day') d " +
+            "UNION ALL " +
+            "SELECT m.room_id, CAST(d AS date), 1 FROM modified m " +
+            "CROSS JOIN generate_series(CAST(m.check_in_date AS date), CAST(m.check_out_date AS date), interval '1 day') d) s " +
+            "JOIN room rm ON rm.id = s.room_id " +
+            "GROUP BY rm.hotel_id, s.day, rm.room_type " +
+            "HAVING SUM(s.delta) <> 0 " +
+            "ORDER BY rm.hotel_id, s.day, rm.room_type " +
+            "ON CONFLICT (hotel_id, day, room_type) " +
+            "DO UPDATE SET occupied_rooms = daily_occupancy.occupied_rooms + EXCLUDED.occupied_rooms) " +
+            "SELECT " + RETURNED_COLUMNS + ", previous_check_in_date, previous_check_out_date FROM modified";
+
+    private static final String LOCK_MATCHING_ROOMS = "SELECT rm.id FROM room rm " +
+            "WHERE rm.id IN (SELECT r.room_id FROM reservation r WHERE r.hotel_id = ? AND r.cancelled = false " +
+            "AND r.room_id = COALESCE(CAST(? AS bigint), r.room_id) " +
+            "AND r.check_out_date >= COALESCE(CAST(? AS date), r.check_out_date) " +
+            "AND r.check_in_date <= COALESCE(CAST(? AS date), r.check_in_date) " +
+            "AND lower(r.guest_name) = lower(COALESCE(CAST(? AS varchar), r.guest_name))) " +
+            "ORDER BY rm.id " +
+            "FOR UPDATE";
+
+    private static final String CANCEL_MATCHING = "WITH cancelled AS (" +
+            "UPDATE reservation SET cancelled = true, modified_at = ?, version = version + 1 " +
+            "WHERE hotel_id = ? AND cancelled = false " +
+            "AND room_id = COALESCE(CAST(? AS bigint), room_id) " +
+            "AND check_out_date >= COALESCE(CAST(? AS date), check_out_date) " +
+            "AND check_in_date <= COALESCE(CAST(? AS date), check_in_date) " +
+            "AND lower(guest_name) = lower(COALESCE(CAST(? AS varchar), guest_name)) " +
+            "RETURNING id, hotel_id, room_id, guest_name, check_in_date, check_out_date, version), " +
+            "occupancy AS (" +
+            "INSERT INTO daily_occupancy (hotel_id, day, room_type, occupied_rooms) " +
+            "SELECT c.hotel_id, CAST(d AS date), rm.room_type, -COUNT(*) " +
+            "FROM cancelled c " +
+            "JOIN room rm ON rm.id = c.room_id " +
+            "CROSS JOIN generate_series(CAST(c.check_in_date AS date), CAST(c.check_out_date AS date), interval '1 day') d " +
+            "GROUP BY c.hotel_id, CAST(d AS date), rm.room_type " +
+            "ORDER BY c.hotel_id, CAST(d AS date), rm.room_type " +
+            "ON CONFLICT (hotel_id, day, room_type) " +
+            "DO UPDATE SET occupied_rooms = daily_occupancy.occupied_rooms + EXCLUDED.occupied_rooms), " +
+            "nights AS (" +
+            "UPDATE room_nights n SET nights = n.nights & ~f.nights " +
+            "FROM (SELECT c.room_id, CAST(m AS date) AS month_start, " +
+            "bit_or(stay_nights(CAST(m AS date), c.check_in_date, c.check_out_date)) AS nights " +
+            "FROM cancelled c " +
+            "CROSS JOIN LATERAL generate_series(date_trunc('month', c.check_in_date), " +
+            "date_trunc('month', c.check_out_date), interval '1 month') m " +
+            "GROUP BY c.room_id, CAST(m AS date)) f " +
+            "WHERE n.room_id = f.room_id AND n.month_start = f.month_start) " +
+            "SELECT id, room_id, guest_name, check_in_date, check_out_date, version FROM cancelled ORDER BY id";
+
+    private static final String CREATE_SHIFT_TABLE = "CREATE TEMP TABLE reservation_shift (" +
+            "id BIGINT PRIMARY KEY, room_id BIGINT, guest_name VARCHAR(255), check_in_date DATE, check_out_date DATE, " +
+            "previous_check_in_date DATE, previous_check_out_date DATE, status VARCHAR(16)) ON COMMIT DROP";
+
+    private static final String LOCK_SHIFTED_ROOMS = "SELECT rm.id FROM room rm " +
+            "WHERE rm.id IN (SELECT r.room_id FROM reservation r WHERE r.hotel_id = ? AND r.id = ANY(?)) " +
+            "ORDER BY rm.id " +
+            "FOR UPDATE";
+
+    private static final String STAGE_SHIFT = "INSERT INTO reservation_shift " +
+            "(id, room_id, guest_name, check_in_date, check_out_date, previous_check_in_date, previous_check_out_date, " +
+            "status) " +
+            "SELECT r.id, r.room_id, r.guest_name, r.check_in_date + q.days, r.check_out_date + q.days, " +
+            "r.check_in_date, r.check_out_date, " +
+            "CASE WHEN r.check_in_date + q.days BETWEEN q.min_check_in_date AND q.max_check_in_date " +
+            "THEN 'SHIFTED' ELSE 'INVALID_DATES' END " +
+            "FROM reservation r, " +
+            "(SELECT CAST(? AS integer) AS days, CAST(? AS date) AS min_check_in_date, " +
+            "CAST(? AS date) AS max_check_in_date) q " +
+            "WHERE r.hotel_id = ? AND r.id = ANY(?) AND r.cancelled = false " +
+            "FOR UPDATE OF r";
+
+    private static final String REJECT_SHIFT_CONFLICTS = "UPDATE reservation_shift s SET status = 'CONFLICT' " +
+            "WHERE s.status = 'SHIFTED' " +
+            "AND (EXISTS (SELECT 1 FROM reservation o WHERE o.hotel_id = ? AND o.room_id = s.room_id " +
+            "AND o.cancelled = false AND o.check_out_date >= s.check_in_date AND o.check_in_date <= s.check_out_date " +
+            "AND NOT EXISTS (SELECT 1 FROM reservation_shift t WHERE t.id = o.id AND t.status = 'SHIFTED')) " +
+            "OR EXISTS (SELECT 1 FROM reservation_hold h WHERE h.room_id = s.room_id AND h.expires_at > ? " +
+            "AND h.check_out_date >= s.check_in_date AND h.check_in_date <= s.check_out_date))";
+
+    private static final String FREE_SHIFTED = "UPDATE reservation r SET cancelled = true " +
+            "FROM reservation_shift s " +
+            "WHERE r.hotel_id = ? AND r.id = s.id AND s.status = 'SHIFTED'";
+
+    private static final String MOVE_SHIFTED = "UPDATE reservation r SET check_in_date = s.check_in_date, " +
+            "check_out_date = s.check_out_date, cancelled = false, modified_at = ?, version = r.version + 1 " +
+            "FROM reservation_shift s " +
+            "WHERE r.hotel_id = ? AND r.id = s.id AND s.status = 'SHIFTED'";
+
+    private static final String MOVE_SHIFTED_OCCUPANCY = "INSERT INTO daily_occupancy " +
+            "(hotel_id, day, room_type, occupied_rooms) " +
+            "SELECT rm.hotel_id, x.day, rm.room_type, SUM(x.delta) " +
+            "FROM (SELECT s.room_id, CAST(d AS date) AS day, -1 AS delta FROM reservation_shift s " +
+            "CROSS JOIN generate_series(s.previous_check_in_date, s.previous_check_out_date, interval '1 day') d " +
+            "WHERE s.status = 'SHIFTED' " +
+            "UNION ALL " +
+            "SELECT s.room_id, CAST(d AS date), 1 FROM reservation_shift s " +
+            "CROSS JOIN generate_series(s.check_in_date, s.check_out_date, interval '1 day') d " +
+            "WHERE s.status = 'SHIFTED') x " +
+            "JOIN room rm ON rm.id = x.room_id " +
+            "GROUP BY rm.hotel_id, x.day, rm.room_type " +
+            "HAVING SUM(x.delta) <> 0 " +
+            "ORDER BY rm.hotel_id, x.day, rm.room_type " +
+            "ON CONFLICT (hotel_id, day, room_type) " +
+            "DO UPDATE SET occupied_rooms = daily_occupancy.occupied_rooms + EXCLUDED.occupied_rooms";
+
+    private static final String RELEASE_SHIFTED_NIGHTS = "UPDATE room_nights n SET nights = n.nights & ~f.nights " +
+            "FROM (SELECT s.room_id, CAST(m AS date) AS month_start, " +
+            "bit_or(stay_nights(CAST(m AS date), s.previous_check_in_date, s.previous_check_out_date)) AS nights " +
+            "FROM reservation_shift s " +
+            "CROSS JOIN LATERAL generate_series(date_trunc('month', s.previous_check_in_date), " +
+            "date_trunc('month', s.previous_check_out_date), interval '1 month') m " +
+            "WHERE s.status = 'SHIFTED' " +
+            "GROUP BY s.room_id, CAST(m AS date)) f " +
+            "WHERE n.room_id = f.room_id AND n.month_start = f.month_start";
+
+    private static final String OCCUPY_SHIFTED_NIGHTS = "INSERT INTO room_nights (room_id, month_start, nights) " +
+            "SELECT s.room_id, CAST(m AS date), bit_or(stay_nights(CAST(m AS date), s.check_in_date, s.check_out_date)) " +
+            "FROM reservation_shift s " +
+            "CROSS JOIN LATERAL generate_series(date_trunc('month', s.check_in_date), " +
+            "date_trunc('month', s.check_out_date), interval '1 month') m " +
+            "WHERE s.status = 'SHIFTED' " +
+            "GROUP BY s.room_id, CAST(m AS date) " +
+            "ORDER BY s.room_id, CAST(m AS date) " +
+            "ON CONFLICT (room_id, month_start) DO UPDATE SET nights = room_nights.nights | EXCLUDED.nights";
+
+    private static final String SELECT_SHIFT_RESULTS = "SELECT q.id, s.status, s.room_id, s.guest_name, " +
+            "s.check_in_date, s.check_out_date, s.previous_check_in_date, s.previous_check_out_date, r.version " +
+            "FROM unnest(?) WITH ORDINALITY AS q(id, position) " +
+            "LEFT JOIN reservation_shift s ON s.id = q.id " +
+            "LEFT JOIN reservation r ON r.hotel_id = ? AND r.id = s.id " +
+            "ORDER BY q.position";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ReservationBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Reservation> insertForRooms(List<Room> rooms, String guestName, LocalDate checkInDate,
+                                            LocalDate checkOutDate, LocalDateTime createdAt) {
+        Map<Long, Long> reservationIds = jdbcTemplate.execute((ConnectionCallback<Map<Long, Long>>) connection -> {
+            Map<Long, Long> ids = new HashMap<>();
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_FOR_ROOMS)) {
+                statement.setString(1, guestName);
+                statement.setDate(2, Date.valueOf(checkInDate));
+                statement.setDate(3, Date.valueOf(checkOutDate));
+                statement.setTimestamp(4, Timestamp.valueOf(createdAt));
+                statement.setTimestamp(5, Timestamp.valueOf(createdAt));
+                statement.setArray(6, roomIds(connection, rooms));
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        ids.put(resultSet.getLong("room_id"), resultSet.getLong("id"));
+                    }
+                }
+            }
+            return ids;
+        });
+
+        List<Reservation> reservations = new ArrayList<>(rooms.size());
+        for (Room room : rooms) {
+            reservations.add(Reservation.builder()
+                    .id(reservationIds.get(room.getId()))
+                    .hotelId(room.getHotelId())
+                    .guestName(guestName)
+                    .checkInDate(checkInDate)
+                    .checkOutDate(checkOutDate)
+                    .createdAt(createdAt)
+                    .modifiedAt(createdAt)
+                    .cancelled(false)
+                    .room(room)
+                    .build());
+        }
+        return reservations;
+    }
+
+    @Override
+    public Optional<Reservation> cancelIfActive(Long hotelId, Long id, Long expectedVersion, LocalDateTime modifiedAt) {
+        return jdbcTemplate.query(CANCEL_IF_ACTIVE, ReservationBatchRepositoryImpl::mapReservation,
+                        Timestamp.valueOf(modifiedAt), hotelId, id, version(expectedVersion))
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public Optional<Reservation> modifyIfAvailable(Long hotelId, Long id, Long expectedVersion, String guestName,
+                                                   LocalDate checkInDate, LocalDate checkOutDate,
+                                                   LocalDateTime modifiedAt) {
+        return jdbcTemplate.query(MODIFY_IF_AVAILABLE, ReservationBatchRepositoryImpl::mapModifiedReservation,
+                        hotelId, id, version(expectedVersion), guestName, Date.valueOf(checkInDate),
+                        Date.valueOf(checkOutDate), Timestamp.valueOf(modifiedAt))
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<BulkChangeDto> cancelMatching(Long hotelId, Long roomId, LocalDate from, LocalDate to,
+                                              String guestName, LocalDateTime modifiedAt) {
+        SqlParameterValue room = new SqlParameterValue(Types.BIGINT, roomId);
+        SqlParameterValue first = new SqlParameterValue(Types.DATE, from == null ? null : Date.valueOf(from));
+        SqlParameterValue last = new SqlParameterValue(Types.DATE, to == null ? null : Date.valueOf(to));
+        SqlParameterValue guest = new SqlParameterValue(Types.VARCHAR, guestName);
+        jdbcTemplate.queryForList(LOCK_MATCHING_ROOMS, Long.class, hotelId, room, first, last, guest);
+        return jdbcTemplate.query(CANCEL_MATCHING, ReservationBatchRepositoryImpl::mapCancelled,
+                Timestamp.valueOf(modifiedAt), hotelId, room, first, last, guest);
+    }
+
+    /**
+     * The reservations are staged with their new dates in a temporary table, and the ones whose new dates overlap a
+     * reservation staying where it is are rejected until none is left, as each rejection keeps more nights occupied.
+     * The exclusion constraint on the stays is not deferrable, so the staged reservations are first cancelled, and
+     * then moved and restored together, which lets a reservation take the nights another one leaves in the same
+     * request whatever order the rows are updated in.
+     */
+    @Override
+    public List<BulkChangeDto> shiftReservations(Long hotelId, List<Long> ids, int days, LocalDate minCheckInDate,
+                                                 LocalDate maxCheckInDate, LocalDateTime modifiedAt) {
+        return jdbcTemplate.execute((ConnectionCallback<List<BulkChangeDto>>) connection -> {
+            Array reservationIds = connection.createArrayOf("bigint", ids.toArray());
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_SHIFT_TABLE);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(LOCK_SHIFTED_ROOMS)) {
+                statement.setLong(1, hotelId);
+                statement.setArray(2, reservationIds);
+                statement.executeQuery().close();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(STAGE_SHIFT)) {
+                statement.setInt(1, days);
+                statement.setDate(2, Date.valueOf(minCheckInDate));
+                statement.setDate(3, Date.valueOf(maxCheckInDate));
+                statement.setLong(4, hotelId);
+                statement.setArray(5, reservationIds);
+                statement.executeUpdate();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(REJECT_SHIFT_CONFLICTS)) {
+                statement.setLong(1, hotelId);
+                statement.setTimestamp(2, Timestamp.valueOf(modifiedAt));
+                int rejected;
+                do {
+                    rejected = statement.executeUpdate();
+                } while (rejected > 0);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(FREE_SHIFTED)) {
+                statement.setLong(1, hotelId);
+                statement.executeUpdate();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(MOVE_SHIFTED)) {
+                statement.setTimestamp(1, Timestamp.valueOf(modifiedAt));
+                statement.setLong(2, hotelId);
+                statement.executeUpdate();
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate(MOVE_SHIFTED_OCCUPANCY);
+                statement.executeUpdate(RELEASE_SHIFTED_NIGHTS);
+                statement.executeUpdate(OCCUPY_SHIFTED_NIGHTS);
+            }
+            List<BulkChangeDto> results = new ArrayList<>(ids.size());
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_SHIFT_RESULTS)) {
+                statement.setArray(1, reservationIds);
+                statement.setLong(2, hotelId);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        results.add(mapShifted(resultSet));
+                    }
+                }
+            }
+            return results;
+        });
+    }
+
+    private static Reservation mapReservation(ResultSet resultSet, int rowNum) throws SQLException {
+        return Reservation.builder()
+                .id(resultSet.getLong("id"))
+                .hotelId(resultSet.getLong("hotel_id"))
+                .guestName(resultSet.getString("guest_name"))
+                .checkInDate(resultSet.getDate("check_in_date").toLocalDate())
+                .checkOutDate(resultSet.getDate("check_out_date").toLocalDate())
+                .cancelled(resultSet.getBoolean("cancelled"))
+                .createdAt(resultSet.getTimestamp("created_at").toLocalDateTime())
+                .modifiedAt(resultSet.getTimestamp("modified_at").toLocalDateTime())
+                .version(resultSet.getLong("version"))
+                .room(Room.builder().id(resultSet.getLong("room_id")).hotelId(resultSet.getLong("hotel_id")).build())
+                .build();
+    }
+
+    private static Reservation mapModifiedReservation(ResultSet resultSet, int rowNum) throws SQLException {
+        Reservation reservation = mapReservation(resultSet, rowNum);
+        reservation.setPreviousCheckInDate(resultSet.getDate("previous_check_in_date").toLocalDate());
+        reservation.setPreviousCheckOutDate(resultSet.getDate("previous_check_out_date").toLocalDate());
+        return reservation;
+    }
+
+    private static BulkChangeDto mapCancelled(ResultSet resultSet, int rowNum) throws SQLException {
+        return BulkChangeDto.builder()
+                .reservationId(resultSet.getLong("id"))
+                .status(BulkChangeDto.Status.CANCELLED)
+                .roomId(resultSet.getLong("room_id"))
+                .guestName(resultSet.getString("guest_name"))
+                .checkInDate(resultSet.getDate("check_in_date").toLocalDate())
+                .checkOutDate(resultSet.getDate("check_out_date").toLocalDate())
+                .version(resultSet.getLong("version"))
+                .build();
+    }
+
+    /**
+     * Maps the outcome of a reservation of a shift. Only the shifted reservations report their previous dates, the
+     * others report the dates they keep.
+     */
+    private static BulkChangeDto mapShifted(ResultSet resultSet) throws SQLException {
+        String status = resultSet.getString("status");
+        BulkChangeDto result = BulkChangeDto.builder()
+                .reservationId(resultSet.getLong("id"))
+                .status(status == null ? BulkChangeDto.Status.NOT_FOUND : BulkChangeDto.Status.valueOf(status))
+                .build();
+        if (status == null) {
+            return result;
+        }
+        result.setRoomId(resultSet.getLong("room_id"));
+        result.setGuestName(resultSet.getString("guest_name"));
+        result.setVersion(resultSet.getLong("version"));
+        LocalDate previousCheckIn = resultSet.getDate("previous_check_in_date").toLocalDate();
+        LocalDate previousCheckOut = resultSet.getDate("previous_check_out_date").toLocalDate();
+        if (result.getStatus() == BulkChangeDto.Status.SHIFTED) {
+            result.setCheckInDate(resultSet.getDate("check_in_date").toLocalDate());
+            result.setCheckOutDate(resultSet.getDate("check_out_date").toLocalDate());
+            result.setPreviousCheckInDate(previousCheckIn);
+            result.setPreviousCheckOutDate(previousCheckOut);
+        } else {
+            result.setCheckInDate(previousCheckIn);
+            result.setCheckOutDate(previousCheckOut);
+        }
+        return result;
+    }
+
+    /**
+     * Types the expected version explicitly, so a null version does not make the driver describe the statement.
+     */
+    private static SqlParameterValue version(Long expectedVersion) {
+        return new SqlParameterValue(Types.BIGINT, expectedVersion);
+    }
+
+    private static Array roomIds(Connection connection, List<Room> rooms) throws SQLException {
+        Long[] ids = rooms.stream().map(Room::getId).toArray(Long[]::new);
+        return connection.createArrayOf("bigint", ids);
+    }
+}
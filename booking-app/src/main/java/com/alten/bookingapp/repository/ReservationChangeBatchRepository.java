@@ -0,0 +1,13 @@
+package com.alten.bookingapp.repository;
+
+import com.alten.bookingapp.model.entities.ReservationChange;
+
+import java.util.List;
+
+public interface ReservationChangeBatchRepository {
+
+    /**
+     * Appends the changes with a single batched statement, in the given order.
+     */
+    void insertAll(List<ReservationChange> changes);
+}
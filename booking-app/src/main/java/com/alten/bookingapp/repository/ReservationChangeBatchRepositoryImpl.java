@@ -0,0 +1,37 @@
+package com.alten.bookingapp.repository;
+
+import com.alten.bookingapp.model.entities.ReservationChange;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.List;
+
+class ReservationChangeBatchRepositoryImpl implements ReservationChangeBatchRepository {
+
+    private static final String INSERT = "INSERT INTO reservation_change " +
+            "(reservation_id, version, hotel_id, change_type, guest_name, check_in_date, check_out_date, room_id, " +
+            "changed_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ReservationChangeBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<ReservationChange> changes) {
+        jdbcTemplate.batchUpdate(INSERT, changes, changes.size(), (statement, change) -> {
+            statement.setLong(1, change.getReservationId());
+            statement.setLong(2, change.getVersion());
+            statement.setLong(3, change.getHotelId());
+            statement.setString(4, change.getChangeType().name());
+            statement.setString(5, change.getGuestName());
+            statement.setDate(6, Date.valueOf(change.getCheckInDate()));
+            statement.setDate(7, Date.valueOf(change.getCheckOutDate()));
+            statement.setLong(8, change.getRoomId());
+            statement.setTimestamp(9, Timestamp.valueOf(change.getChangedAt()));
+        });
+    }
+}
@@ -0,0 +1,26 @@
+package com.alten.bookingapp.repository;
+
+import com.alten.bookingapp.model.dto.ReservationChangeDto;
+import com.alten.bookingapp.model.entities.ReservationChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ReservationChangeRepository extends JpaRepository<ReservationChange, Long>,
+        ReservationChangeBatchRepository {
+
+    /**
+     * Finds the changes of a reservation of the hotel, oldest first.
+     */
+    @Query("SELECT new com.alten.bookingapp.model.dto.ReservationChangeDto(c.version, c.changeType, c.guestName, " +
+            "c.checkInDate, c.checkOutDate, c.roomId, c.changedAt) " +
+            "FROM ReservationChange c " +
+            "WHERE c.reservationId = :reservationId AND c.hotelId = :hotelId " +
+            "ORDER BY c.version, c.id")
+    List<ReservationChangeDto> findChanges(@Param("reservationId") Long reservationId,
+                                           @Param("hotelId") Long hotelId);
+}
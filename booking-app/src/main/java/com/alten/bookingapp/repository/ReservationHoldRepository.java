@@ -0,0 +1,66 @@
+package com.alten.bookingapp.repository;
+
+import com.alten.bookingapp.model.entities.ReservationHold;
+import com.alten.bookingapp.model.entities.Room;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReservationHoldRepository extends JpaRepository<ReservationHold, Long> {
+
+    @Query("SELECT COUNT(h) " +
+            "FROM ReservationHold h " +
+            "WHERE h.room = :room " +
+            "AND h.checkOutDate >= :checkInDate " +
+            "AND h.checkInDate <= :checkOutDate " +
+            "AND h.expiresAt > :now")
+    int countByRoomIdAndDatesOverlap(@Param("room") Room room,
+                                     @Param("checkInDate") LocalDate checkInDate,
+                                     @Param("checkOutDate") LocalDate checkOutDate,
+                                     @Param("now") LocalDateTime now);
+
+    /**
+     * Lists the room and dates of every active hold of every hotel, for the availability snapshot.
+     */
+    @Query("SELECT h.room.id AS roomId, h.checkInDate AS checkInDate, h.checkOutDate AS checkOutDate " +
+            "FROM ReservationHold h " +
+            "WHERE h.expiresAt > :now")
+    List<ReservationRepository.OccupiedStay> findOccupiedStays(@Param("now") LocalDateTime now);
+
+    /**
+     * Lists the room and dates of the active holds of the hotel overlapping the dates, both included.
+     */
+    @Query("SELECT h.room.id AS roomId, h.checkInDate AS checkInDate, h.checkOutDate AS checkOutDate " +
+            "FROM ReservationHold h " +
+            "WHERE h.hotelId = :hotelId " +
+            "AND h.checkOutDate >= :from " +
+            "AND h.checkInDate <= :to " +
+            "AND h.expiresAt > :now")
+    List<ReservationRepository.OccupiedStay> findOccupiedStays(@Param("hotelId") Long hotelId,
+                                                               @Param("from") LocalDate from,
+                                                               @Param("to") LocalDate to,
+                                                               @Param("now") LocalDateTime now);
+
+    Optional<ReservationHold> findByIdAndHotelIdAndExpiresAtAfter(Long id, Long hotelId, LocalDateTime now);
+
+    /**
+     * Deletes at most {@code batchSize} expired holds in a single statement, so the sweeper never holds
+     * row locks on the whole table when a large number of holds lapse at the same time.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM reservation_hold " +
+            "WHERE id IN (SELECT id FROM reservation_hold WHERE expires_at <= :now LIMIT :batchSize)",
+            nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now,
+                      @Param("batchSize") int batchSize);
+}
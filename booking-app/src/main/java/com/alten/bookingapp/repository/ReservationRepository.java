@@ -1,37 +1,55 @@
 package com.alten.bookingapp.repository;
 
+import com.alten.bookingapp.model.dto.ReservationSummaryDto;
 import com.alten.bookingapp.model.entities.Reservation;
 import com.alten.bookingapp.model.entities.Room;
+import com.alten.bookingapp.model.entities.RoomType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+public interface ReservationRepository extends JpaRepository<Reservation, Long>, ReservationBatchRepository {
 
+    String ROW_COLUMNS = "r.id AS id, r.guest_name AS guestName, r.check_in_date AS checkInDate, " +
+            "r.check_out_date AS checkOutDate, r.created_at AS createdAt, r.modified_at AS modifiedAt, " +
+            "r.cancelled AS cancelled, r.version AS version, rm.id AS roomId, rm.number_of_beds AS numberOfBeds, " +
+            "rm.room_type AS roomType ";
 
-    @Query("SELECT COUNT(r) " +
-            "FROM Reservation r " +
-            "WHERE r.room = :room " +
-            "AND r.checkOutDate >= :checkInDate " +
-            "AND r.checkInDate <= :checkOutDate " +
-            "AND r.cancelled = false")
-    int countByRoomIdAndDatesOverlap(@Param("room") Room room,
-                                     @Param("checkInDate") LocalDate checkInDate,
-                                     @Param("checkOutDate") LocalDate checkOutDate);
+    /**
+     * Lists every reservation of the hotel with its room, selecting only the listed columns.
+     */
+    @Query("SELECT new com.alten.bookingapp.model.dto.ReservationSummaryDto(" +
+            "r.id, r.guestName, r.checkInDate, r.checkOutDate, r.createdAt, r.modifiedAt, r.cancelled, r.version, " +
+            "rm.id, rm.numberOfBeds, rm.roomType) " +
+            "FROM Reservation r LEFT JOIN r.room rm " +
+            "WHERE r.hotelId = :hotelId " +
+            "ORDER BY r.id")
+    List<ReservationSummaryDto> findAllSummaries(@Param("hotelId") Long hotelId);
+
+    /**
+     * Finds a reservation of the hotel, reading only the hotel's partition.
+     */
+    Optional<Reservation> findByIdAndHotelId(Long id, Long hotelId);
 
     @Query("SELECT r " +
             "FROM Reservation r " +
-            "WHERE r.room = :room " +
+            "WHERE r.hotelId = :hotelId " +
+            "AND r.room = :room " +
             "AND r.checkOutDate >= :checkInDate " +
             "AND r.checkInDate <= :checkOutDate " +
             "AND r.cancelled = false " +
             "AND r.id <> :reservationId")
-    List<Reservation> findByRoomIdAndDatesOverlap(@Param("room") Room room,
+    List<Reservation> findByRoomIdAndDatesOverlap(@Param("hotelId") Long hotelId,
+                                                  @Param("room") Room room,
                                                   @Param("checkInDate") LocalDate checkInDate,
                                                   @Param("checkOutDate") LocalDate checkOutDate,
                                                   @Param("reservationId") Long reservationId);
@@ -39,11 +57,99 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
 
     @Query("SELECT r " +
             "FROM Reservation r " +
-            "WHERE r.room != :room " +
+            "WHERE r.hotelId = :hotelId " +
+            "AND r.room != :room " +
             "AND r.checkOutDate >= :checkInDate " +
             "AND r.checkInDate <= :checkOutDate " +
             "AND r.cancelled = false ")
-    List<Reservation> findConflictingReservations(@Param("room") Room room,
+    List<Reservation> findConflictingReservations(@Param("hotelId") Long hotelId,
+                                                  @Param("room") Room room,
                                                   @Param("checkInDate") LocalDate checkInDate,
                                                   @Param("checkOutDate") LocalDate checkOutDate);
+
+    /**
+     * Lists the room and dates of every active reservation of every hotel that checks out on or after {@code from},
+     * for the availability snapshot.
+     */
+    @Query("SELECT r.room.id AS roomId, r.checkInDate AS checkInDate, r.checkOutDate AS checkOutDate " +
+            "FROM Reservation r " +
+            "WHERE r.checkOutDate >= :from " +
+            "AND r.cancelled = false")
+    List<OccupiedStay> findOccupiedStays(@Param("from") LocalDate from);
+
+    /**
+     * Finds the reservations of the hotel whose guest name starts with the given prefix, ignoring case. The prefix
+     * must have its LIKE wildcards escaped.
+     */
+    @Query(value = "SELECT " + ROW_COLUMNS +
+            "FROM reservation r LEFT JOIN room rm ON rm.id = r.room_id " +
+            "WHERE r.hotel_id = :hotelId " +
+            "AND lower(r.guest_name) LIKE lower(:prefix) || '%' " +
+            "ORDER BY r.guest_name, r.id",
+            countQuery = "SELECT COUNT(*) FROM reservation " +
+                    "WHERE hotel_id = :hotelId " +
+                    "AND lower(guest_name) LIKE lower(:prefix) || '%'",
+            nativeQuery = true)
+    Page<ReservationRow> findByGuestNamePrefix(@Param("hotelId") Long hotelId, @Param("prefix") String prefix,
+                                               Pageable pageable);
+
+    /**
+     * Finds the reservations of the hotel whose guest name contains a word similar to the given name, best matches
+     * first.
+     * Both queries use the trigram index on the guest name, and a name matches when its word similarity is above
+     * {@code pg_trgm.word_similarity_threshold}.
+     */
+    @Query(value = "SELECT " + ROW_COLUMNS +
+            "FROM reservation r LEFT JOIN room rm ON rm.id = r.room_id " +
+            "WHERE r.hotel_id = :hotelId " +
+            "AND lower(:name) <% lower(r.guest_name) " +
+            "ORDER BY word_similarity(lower(:name), lower(r.guest_name)) DESC, r.id",
+            countQuery = "SELECT COUNT(*) FROM reservation " +
+                    "WHERE hotel_id = :hotelId " +
+                    "AND lower(:name) <% lower(guest_name)",
+            nativeQuery = true)
+    Page<ReservationRow> findByGuestNameSimilarTo(@Param("hotelId") Long hotelId, @Param("name") String name,
+                                                  Pageable pageable);
+
+    /**
+     * Sets the word similarity threshold used by {@link #findByGuestNameSimilarTo} until the end of the current
+     * transaction.
+     */
+    @Query(value = "SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)", nativeQuery = true)
+    String setWordSimilarityThreshold(@Param("threshold") String threshold);
+
+    /**
+     * Columns selected by the native search queries, which cannot use constructor expressions.
+     */
+    interface ReservationRow {
+        Long getId();
+
+        String getGuestName();
+
+        LocalDate getCheckInDate();
+
+        LocalDate getCheckOutDate();
+
+        LocalDateTime getCreatedAt();
+
+        LocalDateTime getModifiedAt();
+
+        Boolean getCancelled();
+
+        Long getVersion();
+
+        Long getRoomId();
+
+        Short getNumberOfBeds();
+
+        RoomType getRoomType();
+    }
+
+    interface OccupiedStay {
+        Long getRoomId();
+
+        LocalDate getCheckInDate();
+
+        LocalDate getCheckOutDate();
+    }
 }
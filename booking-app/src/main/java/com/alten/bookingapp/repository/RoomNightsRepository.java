@@ -0,0 +1,153 @@
+package com.alten.bookingapp.repository;
+
+import com.alten.bookingapp.model.entities.RoomNights;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Maintains the nights occupied by the active reservations of each room, one bit per night in one row per room and
+ * month (see {@code stay_nights} in the migrations). The rows are changed in the transaction of the booking, after
+ * the reservation itself, with bitwise operations on the current value of the row, so concurrent changes of the same
+ * month of a room never overwrite each other.
+ */
+@Repository
+public interface RoomNightsRepository extends JpaRepository<RoomNights, RoomNights.Key> {
+
+    String STAY_MONTHS = "generate_series(date_trunc('month', CAST(:checkInDate AS date)), " +
+            "date_trunc('month', CAST(:checkOutDate AS date)), interval '1 month') m ";
+
+    String STAY_NIGHTS = "stay_nights(CAST(m AS date), CAST(:checkInDate AS date), CAST(:checkOutDate AS date))";
+
+    /**
+     * Tells whether an active reservation occupies the room on a date from {@code checkInDate} to
+     * {@code checkOutDate}, both included, by reading the row of each month of the stay.
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM room_nights " +
+            "WHERE room_id = :roomId " +
+            "AND month_start BETWEEN CAST(date_trunc('month', CAST(:checkInDate AS date)) AS date) " +
+            "AND CAST(:checkOutDate AS date) " +
+            "AND nights & stay_nights(month_start, CAST(:checkInDate AS date), CAST(:checkOutDate AS date)) <> 0)",
+            nativeQuery = true)
+    boolean existsOccupiedNight(@Param("roomId") Long roomId,
+                                @Param("checkInDate") LocalDate checkInDate,
+                                @Param("checkOutDate") LocalDate checkOutDate);
+
+    /**
+     * Lists the months with occupied nights of every room of the hotel, from the month of {@code from} to the month of
+     * {@code to}.
+     */
+    @Query("SELECT n FROM RoomNights n " +
+            "WHERE n.roomId IN (SELECT r.id FROM Room r WHERE r.hotelId = :hotelId) " +
+            "AND n.monthStart >= :firstMonth " +
+            "AND n.monthStart <= :to " +
+            "AND n.nights <> 0")
+    List<RoomNights> findOccupiedMonths(@Param("hotelId") Long hotelId,
+                                        @Param("firstMonth") LocalDate firstMonth,
+                                        @Param("to") LocalDate to);
+
+    /**
+     * Marks the nights of the stay as occupied in the room.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO room_nights (room_id, month_start, nights) " +
+            "SELECT :roomId, CAST(m AS date), " + STAY_NIGHTS + " " +
+            "FROM " + STAY_MONTHS +
+            "ORDER BY 2 " +
+            "ON CONFLICT (room_id, month_start) DO UPDATE SET nights = room_nights.nights | EXCLUDED.nights",
+            nativeQuery = true)
+    int occupy(@Param("roomId") Long roomId,
+               @Param("checkInDate") LocalDate checkInDate,
+               @Param("checkOutDate") LocalDate checkOutDate);
+
+    /**
+     * Marks the nights of the stay as occupied in every room, in a single statement. The rows are upserted in the
+     * order of their key, so concurrent bookings lock them in the same order and cannot deadlock.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO room_nights (room_id, month_start, nights) " +
+            "SELECT rm.id, CAST(m AS date), " + STAY_NIGHTS + " " +
+            "FROM room rm " +
+            "CROSS JOIN " + STAY_MONTHS +
+            "WHERE rm.id IN (:roomIds) " +
+            "ORDER BY 1, 2 " +
+            "ON CONFLICT (room_id, month_start) DO UPDATE SET nights = room_nights.nights | EXCLUDED.nights",
+            nativeQuery = true)
+    int occupyRooms(@Param("roomIds") Collection<Long> roomIds,
+                    @Param("checkInDate") LocalDate checkInDate,
+                    @Param("checkOutDate") LocalDate checkOutDate);
+
+    /**
+     * Marks the nights of the stay as free in the room.
+     */
+    @Modifying
+    @Query(value = "UPDATE room_nights " +
+            "SET nights = nights & ~stay_nights(month_start, CAST(:checkInDate AS date), CAST(:checkOutDate AS date)) " +
+            "WHERE room_id = :roomId " +
+            "AND month_start BETWEEN CAST(date_trunc('month', CAST(:checkInDate AS date)) AS date) " +
+            "AND CAST(:checkOutDate AS date)",
+            nativeQuery = true)
+    int release(@Param("roomId") Long roomId,
+                @Param("checkInDate") LocalDate checkInDate,
+                @Param("checkOutDate") LocalDate checkOutDate);
+
+    /**
+     * Moves a stay of the room from its previous dates to the new ones, in a single statement, so the nights shared by
+     * both stays stay occupied all along.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO room_nights (room_id, month_start, nights) " +
+            "SELECT :roomId, CAST(m AS date), " + STAY_NIGHTS + " " +
+            "FROM generate_series(" +
+            "date_trunc('month', LEAST(CAST(:previousCheckInDate AS date), CAST(:checkInDate AS date))), " +
+            "date_trunc('month', GREATEST(CAST(:previousCheckOutDate AS date), CAST(:checkOutDate AS date))), " +
+            "interval '1 month') m " +
+            "ORDER BY 2 " +
+            "ON CONFLICT (room_id, month_start) DO UPDATE SET nights = (room_nights.nights & " +
+            "~stay_nights(room_nights.month_start, CAST(:previousCheckInDate AS date), " +
+            "CAST(:previousCheckOutDate AS date))) | EXCLUDED.nights",
+            nativeQuery = true)
+    int move(@Param("roomId") Long roomId,
+             @Param("previousCheckInDate") LocalDate previousCheckInDate,
+             @Param("previousCheckOutDate") LocalDate previousCheckOutDate,
+             @Param("checkInDate") LocalDate checkInDate,
+             @Param("checkOutDate") LocalDate checkOutDate);
+
+    /**
+     * Recomputes the nights of every room and month of the hotel from its active and archived reservations and
+     * rewrites, in a single statement, only the rows that differ from the reservations.
+     *
+     * @return the number of rows that had drifted and were repaired
+     */
+    @Modifying
+    @Query(value = "WITH expected AS (" +
+            "SELECT r.room_id, CAST(m AS date) AS month_start, " +
+            "bit_or(stay_nights(CAST(m AS date), r.check_in_date, r.check_out_date)) AS nights " +
+            "FROM (SELECT room_id, check_in_date, check_out_date FROM reservation " +
+            "WHERE hotel_id = :hotelId AND cancelled = false " +
+            "UNION ALL " +
+            "SELECT room_id, check_in_date, check_out_date FROM reservation_archive " +
+            "WHERE hotel_id = :hotelId AND cancelled = false) r " +
+            "CROSS JOIN LATERAL generate_series(date_trunc('month', r.check_in_date), " +
+            "date_trunc('month', r.check_out_date), interval '1 month') m " +
+            "GROUP BY r.room_id, CAST(m AS date)), " +
+            "drifted AS (" +
+            "SELECT COALESCE(e.room_id, n.room_id) AS room_id, COALESCE(e.month_start, n.month_start) AS month_start, " +
+            "COALESCE(e.nights, 0) AS nights " +
+            "FROM expected e " +
+            "FULL JOIN (SELECT * FROM room_nights " +
+            "WHERE room_id IN (SELECT id FROM room WHERE hotel_id = :hotelId)) n " +
+            "ON n.room_id = e.room_id AND n.month_start = e.month_start " +
+            "WHERE COALESCE(e.nights, 0) <> COALESCE(n.nights, 0)) " +
+            "INSERT INTO room_nights (room_id, month_start, nights) " +
+            "SELECT room_id, month_start, nights FROM drifted " +
+            "ON CONFLICT (room_id, month_start) DO UPDATE SET nights = EXCLUDED.nights",
+            nativeQuery = true)
+    int repair(@Param("hotelId") Long hotelId);
+}
@@ -0,0 +1,104 @@
+package com.alten.bookingapp.repository;
+
+import com.alten.bookingapp.model.entities.Room;
+import com.alten.bookingapp.model.entities.RoomType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RoomRepository extends JpaRepository<Room, Long> {
+
+    @Query("SELECT r.roomType AS roomType, COUNT(r) AS rooms " +
+            "FROM Room r " +
+            "WHERE r.hotelId = :hotelId " +
+            "GROUP BY r.roomType")
+    List<RoomTypeCount> countRoomsByType(@Param("hotelId") Long hotelId);
+
+    List<Room> findByHotelIdOrderByIdAsc(Long hotelId);
+
+    /**
+     * Finds the room booked by the single-room operations of the hotel: its first room.
+     */
+    Optional<Room> findFirstByHotelIdOrderByIdAsc(Long hotelId);
+
+    /**
+     * Lists the room booked by the single-room operations of every hotel, for the availability snapshot.
+     */
+    @Query("SELECT r.hotelId AS hotelId, MIN(r.id) AS roomId " +
+            "FROM Room r " +
+            "GROUP BY r.hotelId")
+    List<HotelRoom> findFirstRoomOfEachHotel();
+
+    /**
+     * Locks the room until the end of the transaction, so the single-room bookings of a room check its availability
+     * one after the other, and after the group bookings that locked it with {@link #lockAvailableRooms}.
+     */
+    @Query(value = "SELECT * FROM room WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Room> lockById(@Param("id") Long id);
+
+    /**
+     * Locks the room of the reservation of the hotel like {@link #lockById}, for the changes that only know the
+     * reservation. Taking it in its own statement lets the statements that follow see everything the bookings and
+     * holds that held the lock before have committed.
+     */
+    @Query(value = "SELECT rm.* FROM room rm JOIN reservation r ON r.room_id = rm.id " +
+            "WHERE r.hotel_id = :hotelId AND r.id = :reservationId " +
+            "FOR UPDATE OF rm", nativeQuery = true)
+    Optional<Room> lockByReservation(@Param("hotelId") Long hotelId, @Param("reservationId") Long reservationId);
+
+    /**
+     * Locks every room of the hotel, in the order of their IDs, until the end of the transaction. Every change to the
+     * bookings of a room locks the room first, so this waits for the changes in progress in the hotel and holds off the
+     * next ones, without blocking the other hotels.
+     */
+    @Query(value = "SELECT id FROM room WHERE hotel_id = :hotelId ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockByHotelId(@Param("hotelId") Long hotelId);
+
+    /**
+     * Finds, in a single query, the rooms of the hotel of the given types that have no reservation or active hold
+     * overlapping the dates, and locks them until the end of the transaction. Rooms already locked by a concurrent
+     * booking are skipped rather than waited for.
+     */
+    @Query(value = "SELECT rm.* FROM room rm " +
+            "WHERE rm.hotel_id = :hotelId " +
+            "AND rm.room_type IN (:roomTypes) " +
+            "AND NOT EXISTS (SELECT 1 FROM reservation r " +
+            "WHERE r.hotel_id = rm.hotel_id " +
+            "AND r.room_id = rm.id " +
+            "AND r.check_out_date >= :checkInDate " +
+            "AND r.check_in_date <= :checkOutDate " +
+            "AND r.cancelled = false) " +
+            "AND NOT EXISTS (SELECT 1 FROM reservation_hold h " +
+            "WHERE h.room_id = rm.id " +
+            "AND h.check_out_date >= :checkInDate " +
+            "AND h.check_in_date <= :checkOutDate " +
+            "AND h.expires_at > :now) " +
+            "ORDER BY rm.id " +
+            "FOR UPDATE OF rm SKIP LOCKED",
+            nativeQuery = true)
+    List<Room> lockAvailableRooms(@Param("hotelId") Long hotelId,
+                                  @Param("roomTypes") Collection<String> roomTypes,
+                                  @Param("checkInDate") LocalDate checkInDate,
+                                  @Param("checkOutDate") LocalDate checkOutDate,
+                                  @Param("now") LocalDateTime now);
+
+    interface RoomTypeCount {
+        RoomType getRoomType();
+
+        long getRooms();
+    }
+
+    interface HotelRoom {
+        Long getHotelId();
+
+        Long getRoomId();
+    }
+}
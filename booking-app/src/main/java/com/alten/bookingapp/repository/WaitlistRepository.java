@@ -0,0 +1,51 @@
+package com.alten.bookingapp.repository;
+
+import com.alten.bookingapp.model.entities.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    Optional<WaitlistEntry> findByIdAndHotelId(Long id, Long hotelId);
+
+    /**
+     * Finds and locks the waiting entries of the room whose dates overlap the given ones and whose check-in date is
+     * after {@code today}, in the order they joined the waitlist. The lookup uses the partial GiST index of the
+     * waiting entries, so it only reads the entries that can match.
+     */
+    @Query(value = "SELECT * FROM reservation_waitlist " +
+            "WHERE room_id = :roomId AND reservation_id IS NULL " +
+            "AND daterange(check_in_date, check_out_date, '[]') " +
+            "&& daterange(CAST(:checkInDate AS date), CAST(:checkOutDate AS date), '[]') " +
+            "AND check_in_date > :today " +
+            "ORDER BY id " +
+            "FOR UPDATE",
+            nativeQuery = true)
+    List<WaitlistEntry> lockWaitingOverlapping(@Param("roomId") Long roomId,
+                                               @Param("checkInDate") LocalDate checkInDate,
+                                               @Param("checkOutDate") LocalDate checkOutDate,
+                                               @Param("today") LocalDate today);
+
+    /**
+     * Deletes at most {@code batchSize} entries that can no longer be of use: waiting entries whose check-in date has
+     * come, and fulfilled entries whose stay is over.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM reservation_waitlist " +
+            "WHERE id IN (SELECT id FROM reservation_waitlist " +
+            "WHERE (reservation_id IS NULL AND check_in_date <= :today) OR check_out_date < :today " +
+            "LIMIT :batchSize)",
+            nativeQuery = true)
+    int deleteLapsed(@Param("today") LocalDate today,
+                     @Param("batchSize") int batchSize);
+}
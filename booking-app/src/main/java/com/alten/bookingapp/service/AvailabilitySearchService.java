@@ -0,0 +1,10 @@
+package com.alten.bookingapp.service;
+
+import com.alten.bookingapp.model.dto.FlexibleAvailabilityDto;
+
+import java.time.LocalDate;
+
+public interface AvailabilitySearchService {
+
+    FlexibleAvailabilityDto findFlexibleStays(int days, LocalDate from, LocalDate to, int limit);
+}
@@ -0,0 +1,15 @@
+package com.alten.bookingapp.service;
+
+import com.alten.bookingapp.model.dto.OccupancyDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface OccupancyService {
+
+    List<OccupancyDto> getOccupancy(LocalDate from, LocalDate to);
+
+    int rebuildOccupancy();
+
+    int repairRoomNights();
+}
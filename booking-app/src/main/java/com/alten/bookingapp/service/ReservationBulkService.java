@@ -0,0 +1,20 @@
+package com.alten.bookingapp.service;
+
+import com.alten.bookingapp.model.dto.BulkCancelDTO;
+import com.alten.bookingapp.model.dto.BulkChangeResultDto;
+import com.alten.bookingapp.model.dto.BulkImportResultDto;
+import com.alten.bookingapp.model.dto.BulkShiftDTO;
+
+import java.io.OutputStream;
+import java.io.Reader;
+
+public interface ReservationBulkService {
+
+    BulkImportResultDto importReservations(Reader csv);
+
+    long exportReservations(long hotelId, OutputStream out);
+
+    BulkChangeResultDto cancelReservations(BulkCancelDTO requestDto);
+
+    BulkChangeResultDto shiftReservations(BulkShiftDTO requestDto);
+}
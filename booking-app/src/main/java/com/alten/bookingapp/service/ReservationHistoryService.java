@@ -0,0 +1,17 @@
+package com.alten.bookingapp.service;
+
+import com.alten.bookingapp.model.dto.ArchivedReservationDto;
+import com.alten.bookingapp.model.dto.ReservationChangeDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+public interface ReservationHistoryService {
+
+    Page<ArchivedReservationDto> getHistory(String guestName, Pageable pageable);
+
+    ArchivedReservationDto getArchivedReservation(Long id);
+
+    List<ReservationChangeDto> getChanges(Long reservationId);
+}
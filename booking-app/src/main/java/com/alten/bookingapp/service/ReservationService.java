@@ -1,22 +1,46 @@
 package com.alten.bookingapp.service;
 
+import com.alten.bookingapp.model.dto.GroupReservationDTO;
+import com.alten.bookingapp.model.dto.GroupReservationResponseDto;
+import com.alten.bookingapp.model.dto.HoldDTO;
 import com.alten.bookingapp.model.dto.ModifyResponseDto;
 import com.alten.bookingapp.model.dto.ReservationDTO;
+import com.alten.bookingapp.model.dto.ReservationSummaryDto;
 import com.alten.bookingapp.model.dto.ResponseDto;
 import com.alten.bookingapp.model.entities.Reservation;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
 import java.util.List;
 
 public interface ReservationService {
 
-    List<Reservation> getAllReservations();
+    List<ReservationSummaryDto> getAllReservations();
+
+    Page<ReservationSummaryDto> searchReservations(String guestName, boolean fuzzy, Pageable pageable);
 
     ReservationDTO placeReservation(ReservationDTO requestDto);
 
+    GroupReservationResponseDto placeGroupReservation(GroupReservationDTO requestDto);
+
     ResponseDto checkRoomAvailability(LocalDate checkIn, LocalDate checkOut);
 
-    ModifyResponseDto cancelReservation(Long id);
+    default ModifyResponseDto cancelReservation(Long id) {
+        return cancelReservation(id, null);
+    }
+
+    ModifyResponseDto cancelReservation(Long id, Long expectedVersion);
+
+    default ReservationDTO modifyReservation(Long id, ReservationDTO requestDto) {
+        return modifyReservation(id, requestDto, null);
+    }
+
+    ReservationDTO modifyReservation(Long id, ReservationDTO requestDto, Long expectedVersion);
+
+    HoldDTO placeHold(ReservationDTO requestDto);
+
+    ReservationDTO confirmHold(Long holdId);
 
-    ReservationDTO modifyReservation(Long id, ReservationDTO requestDto);
+    ModifyResponseDto releaseHold(Long holdId);
 }
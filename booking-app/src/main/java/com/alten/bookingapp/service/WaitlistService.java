@@ -0,0 +1,17 @@
+package com.alten.bookingapp.service;
+
+import com.alten.bookingapp.event.StayReleasedEvent;
+import com.alten.bookingapp.model.dto.ModifyResponseDto;
+import com.alten.bookingapp.model.dto.ReservationDTO;
+import com.alten.bookingapp.model.dto.WaitlistDTO;
+
+public interface WaitlistService {
+
+    WaitlistDTO joinWaitlist(ReservationDTO requestDto);
+
+    WaitlistDTO getWaitlistEntry(Long id);
+
+    ModifyResponseDto leaveWaitlist(Long id);
+
+    int fulfilWaitlist(StayReleasedEvent event);
+}
@@ -0,0 +1,127 @@
+package com.alten.bookingapp.service.impl;
+
+import com.alten.bookingapp.availability.FreeStayFinder;
+import com.alten.bookingapp.config.HotelContext;
+import com.alten.bookingapp.model.dto.FlexibleAvailabilityDto;
+import com.alten.bookingapp.model.entities.Room;
+import com.alten.bookingapp.model.entities.RoomNights;
+import com.alten.bookingapp.model.entities.RoomType;
+import com.alten.bookingapp.repository.ReservationHoldRepository;
+import com.alten.bookingapp.repository.ReservationRepository;
+import com.alten.bookingapp.repository.RoomNightsRepository;
+import com.alten.bookingapp.repository.RoomRepository;
+import com.alten.bookingapp.service.AvailabilitySearchService;
+import com.alten.bookingcore.BookingRules;
+import com.alten.bookingcore.exception.InvalidCheckInDateException;
+import com.alten.bookingcore.exception.InvalidReservationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@Profile("!edge")
+public class AvailabilitySearchServiceImpl implements AvailabilitySearchService {
+
+    /**
+     * Ranks first the stays that fill a free run best: the fewest free nights left around the stay, then the stays
+     * next to an occupied night, which leave the rest of the run in one piece, then the earliest ones.
+     */
+    private static final Comparator<FreeStayFinder.FreeStay> BEST_FIT = Comparator
+            .comparingInt((FreeStayFinder.FreeStay stay) -> stay.getFreeNightsBefore() + stay.getFreeNightsAfter())
+            .thenComparingInt(stay -> Math.min(stay.getFreeNightsBefore(), stay.getFreeNightsAfter()))
+            .thenComparing(FreeStayFinder.FreeStay::getCheckInDate)
+            .thenComparing(FreeStayFinder.FreeStay::getRoomId);
+
+    @Value("${reservation.search.flexible-max-results}")
+    private int MAX_RESULTS;
+
+    private final BookingRules bookingRules;
+    private final RoomRepository roomRepository;
+    private final RoomNightsRepository roomNightsRepository;
+    private final ReservationHoldRepository holdRepository;
+
+    public AvailabilitySearchServiceImpl(BookingRules bookingRules, RoomRepository roomRepository,
+                                         RoomNightsRepository roomNightsRepository,
+                                         ReservationHoldRepository holdRepository) {
+        this.bookingRules = bookingRules;
+        this.roomRepository = roomRepository;
+        this.roomNightsRepository = roomNightsRepository;
+        this.holdRepository = holdRepository;
+    }
+
+    /**
+     * Finds the free stays of {@code days} days in every room of the current hotel, starting between {@code from} and
+     * {@code to}, ranked by how well they fit the free nights of the room.
+     * <p>
+     * The occupied nights of the whole window are read with one query for the reservations, from the monthly bitmaps
+     * of the rooms, and one for the active holds, and every room is then searched in memory in a single pass, instead
+     * of checking the availability of each start date.
+     *
+     * @param from  the first check-in date, or null for tomorrow
+     * @param to    the last check-in date, or null for the last date bookable in advance
+     * @param limit the maximum number of stays returned, capped by {@code reservation.search.flexible-max-results}
+     * @throws InvalidCheckInDateException if {@code from} or {@code to} cannot be booked
+     * @throws InvalidReservationException if the stay is longer than the maximum stay or the window is reversed
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public FlexibleAvailabilityDto findFlexibleStays(int days, LocalDate from, LocalDate to, int limit) {
+        LocalDate today = LocalDate.now(bookingRules.getClock());
+        LocalDate firstCheckIn = from == null ? today.plusDays(1) : from;
+        LocalDate lastCheckIn = to == null ? today.plusDays(bookingRules.getMaxAdvanceBookingDays()) : to;
+        if (days < 1 || days > bookingRules.getMaxStayDays()) {
+            throw new InvalidReservationException("days must be between 1 and " + bookingRules.getMaxStayDays());
+        }
+        bookingRules.validateCheckInDate(firstCheckIn);
+        bookingRules.validateCheckInDate(lastCheckIn);
+        if (lastCheckIn.isBefore(firstCheckIn)) {
+            throw new InvalidReservationException("to must not be before from.");
+        }
+
+        Long hotelId = HotelContext.getHotelId();
+        LocalDate lastNight = lastCheckIn.plusDays(days - 1L);
+        FreeStayFinder finder = new FreeStayFinder(firstCheckIn, lastCheckIn, days);
+        Map<Long, RoomType> roomTypes = new HashMap<>();
+        for (Room room : roomRepository.findByHotelIdOrderByIdAsc(hotelId)) {
+            finder.addRoom(room.getId());
+            roomTypes.put(room.getId(), room.getRoomType());
+        }
+        for (RoomNights month : roomNightsRepository.findOccupiedMonths(hotelId, firstCheckIn.withDayOfMonth(1),
+                lastNight)) {
+            finder.occupyMonth(month.getRoomId(), month.getMonthStart(), month.getNights());
+        }
+        for (ReservationRepository.OccupiedStay hold : holdRepository.findOccupiedStays(hotelId, firstCheckIn,
+                lastNight, LocalDateTime.now())) {
+            finder.occupy(hold.getRoomId(), hold.getCheckInDate(), hold.getCheckOutDate());
+        }
+
+        List<FreeStayFinder.FreeStay> stays = finder.findStays();
+        return FlexibleAvailabilityDto.builder()
+                .days(days)
+                .from(firstCheckIn)
+                .to(lastCheckIn)
+                .found(stays.size())
+                .stays(stays.stream()
+                        .sorted(BEST_FIT)
+                        .limit(Math.max(0, Math.min(limit, MAX_RESULTS)))
+                        .map(stay -> FlexibleAvailabilityDto.Stay.builder()
+                                .roomId(stay.getRoomId())
+                                .roomType(roomTypes.get(stay.getRoomId()))
+                                .checkInDate(stay.getCheckInDate())
+                                .checkOutDate(stay.getCheckOutDate())
+                                .freeNightsBefore(stay.getFreeNightsBefore())
+                                .freeNightsAfter(stay.getFreeNightsAfter())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+}
@@ -0,0 +1,208 @@
+package com.alten.bookingapp.service.impl;
+
+import com.alten.bookingapp.config.HotelContext;
+import com.alten.bookingapp.model.dto.GroupReservationDTO;
+import com.alten.bookingapp.model.dto.GroupReservationResponseDto;
+import com.alten.bookingapp.model.dto.HoldDTO;
+import com.alten.bookingapp.model.dto.ModifyResponseDto;
+import com.alten.bookingapp.model.dto.ReservationDTO;
+import com.alten.bookingapp.model.dto.ReservationSummaryDto;
+import com.alten.bookingapp.model.dto.ResponseDto;
+import com.alten.bookingapp.model.dto.RoomDto;
+import com.alten.bookingapp.model.entities.RoomType;
+import com.alten.bookingapp.service.ReservationService;
+import com.alten.bookingcore.BookingEngine;
+import com.alten.bookingcore.exception.*;
+import com.alten.bookingcore.spi.ReservationStore;
+import com.alten.bookingcore.spi.StoredReservation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Serves the reservations of the {@code edge} profile from the in-process {@link BookingEngine}, without any
+ * database. Each hotel has a single room, identified by the hotel ID, whose type and beds are configured with the
+ * {@code reservation.edge} properties.
+ * <p>
+ * Group bookings and holds need the rooms and holds tables, so they are not available in this mode.
+ */
+@Service
+@Profile("edge")
+public class EdgeReservationServiceImpl implements ReservationService {
+
+    @Value("${reservation.edge.room-type}")
+    private RoomType ROOM_TYPE;
+
+    @Value("${reservation.edge.number-of-beds}")
+    private short NUMBER_OF_BEDS;
+
+    private final BookingEngine bookingEngine;
+    private final ReservationStore reservationStore;
+
+    public EdgeReservationServiceImpl(BookingEngine bookingEngine, ReservationStore reservationStore) {
+        this.bookingEngine = bookingEngine;
+        this.reservationStore = reservationStore;
+    }
+
+    /**
+     * Retrieves all the reservations of the current hotel.
+     *
+     * @return the reservations, ordered by ID
+     */
+    @Override
+    public List<ReservationSummaryDto> getAllReservations() {
+        return reservationStore.findByRoom(HotelContext.getHotelId()).stream()
+                .map(this::toSummary)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Searches the reservations of the current hotel by guest name, ignoring case, with a scan of the reservations of
+     * the hotel. The fuzzy search matches the names containing {@code guestName}.
+     *
+     * @throws InvalidReservationException if the guest name is empty or blank
+     */
+    @Override
+    public Page<ReservationSummaryDto> searchReservations(String guestName, boolean fuzzy, Pageable pageable) {
+        if (guestName == null || guestName.isBlank()) {
+            throw new InvalidReservationException("guest-name must not be empty or blank");
+        }
+        String name = guestName.trim().toLowerCase(Locale.ROOT);
+        List<StoredReservation> matches = reservationStore.findByRoom(HotelContext.getHotelId()).stream()
+                .filter(reservation -> {
+                    String candidate = reservation.getGuestName().toLowerCase(Locale.ROOT);
+                    return fuzzy ? candidate.contains(name) : candidate.startsWith(name);
+                })
+                .sorted(Comparator.comparing(StoredReservation::getGuestName, String.CASE_INSENSITIVE_ORDER)
+                        .thenComparing(StoredReservation::getId))
+                .collect(Collectors.toList());
+        List<ReservationSummaryDto> page = matches.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(this::toSummary)
+                .collect(Collectors.toList());
+        return new PageImpl<>(page, pageable, matches.size());
+    }
+
+    /**
+     * Books the room of the current hotel.
+     *
+     * @throws InvalidCheckInDateException  if the check-in date is not valid
+     * @throws InvalidCheckOutDateException if the check-out date is not valid
+     * @throws RoomNotAvailableException    if the room is not available
+     */
+    @Override
+    public ReservationDTO placeReservation(ReservationDTO requestDto) {
+        return toDto(bookingEngine.book(HotelContext.getHotelId(), requestDto.getGuestName(),
+                requestDto.getCheckInDate(), requestDto.getCheckOutDate()));
+    }
+
+    @Override
+    public GroupReservationResponseDto placeGroupReservation(GroupReservationDTO requestDto) {
+        throw new InvalidReservationException("Group reservations are not available in edge mode");
+    }
+
+    @Override
+    public ResponseDto checkRoomAvailability(LocalDate checkIn, LocalDate checkOut) {
+        if (!bookingEngine.isAvailable(HotelContext.getHotelId(), checkIn, checkOut)) {
+            throw new RoomNotAvailableException("The room is already booked for this dates");
+        }
+        return ResponseDto.builder()
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .roomAvailable(true)
+                .message("The room is available for these dates")
+                .build();
+    }
+
+    /**
+     * Cancels a reservation of the current hotel.
+     *
+     * @throws ReservationAlreadyCancelledException if the reservation was already cancelled
+     * @throws RoomNotAvailableException            if no reservation was found with the given ID
+     * @throws ReservationVersionMismatchException  if the reservation does not have the expected version
+     */
+    @Override
+    public ModifyResponseDto cancelReservation(Long id, Long expectedVersion) {
+        checkHotel(id);
+        bookingEngine.cancel(id, expectedVersion);
+        return ModifyResponseDto.builder()
+                .message("Reservation cancelled successfully.")
+                .build();
+    }
+
+    /**
+     * Moves a reservation of the current hotel to other dates.
+     *
+     * @throws InvalidReservationException          if the range of dates is the same as the existing reservation
+     * @throws RoomNotAvailableException            if the room is not available
+     * @throws ReservationAlreadyCancelledException if the reservation is cancelled
+     * @throws ReservationVersionMismatchException  if the reservation does not have the expected version
+     */
+    @Override
+    public ReservationDTO modifyReservation(Long id, ReservationDTO requestDto, Long expectedVersion) {
+        checkHotel(id);
+        return toDto(bookingEngine.modify(id, requestDto.getGuestName(), requestDto.getCheckInDate(),
+                requestDto.getCheckOutDate(), expectedVersion));
+    }
+
+    @Override
+    public HoldDTO placeHold(ReservationDTO requestDto) {
+        throw holdsNotAvailable();
+    }
+
+    @Override
+    public ReservationDTO confirmHold(Long holdId) {
+        throw holdsNotAvailable();
+    }
+
+    @Override
+    public ModifyResponseDto releaseHold(Long holdId) {
+        throw holdsNotAvailable();
+    }
+
+    /**
+     * Makes sure the reservation belongs to the current hotel, so that a hotel cannot change the reservations of
+     * another one.
+     *
+     * @throws RoomNotAvailableException if the reservation does not exist in the current hotel
+     */
+    private void checkHotel(Long id) {
+        Long hotelId = HotelContext.getHotelId();
+        if (reservationStore.findById(id).filter(reservation -> reservation.getRoomId() == hotelId).isEmpty()) {
+            throw new RoomNotAvailableException("Reservation with id " + id + " not found.");
+        }
+    }
+
+    private static InvalidReservationException holdsNotAvailable() {
+        return new InvalidReservationException("Holds are not available in edge mode");
+    }
+
+    private static ReservationDTO toDto(StoredReservation reservation) {
+        return ReservationDTO.builder()
+                .id(reservation.getId())
+                .guestName(reservation.getGuestName())
+                .checkInDate(reservation.getCheckInDate())
+                .checkOutDate(reservation.getCheckOutDate())
+                .roomId(reservation.getRoomId())
+                .cancelled(reservation.isCancelled())
+                .version(reservation.getVersion())
+                .build();
+    }
+
+    private ReservationSummaryDto toSummary(StoredReservation reservation) {
+        return new ReservationSummaryDto(reservation.getId(), reservation.getGuestName(),
+                reservation.getCheckInDate(), reservation.getCheckOutDate(), reservation.getCreatedAt(),
+                reservation.getModifiedAt(), reservation.isCancelled(), reservation.getVersion(),
+                new RoomDto(reservation.getRoomId(), NUMBER_OF_BEDS, ROOM_TYPE));
+    }
+}
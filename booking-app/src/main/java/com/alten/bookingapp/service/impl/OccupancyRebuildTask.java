@@ -0,0 +1,87 @@
+package com.alten.bookingapp.service.impl;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes the number of occupied rooms per room type and day for a set of stays.
+ * <p>
+ * Each leaf task records its stays in a difference array (+1 on the check-in day, -1 on the day after check-out),
+ * partial arrays are summed when the tasks are joined and a final prefix sum turns the result into daily counts.
+ * The work is linear in the number of stays plus the number of days, whatever the length of the stays.
+ */
+class OccupancyRebuildTask extends RecursiveTask<int[][]> {
+
+    private static final int THRESHOLD = 10_000;
+
+    private final int[] roomTypes;
+    private final int[] checkInDays;
+    private final int[] checkOutDays;
+    private final int firstDay;
+    private final int days;
+    private final int roomTypeCount;
+    private final int from;
+    private final int to;
+
+    private OccupancyRebuildTask(int[] roomTypes, int[] checkInDays, int[] checkOutDays, int firstDay, int days,
+                                 int roomTypeCount, int from, int to) {
+        this.roomTypes = roomTypes;
+        this.checkInDays = checkInDays;
+        this.checkOutDays = checkOutDays;
+        this.firstDay = firstDay;
+        this.days = days;
+        this.roomTypeCount = roomTypeCount;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Computes the daily occupancy of the stays on the given pool.
+     *
+     * @param roomTypes     the room type ordinal of each stay
+     * @param checkInDays   the check-in epoch day of each stay
+     * @param checkOutDays  the check-out epoch day of each stay, included in the stay
+     * @param size          the number of stays in the arrays
+     * @param firstDay      the first epoch day of the result
+     * @param days          the number of days of the result
+     * @param roomTypeCount the number of room types
+     * @return the occupied rooms indexed by room type ordinal and day offset from {@code firstDay}
+     */
+    static int[][] occupancy(ForkJoinPool pool, int[] roomTypes, int[] checkInDays, int[] checkOutDays, int size,
+                             int firstDay, int days, int roomTypeCount) {
+        int[][] occupancy = pool.invoke(new OccupancyRebuildTask(roomTypes, checkInDays, checkOutDays, firstDay, days,
+                roomTypeCount, 0, size));
+        for (int[] counts : occupancy) {
+            for (int day = 1; day <= days; day++) {
+                counts[day] += counts[day - 1];
+            }
+        }
+        return occupancy;
+    }
+
+    @Override
+    protected int[][] compute() {
+        if (to - from <= THRESHOLD) {
+            int[][] differences = new int[roomTypeCount][days + 1];
+            for (int i = from; i < to; i++) {
+                differences[roomTypes[i]][checkInDays[i] - firstDay]++;
+                differences[roomTypes[i]][checkOutDays[i] - firstDay + 1]--;
+            }
+            return differences;
+        }
+        int middle = (from + to) >>> 1;
+        OccupancyRebuildTask left = new OccupancyRebuildTask(roomTypes, checkInDays, checkOutDays, firstDay, days,
+                roomTypeCount, from, middle);
+        OccupancyRebuildTask right = new OccupancyRebuildTask(roomTypes, checkInDays, checkOutDays, firstDay, days,
+                roomTypeCount, middle, to);
+        left.fork();
+        int[][] differences = right.compute();
+        int[][] leftDifferences = left.join();
+        for (int type = 0; type < roomTypeCount; type++) {
+            for (int day = 0; day <= days; day++) {
+                differences[type][day] += leftDifferences[type][day];
+            }
+        }
+        return differences;
+    }
+}
@@ -0,0 +1,242 @@
+package com.alten.bookingapp.service.impl;
+
+import com.alten.bookingapp.config.HotelContext;
+import com.alten.bookingapp.model.dto.OccupancyDto;
+import com.alten.bookingapp.model.entities.DailyOccupancy;
+import com.alten.bookingapp.model.entities.RoomType;
+import com.alten.bookingapp.repository.DailyOccupancyRepository;
+import com.alten.bookingapp.repository.RoomNightsRepository;
+import com.alten.bookingapp.repository.RoomRepository;
+import com.alten.bookingapp.service.OccupancyService;
+import com.alten.bookingcore.exception.InvalidCheckOutDateException;
+import com.alten.bookingcore.exception.InvalidReservationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+@Service
+@Profile("!edge")
+public class OccupancyServiceImpl implements OccupancyService {
+
+    private static final Logger log = LoggerFactory.getLogger(OccupancyServiceImpl.class);
+
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+    private static final int FETCH_SIZE = 10_000;
+
+    private static final String SELECT_HOTELS = "SELECT id FROM hotel ORDER BY id";
+
+    private static final String SELECT_STAYS = "SELECT rm.room_type, r.check_in_date, r.check_out_date " +
+            "FROM (SELECT room_id, check_in_date, check_out_date FROM reservation " +
+            "WHERE hotel_id = ? AND cancelled = false " +
+            "UNION ALL " +
+            "SELECT room_id, check_in_date, check_out_date FROM reservation_archive " +
+            "WHERE hotel_id = ? AND cancelled = false) r " +
+            "JOIN room rm ON rm.id = r.room_id";
+
+    private static final String DELETE_OCCUPANCY = "DELETE FROM daily_occupancy WHERE hotel_id = ?";
+
+    private static final String INSERT_OCCUPANCY = "INSERT INTO daily_occupancy " +
+            "(hotel_id, day, room_type, occupied_rooms) VALUES (?, ?, ?, ?)";
+
+    @Value("${reservation.occupancy.max-range-days}")
+    private int MAX_RANGE_DAYS;
+
+    private final DailyOccupancyRepository occupancyRepository;
+    private final RoomNightsRepository roomNightsRepository;
+    private final RoomRepository roomRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public OccupancyServiceImpl(DailyOccupancyRepository occupancyRepository,
+                                RoomNightsRepository roomNightsRepository, RoomRepository roomRepository,
+                                JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.occupancyRepository = occupancyRepository;
+        this.roomNightsRepository = roomNightsRepository;
+        this.roomRepository = roomRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Retrieves the occupancy of every room type of the current hotel for each day of the range, from the daily
+     * rollup. Days without reservations are reported with zero occupied rooms.
+     *
+     * @param from the first day of the range
+     * @param to   the last day of the range, included
+     * @return one entry per day and room type, ordered by day and room type
+     * @throws InvalidCheckOutDateException if the end of the range is before its start
+     * @throws InvalidReservationException  if the range is longer than {@code reservation.occupancy.max-range-days}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<OccupancyDto> getOccupancy(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new InvalidCheckOutDateException("End of the range should be a date after its start");
+        }
+        long rangeDays = to.toEpochDay() - from.toEpochDay() + 1;
+        if (rangeDays > MAX_RANGE_DAYS) {
+            throw new InvalidReservationException("The range should not be longer than " + MAX_RANGE_DAYS + " days");
+        }
+        Long hotelId = HotelContext.getHotelId();
+        Map<RoomType, Long> totalRooms = new EnumMap<>(RoomType.class);
+        roomRepository.countRoomsByType(hotelId).forEach(count -> totalRooms.put(count.getRoomType(), count.getRooms()));
+
+        int days = (int) rangeDays;
+        int[][] occupiedRooms = new int[ROOM_TYPES.length][days];
+        List<DailyOccupancy> rollup = occupancyRepository.findByHotelIdAndDayBetweenOrderByDayAscRoomTypeAsc(hotelId,
+                from, to);
+        for (DailyOccupancy occupancy : rollup) {
+            int day = (int) (occupancy.getDay().toEpochDay() - from.toEpochDay());
+            occupiedRooms[occupancy.getRoomType().ordinal()][day] = occupancy.getOccupiedRooms();
+        }
+
+        List<OccupancyDto> result = new ArrayList<>(days * totalRooms.size());
+        for (int day = 0; day < days; day++) {
+            for (RoomType roomType : ROOM_TYPES) {
+                long total = totalRooms.getOrDefault(roomType, 0L);
+                int occupied = occupiedRooms[roomType.ordinal()][day];
+                if (total == 0 && occupied == 0) {
+                    continue;
+                }
+                result.add(OccupancyDto.builder()
+                        .day(from.plusDays(day))
+                        .roomType(roomType)
+                        .occupiedRooms(occupied)
+                        .totalRooms(total)
+                        .occupancyRate(total == 0 ? 0 : (double) occupied / total)
+                        .build());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Recomputes the daily rollup of every hotel from all the current and archived reservations.
+     * <p>
+     * The hotels are rebuilt one at a time, each in its own transaction and reading only its own reservation partition,
+     * and the counts are computed in parallel on the common fork-join pool. The rooms of the hotel are locked while
+     * its rows are rebuilt, so its bookings made in the meantime wait and apply their change on top of the rebuilt
+     * values instead of being lost, while the other hotels keep booking. Group bookings skip the locked rooms, so they
+     * find no room in the hotel being rebuilt.
+     *
+     * @return the number of rows written to the rollup table
+     */
+    @Override
+    public int rebuildOccupancy() {
+        int rows = 0;
+        for (Long hotelId : jdbcTemplate.queryForList(SELECT_HOTELS, Long.class)) {
+            Integer hotelRows = transactionTemplate.execute(status -> rebuildOccupancy(hotelId));
+            rows += hotelRows == null ? 0 : hotelRows;
+        }
+        return rows;
+    }
+
+    /**
+     * Rebuilds the rows of a hotel. The stays are read by a statement started after the rooms are locked, so they
+     * include every change committed before.
+     */
+    private int rebuildOccupancy(Long hotelId) {
+        roomRepository.lockByHotelId(hotelId);
+        jdbcTemplate.update(DELETE_OCCUPANCY, hotelId);
+        StayBuffer stays = new StayBuffer();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_STAYS);
+            statement.setLong(1, hotelId);
+            statement.setLong(2, hotelId);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, resultSet -> {
+            stays.add(RoomType.valueOf(resultSet.getString(1)).ordinal(),
+                    (int) resultSet.getObject(2, LocalDate.class).toEpochDay(),
+                    (int) resultSet.getObject(3, LocalDate.class).toEpochDay());
+        });
+        if (stays.size == 0) {
+            return 0;
+        }
+
+        int days = stays.lastDay - stays.firstDay + 1;
+        int[][] occupancy = OccupancyRebuildTask.occupancy(ForkJoinPool.commonPool(), stays.roomTypes,
+                stays.checkInDays, stays.checkOutDays, stays.size, stays.firstDay, days, ROOM_TYPES.length);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int day = 0; day < days; day++) {
+            for (RoomType roomType : ROOM_TYPES) {
+                int occupied = occupancy[roomType.ordinal()][day];
+                if (occupied > 0) {
+                    rows.add(new Object[]{hotelId, Date.valueOf(LocalDate.ofEpochDay(stays.firstDay + day)),
+                            roomType.name(), occupied});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_OCCUPANCY, rows);
+        return rows.size();
+    }
+
+    /**
+     * Checks the occupied nights of every room against the current and archived reservations and rewrites the months
+     * that drifted.
+     * <p>
+     * As for the rebuild of the rollup, the hotels are checked one at a time, each in its own transaction with its
+     * rooms locked, so the bookings of the hotel made in the meantime apply their change on top of the repaired values
+     * and the other hotels keep booking.
+     *
+     * @return the number of room months that were repaired
+     */
+    @Override
+    public int repairRoomNights() {
+        int repaired = 0;
+        for (Long hotelId : jdbcTemplate.queryForList(SELECT_HOTELS, Long.class)) {
+            Integer hotelRepaired = transactionTemplate.execute(status -> {
+                roomRepository.lockByHotelId(hotelId);
+                return roomNightsRepository.repair(hotelId);
+            });
+            repaired += hotelRepaired == null ? 0 : hotelRepaired;
+        }
+        if (repaired > 0) {
+            log.warn("Repaired the occupied nights of {} room months that did not match the reservations", repaired);
+        }
+        return repaired;
+    }
+
+    /**
+     * Growable primitive arrays holding the stays read from the database, with the range of days they cover.
+     */
+    private static class StayBuffer {
+        private int[] roomTypes = new int[1024];
+        private int[] checkInDays = new int[1024];
+        private int[] checkOutDays = new int[1024];
+        private int size;
+        private int firstDay = Integer.MAX_VALUE;
+        private int lastDay = Integer.MIN_VALUE;
+
+        void add(int roomType, int checkInDay, int checkOutDay) {
+            if (size == roomTypes.length) {
+                roomTypes = Arrays.copyOf(roomTypes, size * 2);
+                checkInDays = Arrays.copyOf(checkInDays, size * 2);
+                checkOutDays = Arrays.copyOf(checkOutDays, size * 2);
+            }
+            roomTypes[size] = roomType;
+            checkInDays[size] = checkInDay;
+            checkOutDays[size] = Math.max(checkInDay, checkOutDay);
+            firstDay = Math.min(firstDay, checkInDay);
+            lastDay = Math.max(lastDay, checkOutDays[size]);
+            size++;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.alten.bookingapp.service.impl;
+
+import com.alten.bookingapp.config.HotelContext;
+import com.alten.bookingapp.event.ReservationChangedEvent;
+import com.alten.bookingapp.event.StayReleasedEvent;
+import com.alten.bookingapp.model.dto.BulkCancelDTO;
+import com.alten.bookingapp.model.dto.BulkChangeDto;
+import com.alten.bookingapp.model.dto.BulkChangeResultDto;
+import com.alten.bookingapp.model.dto.BulkImportRejectDto;
+import com.alten.bookingapp.model.dto.BulkImportResultDto;
+import com.alten.bookingapp.model.dto.BulkShiftDTO;
+import com.alten.bookingapp.repository.ReservationRepository;
+import com.alten.bookingapp.service.ReservationBulkService;
+import com.alten.bookingcore.exception.InvalidReservationException;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+@Service
+@Profile("!edge")
+public class ReservationBulkServiceImpl implements ReservationBulkService {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final String CREATE_STAGING_TABLE = "CREATE TEMP TABLE reservation_import (" +
+            "line_number BIGINT, room_id BIGINT, guest_name VARCHAR(255), check_in_date DATE, check_out_date DATE, " +
+            "cancelled BOOLEAN, created_at TIMESTAMP, modified_at TIMESTAMP) ON COMMIT DROP";
+
+    private static final String COPY_INTO_STAGING_TABLE = "COPY reservation_import " +
+            "(line_number, room_id, guest_name, check_in_date, check_out_date, cancelled, created_at, modified_at) " +
+            "FROM STDIN WITH (FORMAT csv)";
+
+    private static final String REJECT_UNKNOWN_ROOMS = "DELETE FROM reservation_import i " +
+            "WHERE NOT EXISTS (SELECT 1 FROM room rm WHERE rm.id = i.room_id AND rm.hotel_id = ?) " +
+            "RETURNING i.line_number";
+
+    private static final String REJECT_EXISTING_OVERLAPS = "DELETE FROM reservation_import i " +
+            "WHERE i.cancelled = false " +
+            "AND EXISTS (SELECT 1 FROM reservation r " +
+            "WHERE r.hotel_id = ? " +
+            "AND r.room_id = i.room_id " +
+            "AND r.check_out_date >= i.check_in_date " +
+            "AND r.check_in_date <= i.check_out_date " +
+            "AND r.cancelled = false) " +
+            "RETURNING i.line_number";
+
+    private static final String INSERT_FROM_STAGING_TABLE = "INSERT INTO reservation " +
+            "(hotel_id, guest_name, check_in_date, check_out_date, created_at, modified_at, cancelled, room_id) " +
+            "SELECT ?, guest_name, check_in_date, check_out_date, created_at, modified_at, cancelled, room_id " +
+            "FROM reservation_import ORDER BY line_number";
+
+    private static final String ADD_STAGED_OCCUPANCY = "INSERT INTO daily_occupancy " +
+            "(hotel_id, day, room_type, occupied_rooms) " +
+            "SELECT rm.hotel_id, d::date, rm.room_type, COUNT(*) " +
+            "FROM reservation_import i " +
+            "JOIN room rm ON rm.id = i.room_id " +
+            "CROSS JOIN LATERAL generate_series(i.check_in_date, i.check_out_date, interval '1 day') d " +
+            "WHERE i.cancelled = false " +
+            "GROUP BY rm.hotel_id, d::date, rm.room_type " +
+            "ORDER BY rm.hotel_id, d::date, rm.room_type " +
+            "ON CONFLICT (hotel_id, day, room_type) " +
+            "DO UPDATE SET occupied_rooms = daily_occupancy.occupied_rooms + EXCLUDED.occupied_rooms";
+
+    private static final String ADD_STAGED_ROOM_NIGHTS = "INSERT INTO room_nights (room_id, month_start, nights) " +
+            "SELECT i.room_id, m::date, bit_or(stay_nights(m::date, i.check_in_date, i.check_out_date)) " +
+            "FROM reservation_import i " +
+            "CROSS JOIN LATERAL generate_series(date_trunc('month', i.check_in_date), " +
+            "date_trunc('month', i.check_out_date), interval '1 month') m " +
+            "WHERE i.cancelled = false " +
+            "GROUP BY i.room_id, m::date " +
+            "ORDER BY i.room_id, m::date " +
+            "ON CONFLICT (room_id, month_start) DO UPDATE SET nights = room_nights.nights | EXCLUDED.nights";
+
+    private static final String COPY_OUT_RESERVATIONS = "COPY (" +
+            "SELECT id, room_id, guest_name, check_in_date, check_out_date, cancelled, created_at, modified_at " +
+            "FROM reservation WHERE hotel_id = %d ORDER BY room_id, check_in_date, id" +
+            ") TO STDOUT WITH (FORMAT csv, HEADER)";
+
+    @Value("${reservation.bulk.max-reported-rejects}")
+    private int MAX_REPORTED_REJECTS;
+
+    @Value("${reservation.max-advance-booking-days}")
+    private int MAX_ADVANCE_BOOKING_DAYS;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReservationRepository reservationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ReservationBulkServiceImpl(JdbcTemplate jdbcTemplate, ReservationRepository reservationRepository,
+                                      ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reservationRepository = reservationRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Imports reservations into the current hotel from a CSV stream in a single transaction.
+     * <p>
+     * Rows are validated while they are read and streamed into a temporary table through the COPY protocol, so the
+     * memory used does not depend on the size of the file. Rows for rooms of other hotels or overlapping a reservation
+     * already in the database are then rejected with set-based statements, and the remaining rows are inserted with
+     * a single INSERT ... SELECT, and added to the daily occupancy rollup and the occupied nights of their rooms.
+     *
+     * @param csv the CSV content, sorted by room_id and check_in_date, with or without header line
+     * @return the number of received, imported and rejected rows, with the first rejects
+     */
+    @Override
+    @Transactional
+    public BulkImportResultDto importReservations(Reader csv) {
+        BulkImportResultDto result = new BulkImportResultDto();
+        long hotelId = HotelContext.getHotelId();
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING_TABLE);
+            }
+            copyIntoStagingTable(connection, csv, result);
+            rejectStagedRows(connection, REJECT_UNKNOWN_ROOMS, hotelId, "Room does not exist in this hotel", result);
+            rejectStagedRows(connection, REJECT_EXISTING_OVERLAPS, hotelId, "The room is already booked for this dates",
+                    result);
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_FROM_STAGING_TABLE)) {
+                statement.setLong(1, hotelId);
+                result.setImported(statement.executeUpdate());
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate(ADD_STAGED_OCCUPANCY);
+                statement.executeUpdate(ADD_STAGED_ROOM_NIGHTS);
+            }
+            return null;
+        });
+        return result;
+    }
+
+    /**
+     * Exports every reservation of the hotel as CSV, in the format accepted by the import. The hotel is given
+     * explicitly, as the export may be streamed from another thread than the one of the request.
+     *
+     * @param hotelId the hotel of the reservations
+     * @param out     the stream to write to
+     * @return the number of exported reservations
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportReservations(long hotelId, OutputStream out) {
+        String copyOut = String.format(COPY_OUT_RESERVATIONS, hotelId);
+        Long exported = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return copyManager(connection).copyOut(copyOut, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return exported == null ? 0 : exported;
+    }
+
+    /**
+     * Cancels every active reservation of the current hotel matching the filter, in a single transaction.
+     * <p>
+     * The reservations are cancelled and their stays removed from the daily occupancy and the occupied nights of their
+     * rooms with a single statement, whatever the number of reservations matched. The freed nights are offered to the
+     * waitlist once the cancellation is committed.
+     *
+     * @param requestDto the filter of the reservations to cancel
+     * @return the cancelled reservations
+     * @throws InvalidReservationException if the filter is empty or its dates are reversed
+     */
+    @Override
+    @Transactional
+    public BulkChangeResultDto cancelReservations(BulkCancelDTO requestDto) {
+        if (requestDto.getRoomId() == null && requestDto.getFrom() == null && requestDto.getTo() == null
+                && requestDto.getGuestName() == null) {
+            throw new InvalidReservationException("At least one of room-id, from, to or guest-name is required.");
+        }
+        if (requestDto.getFrom() != null && requestDto.getTo() != null
+                && requestDto.getFrom().isAfter(requestDto.getTo())) {
+            throw new InvalidReservationException("from must not be after to.");
+        }
+        Long hotelId = HotelContext.getHotelId();
+        LocalDateTime now = LocalDateTime.now();
+        List<BulkChangeDto> cancelled = reservationRepository.cancelMatching(hotelId, requestDto.getRoomId(),
+                requestDto.getFrom(), requestDto.getTo(), requestDto.getGuestName(), now);
+        for (BulkChangeDto reservation : cancelled) {
+            publishChange(ReservationChangedEvent.Type.CANCELLED, hotelId, reservation, now);
+            eventPublisher.publishEvent(new StayReleasedEvent(hotelId, reservation.getRoomId(),
+                    reservation.getCheckInDate(), reservation.getCheckOutDate()));
+        }
+        return BulkChangeResultDto.builder()
+                .changed(cancelled.size())
+                .results(cancelled)
+                .build();
+    }
+
+    /**
+     * Moves the stays of the given reservations of the current hotel by the same number of days, in a single
+     * transaction.
+     * <p>
+     * The reservations are checked and moved with a fixed number of set-based statements, whatever their number. A
+     * reservation whose new check-in date is not bookable, or whose new dates overlap a hold or a reservation that is
+     * not moved, keeps its dates and is reported as rejected, without failing the others. The nights freed are offered
+     * to the waitlist once the change is committed.
+     *
+     * @param requestDto the IDs of the reservations and the number of days to move them by
+     * @return the outcome for each requested reservation, in the order of the request
+     * @throws InvalidReservationException if the number of days is zero
+     */
+    @Override
+    @Transactional
+    public BulkChangeResultDto shiftReservations(BulkShiftDTO requestDto) {
+        int days = requestDto.getDays();
+        if (days == 0) {
+            throw new InvalidReservationException("days must not be zero.");
+        }
+        Long hotelId = HotelContext.getHotelId();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(requestDto.getReservationIds()));
+        List<BulkChangeDto> results = reservationRepository.shiftReservations(hotelId, ids, days,
+                today.plusDays(1), today.plusDays(MAX_ADVANCE_BOOKING_DAYS), now);
+        BulkChangeResultDto result = BulkChangeResultDto.builder()
+                .results(results)
+                .build();
+        for (BulkChangeDto reservation : results) {
+            if (reservation.getStatus() != BulkChangeDto.Status.SHIFTED) {
+                result.setRejected(result.getRejected() + 1);
+                continue;
+            }
+            result.setChanged(result.getChanged() + 1);
+            publishChange(ReservationChangedEvent.Type.MODIFIED, hotelId, reservation, now);
+            eventPublisher.publishEvent(new StayReleasedEvent(hotelId, reservation.getRoomId(),
+                    reservation.getPreviousCheckInDate(), reservation.getPreviousCheckOutDate()));
+        }
+        return result;
+    }
+
+    private void copyIntoStagingTable(Connection connection, Reader csv, BulkImportResultDto result) throws SQLException {
+        ReservationImportValidator validator = new ReservationImportValidator();
+        LocalDateTime now = LocalDateTime.now();
+        CopyIn copyIn = copyManager(connection).copyIn(COPY_INTO_STAGING_TABLE);
+        try {
+            BufferedReader reader = new BufferedReader(csv);
+            StringBuilder buffer = new StringBuilder(COPY_BUFFER_SIZE);
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || lineNumber == 1 && line.startsWith(ReservationCsvRow.HEADER)) {
+                    continue;
+                }
+                result.setReceived(result.getReceived() + 1);
+                String reason;
+                try {
+                    ReservationCsvRow row = ReservationCsvRow.parse(lineNumber, line, now);
+                    reason = validator.validate(row);
+                    if (reason == null) {
+                        buffer.append(row.toCopyLine());
+                    }
+                } catch (IllegalArgumentException e) {
+                    reason = e.getMessage();
+                }
+                if (reason != null) {
+                    reject(result, lineNumber, reason);
+                }
+                if (buffer.length() >= COPY_BUFFER_SIZE) {
+                    writeToCopy(copyIn, buffer);
+                }
+            }
+            writeToCopy(copyIn, buffer);
+            copyIn.endCopy();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private void rejectStagedRows(Connection connection, String sql, long hotelId, String reason,
+                                  BulkImportResultDto result) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, hotelId);
+            try (ResultSet rejected = statement.executeQuery()) {
+                while (rejected.next()) {
+                    reject(result, rejected.getLong(1), reason);
+                }
+            }
+        }
+    }
+
+    private void reject(BulkImportResultDto result, long lineNumber, String reason) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getRejects().size() < MAX_REPORTED_REJECTS) {
+            result.getRejects().add(new BulkImportRejectDto(lineNumber, reason));
+        }
+    }
+
+    private void publishChange(ReservationChangedEvent.Type type, Long hotelId, BulkChangeDto reservation,
+                               LocalDateTime occurredAt) {
+        eventPublisher.publishEvent(ReservationChangedEvent.builder()
+                .type(type)
+                .reservationId(reservation.getReservationId())
+                .version(reservation.getVersion())
+                .hotelId(hotelId)
+                .roomId(reservation.getRoomId())
+                .guestName(reservation.getGuestName())
+                .checkInDate(reservation.getCheckInDate())
+                .checkOutDate(reservation.getCheckOutDate())
+                .occurredAt(occurredAt)
+                .build());
+    }
+
+    private static void writeToCopy(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.length() > 0) {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+
+    private static CopyManager copyManager(Connection connection) throws SQLException {
+        return connection.unwrap(PGConnection.class).getCopyAPI();
+    }
+}
@@ -0,0 +1,136 @@
+package com.alten.bookingapp.service.impl;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A reservation row of the bulk CSV format, which is the format produced by the export:
+ * {@code id,room_id,guest_name,check_in_date,check_out_date,cancelled,created_at,modified_at}.
+ * <p>
+ * The {@code id} column is ignored on import, and empty timestamps default to the time of the import.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+class ReservationCsvRow {
+
+    static final String HEADER = "id,room_id,guest_name,check_in_date,check_out_date,cancelled,created_at,modified_at";
+    private static final int COLUMNS = 8;
+
+    private long lineNumber;
+    private long roomId;
+    private String guestName;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private boolean cancelled;
+    private LocalDateTime createdAt;
+    private LocalDateTime modifiedAt;
+
+    /**
+     * Parses a CSV line.
+     *
+     * @param lineNumber the line number in the file, used to report rejects
+     * @param line       the CSV line, without line terminator
+     * @param now        the timestamp used for empty created_at and modified_at columns
+     * @return the parsed row
+     * @throws IllegalArgumentException if the line is not a valid reservation row
+     */
+    static ReservationCsvRow parse(long lineNumber, String line, LocalDateTime now) {
+        List<String> fields = split(line);
+        if (fields.size() != COLUMNS) {
+            throw new IllegalArgumentException("Expected " + COLUMNS + " columns but found " + fields.size());
+        }
+        String guestName = fields.get(2).trim();
+        if (guestName.isEmpty()) {
+            throw new IllegalArgumentException("guest_name must not be empty");
+        }
+        try {
+            return ReservationCsvRow.builder()
+                    .lineNumber(lineNumber)
+                    .roomId(Long.parseLong(fields.get(1).trim()))
+                    .guestName(guestName)
+                    .checkInDate(LocalDate.parse(fields.get(3).trim()))
+                    .checkOutDate(LocalDate.parse(fields.get(4).trim()))
+                    .cancelled(parseBoolean(fields.get(5).trim()))
+                    .createdAt(parseTimestamp(fields.get(6).trim(), now))
+                    .modifiedAt(parseTimestamp(fields.get(7).trim(), now))
+                    .build();
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid value: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Formats the row as a CSV line for the COPY staging table, starting with the line number.
+     */
+    String toCopyLine() {
+        return lineNumber + "," + roomId + "," + quote(guestName) + "," + checkInDate + "," + checkOutDate + ","
+                + cancelled + "," + createdAt + "," + modifiedAt + "\n";
+    }
+
+    /**
+     * Splits a CSV line into its fields, following RFC 4180 quoting. Quoted fields spanning several lines are not
+     * supported.
+     */
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static boolean parseBoolean(String value) {
+        switch (value.toLowerCase()) {
+            case "t":
+            case "true":
+                return true;
+            case "f":
+            case "false":
+                return false;
+            default:
+                throw new IllegalArgumentException("Invalid value for cancelled: " + value);
+        }
+    }
+
+    private static LocalDateTime parseTimestamp(String value, LocalDateTime defaultValue) {
+        if (value.isEmpty()) {
+            return defaultValue;
+        }
+        return LocalDateTime.parse(value.replace(' ', 'T'));
+    }
+}
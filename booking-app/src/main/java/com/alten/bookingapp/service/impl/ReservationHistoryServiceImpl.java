@@ -0,0 +1,78 @@
+package com.alten.bookingapp.service.impl;
+
+import com.alten.bookingapp.config.HotelContext;
+import com.alten.bookingapp.model.dto.ArchivedReservationDto;
+import com.alten.bookingapp.model.dto.ReservationChangeDto;
+import com.alten.bookingapp.repository.ReservationArchiveRepository;
+import com.alten.bookingapp.repository.ReservationChangeRepository;
+import com.alten.bookingapp.service.ReservationHistoryService;
+import com.alten.bookingcore.exception.RoomNotAvailableException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@Profile("!edge")
+public class ReservationHistoryServiceImpl implements ReservationHistoryService {
+
+    private final ReservationArchiveRepository archiveRepository;
+    private final ReservationChangeRepository changeRepository;
+
+    public ReservationHistoryServiceImpl(ReservationArchiveRepository archiveRepository,
+                                         ReservationChangeRepository changeRepository) {
+        this.archiveRepository = archiveRepository;
+        this.changeRepository = changeRepository;
+    }
+
+    /**
+     * Retrieves a page of archived reservations of the current hotel, optionally restricted to a guest.
+     *
+     * @param guestName the guest name to look up (case-insensitive), or null for every guest
+     * @param pageable  the page to retrieve
+     * @return a page of archived reservations
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ArchivedReservationDto> getHistory(String guestName, Pageable pageable) {
+        if (guestName == null || guestName.isBlank()) {
+            return archiveRepository.findAllSummaries(HotelContext.getHotelId(), pageable);
+        }
+        return archiveRepository.findSummariesByGuestName(HotelContext.getHotelId(), guestName, pageable);
+    }
+
+    /**
+     * Retrieves an archived reservation of the current hotel by its original reservation ID.
+     *
+     * @param id the ID of the reservation
+     * @return the archived reservation
+     * @throws RoomNotAvailableException if the reservation has not been archived
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ArchivedReservationDto getArchivedReservation(Long id) {
+        return archiveRepository.findSummaryById(id, HotelContext.getHotelId())
+                .orElseThrow(() -> new RoomNotAvailableException("Archived reservation with id " + id + " not found."));
+    }
+
+    /**
+     * Retrieves every change of a reservation of the current hotel, whether the reservation is still active or has
+     * been archived. The changes are written behind the requests, so the latest change may take a moment to appear.
+     *
+     * @param reservationId the ID of the reservation
+     * @return the changes, oldest first
+     * @throws RoomNotAvailableException if the reservation has no recorded change
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReservationChangeDto> getChanges(Long reservationId) {
+        List<ReservationChangeDto> changes = changeRepository.findChanges(reservationId, HotelContext.getHotelId());
+        if (changes.isEmpty()) {
+            throw new RoomNotAvailableException("No changes found for reservation with id " + reservationId + ".");
+        }
+        return changes;
+    }
+}
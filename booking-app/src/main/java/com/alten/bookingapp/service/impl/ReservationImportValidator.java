@@ -0,0 +1,45 @@
+package com.alten.bookingapp.service.impl;
+
+import java.time.LocalDate;
+
+/**
+ * Validates the rows of a bulk import, which must be sorted by room and check-in date.
+ * <p>
+ * Because of the ordering, a row can only overlap the accepted reservations of the same room through the latest
+ * check-out date seen so far, so the validator keeps a constant amount of state whatever the size of the file.
+ */
+class ReservationImportValidator {
+
+    private Long currentRoomId;
+    private LocalDate lastCheckInDate;
+    private LocalDate lastCheckOutDate;
+
+    /**
+     * Validates a row against the rows accepted before it and records it if it is accepted.
+     *
+     * @param row the row to validate
+     * @return the reason why the row is rejected, or null if the row is accepted
+     */
+    String validate(ReservationCsvRow row) {
+        if (row.getCheckOutDate().isBefore(row.getCheckInDate())) {
+            return "Check-out date should be a date after check-in date";
+        }
+        if (currentRoomId != null && (row.getRoomId() < currentRoomId
+                || row.getRoomId() == currentRoomId && row.getCheckInDate().isBefore(lastCheckInDate))) {
+            return "Rows must be sorted by room_id and check_in_date";
+        }
+        if (currentRoomId == null || row.getRoomId() != currentRoomId) {
+            currentRoomId = row.getRoomId();
+            lastCheckOutDate = null;
+        }
+        lastCheckInDate = row.getCheckInDate();
+        if (row.isCancelled()) {
+            return null;
+        }
+        if (lastCheckOutDate != null && !row.getCheckInDate().isAfter(lastCheckOutDate)) {
+            return "The room is already booked for this dates";
+        }
+        lastCheckOutDate = row.getCheckOutDate();
+        return null;
+    }
+}
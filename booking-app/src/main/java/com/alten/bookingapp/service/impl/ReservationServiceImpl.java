@@ -1,54 +1,159 @@
 package com.alten.bookingapp.service.impl;
 
+import com.alten.bookingapp.availability.DegradedAvailability;
+import com.alten.bookingapp.config.HotelContext;
+import com.alten.bookingapp.event.ReservationChangedEvent;
+import com.alten.bookingapp.event.StayReleasedEvent;
 import com.alten.bookingapp.exception.*;
+import com.alten.bookingapp.jfr.AvailabilityQueryEvent;
+import com.alten.bookingapp.jfr.BookingCancelledEvent;
+import com.alten.bookingapp.jfr.BookingModifiedEvent;
+import com.alten.bookingapp.jfr.BookingPlacedEvent;
+import com.alten.bookingapp.jfr.OverlapQueryEvent;
+import com.alten.bookingapp.model.dto.GroupReservationDTO;
+import com.alten.bookingapp.model.dto.GroupReservationResponseDto;
+import com.alten.bookingapp.model.dto.HoldDTO;
 import com.alten.bookingapp.model.dto.ModifyResponseDto;
 import com.alten.bookingapp.model.dto.ReservationDTO;
+import com.alten.bookingapp.model.dto.ReservationSummaryDto;
 import com.alten.bookingapp.model.dto.ResponseDto;
 import com.alten.bookingapp.model.entities.Reservation;
+import com.alten.bookingapp.model.entities.ReservationHold;
 import com.alten.bookingapp.model.entities.Room;
+import com.alten.bookingapp.model.entities.RoomType;
+import com.alten.bookingapp.repository.DailyOccupancyRepository;
+import com.alten.bookingapp.repository.ReservationArchiveRepository;
+import com.alten.bookingapp.repository.ReservationHoldRepository;
 import com.alten.bookingapp.repository.ReservationRepository;
+import com.alten.bookingapp.repository.RoomNightsRepository;
+import com.alten.bookingapp.repository.RoomRepository;
 import com.alten.bookingapp.service.ReservationService;
+import com.alten.bookingcore.BookingRules;
+import com.alten.bookingcore.exception.*;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
 import org.modelmapper.ModelMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 @Service
+@Profile("!edge")
 public class ReservationServiceImpl implements ReservationService {
 
-    @Value("${reservation.max-stay-days}")
-    private int MAX_STAY_DAYS;
+    private static final Logger log = LoggerFactory.getLogger(ReservationServiceImpl.class);
 
-    @Value("${reservation.max-advance-booking-days}")
-    private int MAX_ADVANCE_BOOKING_DAYS;
-    private static final long DEFAULT_ROOM_ID = 1L;
+    /**
+     * SQL state of a violation of the exclusion constraint that forbids overlapping reservations of a room.
+     */
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    @Value("${reservation.hold.ttl-minutes}")
+    private int HOLD_TTL_MINUTES;
+
+    @Value("${reservation.group.max-rooms}")
+    private int MAX_GROUP_ROOMS;
+
+    @Value("${reservation.search.similarity-threshold}")
+    private double SEARCH_SIMILARITY_THRESHOLD;
 
     private final ModelMapper mapper;
+    private final BookingRules bookingRules;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Tracer tracer;
+    private final DegradedAvailability degradedAvailability;
 
     private final ReservationRepository reservationRepository;
-    private final Room room;
+    private final ReservationHoldRepository holdRepository;
+    private final ReservationArchiveRepository archiveRepository;
+    private final DailyOccupancyRepository occupancyRepository;
+    private final RoomNightsRepository roomNightsRepository;
+    private final RoomRepository roomRepository;
+    private final Map<Long, Room> hotelRooms = new ConcurrentHashMap<>();
 
-    public ReservationServiceImpl(ModelMapper mapper, ReservationRepository reservationRepository) {
+    public ReservationServiceImpl(ModelMapper mapper, BookingRules bookingRules,
+                                  ApplicationEventPublisher eventPublisher, Tracer tracer,
+                                  DegradedAvailability degradedAvailability,
+                                  ReservationRepository reservationRepository,
+                                  ReservationHoldRepository holdRepository,
+                                  ReservationArchiveRepository archiveRepository,
+                                  DailyOccupancyRepository occupancyRepository,
+                                  RoomNightsRepository roomNightsRepository,
+                                  RoomRepository roomRepository) {
         this.mapper = mapper;
+        this.bookingRules = bookingRules;
+        this.eventPublisher = eventPublisher;
+        this.tracer = tracer;
+        this.degradedAvailability = degradedAvailability;
         this.reservationRepository = reservationRepository;
-        this.room = Room.builder().id(DEFAULT_ROOM_ID).build();
+        this.holdRepository = holdRepository;
+        this.archiveRepository = archiveRepository;
+        this.occupancyRepository = occupancyRepository;
+        this.roomNightsRepository = roomNightsRepository;
+        this.roomRepository = roomRepository;
+    }
+
+    /**
+     * Retrieves all the reservations of the current hotel, as read-only views that are never managed by the
+     * persistence context.
+     *
+     * @return the reservations, ordered by ID
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReservationSummaryDto> getAllReservations() {
+        return reservationRepository.findAllSummaries(HotelContext.getHotelId());
     }
 
     /**
-     * Retrieves all the reservations
+     * Searches the reservations of the current hotel by guest name, ignoring case.
      *
-     * @return
+     * @param guestName the name, or beginning of the name, to look for
+     * @param fuzzy     true to match names containing a word similar to {@code guestName}, best matches first;
+     *                  false to match names starting with {@code guestName}, in alphabetical order
+     * @param pageable  the page to retrieve
+     * @return a page of matching reservations
+     * @throws InvalidReservationException if the guest name is empty or blank
      */
-    public List<Reservation> getAllReservations() {
-        return reservationRepository.findAll(Sort.by(Sort.Direction.ASC, "id"));
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ReservationSummaryDto> searchReservations(String guestName, boolean fuzzy, Pageable pageable) {
+        if (guestName == null || guestName.isBlank()) {
+            throw new InvalidReservationException("guest-name must not be empty or blank");
+        }
+        String name = guestName.trim();
+        if (fuzzy) {
+            reservationRepository.setWordSimilarityThreshold(String.valueOf(SEARCH_SIMILARITY_THRESHOLD));
+            return reservationRepository.findByGuestNameSimilarTo(HotelContext.getHotelId(), name, pageable)
+                    .map(ReservationServiceImpl::toSummary);
+        }
+        return reservationRepository.findByGuestNamePrefix(HotelContext.getHotelId(), escapeLikeWildcards(name),
+                        pageable)
+                .map(ReservationServiceImpl::toSummary);
     }
 
     /**
-     * Creates a new reservation.
+     * Creates a new reservation in the room of the current hotel. The room is locked before checking its
+     * availability, so concurrent bookings of the room are checked one after the other.
      *
      * @param requestDto the reservation request DTO
      * @return the newly created reservation
@@ -57,78 +162,277 @@ public class ReservationServiceImpl implements ReservationService {
      * @throws RoomNotAvailableException   if the room is not available
      */
     @Override
+    @Transactional
     public ReservationDTO placeReservation(ReservationDTO requestDto) {
+        BookingPlacedEvent event = new BookingPlacedEvent();
+        event.begin();
         LocalDate checkIn = requestDto.getCheckInDate();
         LocalDate checkOut = requestDto.getCheckOutDate();
         requestDto.setCancelled(false);
-        validateReservation(checkIn, checkOut);
+        Room room = currentRoom();
+        roomRepository.lockById(room.getId());
+        validateReservation(room, checkIn, checkOut);
         Reservation reservation = mapper.map(requestDto, Reservation.class);
+        reservation.setHotelId(room.getHotelId());
         reservation.setRoom(room);
         reservation.setCreatedAt(LocalDateTime.now());
         reservation.setModifiedAt(LocalDateTime.now());
-        reservation = reservationRepository.save(reservation);
+        reservation = saveReservation(reservation);
+        occupancyRepository.addStay(room.getId(), checkIn, checkOut, 1);
+        roomNightsRepository.occupy(room.getId(), checkIn, checkOut);
+        publishChange(ReservationChangedEvent.Type.BOOKED, reservation);
+        event.commitReservation(reservation);
         return mapper.map(reservation, ReservationDTO.class);
     }
 
     /**
-     * Modifies an existing reservation with the given ID, using the reservation request DTO.
+     * Books several rooms of the current hotel for the same guest and dates, all or nothing.
+     * <p>
+     * The available rooms of the requested types are found and locked with a single query, and the reservations are
+     * inserted with a single statement, so the number of round trips does not depend on the size of the group.
      *
-     * @param id         The ID of the reservation to modify.
-     * @param requestDto The reservation request DTO.
-     * @return The modified reservation.
-     * @throws InvalidReservationException If the range of dates provided is the same as the existing reservation.
-     * @throws InvalidCheckInDateException If the check-in date is not valid.
-     * @throws IllegalArgumentException    If the check-out date is not valid.
-     * @throws RoomNotAvailableException   If the room is not available.
+     * @param requestDto the group reservation request DTO
+     * @return the created reservations, with their rooms
+     * @throws InvalidCheckInDateException  if the check-in date is not valid
+     * @throws InvalidCheckOutDateException if the check-out date is not valid
+     * @throws InvalidReservationException  if the stay is too long or the group asks for too many rooms
+     * @throws RoomNotAvailableException    if there are not enough available rooms of one of the requested types
      */
+    @Override
+    @Transactional
+    public GroupReservationResponseDto placeGroupReservation(GroupReservationDTO requestDto) {
+        LocalDate checkIn = requestDto.getCheckInDate();
+        LocalDate checkOut = requestDto.getCheckOutDate();
+        bookingRules.validateStay(checkIn, checkOut);
+        Map<RoomType, Integer> quantities = new EnumMap<>(RoomType.class);
+        requestDto.getRooms().forEach(rooms -> quantities.merge(rooms.getRoomType(), rooms.getQuantity(), Integer::sum));
+        int numOfRooms = quantities.values().stream().mapToInt(Integer::intValue).sum();
+        if (numOfRooms > MAX_GROUP_ROOMS) {
+            throw new InvalidReservationException("A group reservation cannot have more than " + MAX_GROUP_ROOMS + " rooms");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<String> roomTypes = quantities.keySet().stream().map(RoomType::name).collect(Collectors.toList());
+        List<Room> availableRooms = roomRepository.lockAvailableRooms(HotelContext.getHotelId(), roomTypes, checkIn,
+                checkOut, now);
+        List<Room> allocatedRooms = new ArrayList<>(numOfRooms);
+        quantities.forEach((roomType, quantity) -> {
+            List<Room> rooms = availableRooms.stream()
+                    .filter(availableRoom -> availableRoom.getRoomType() == roomType)
+                    .limit(quantity)
+                    .collect(Collectors.toList());
+            if (rooms.size() < quantity) {
+                throw new RoomNotAvailableException("Only " + rooms.size() + " " + roomType + " rooms are available for these dates");
+            }
+            allocatedRooms.addAll(rooms);
+        });
+
+        List<Reservation> reservations;
+        try {
+            reservations = reservationRepository.insertForRooms(allocatedRooms, requestDto.getGuestName(), checkIn,
+                    checkOut, now);
+        } catch (DataIntegrityViolationException e) {
+            throw bookingConflict(e);
+        }
+        List<Long> roomIds = allocatedRooms.stream().map(Room::getId).collect(Collectors.toList());
+        occupancyRepository.addStays(roomIds, checkIn, checkOut, 1);
+        roomNightsRepository.occupyRooms(roomIds, checkIn, checkOut);
+        reservations.forEach(reservation -> publishChange(ReservationChangedEvent.Type.BOOKED, reservation));
+        return GroupReservationResponseDto.builder()
+                .guestName(requestDto.getGuestName())
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .reservations(reservations.stream()
+                        .map(reservation -> GroupReservationResponseDto.Allocation.builder()
+                                .reservationId(reservation.getId())
+                                .roomId(reservation.getRoom().getId())
+                                .roomType(reservation.getRoom().getRoomType())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
 
+    /**
+     * Modifies an existing reservation of the current hotel with the given ID, using the reservation request DTO.
+     * <p>
+     * The room of the reservation is locked first, and the reservation is then checked and updated with a single
+     * conditional statement, which also moves its stay in the daily occupancy, and its stay is then moved in the
+     * occupied nights of the room. Only when the statement matches no reservation is the reservation read again to
+     * find out why.
+     * The nights the reservation no longer uses are offered to the waitlist once the modification is committed.
+     *
+     * @param id              The ID of the reservation to modify.
+     * @param requestDto      The reservation request DTO.
+     * @param expectedVersion The version the client read (from the If-Match header), or null to skip the check.
+     * @return The modified reservation.
+     * @throws InvalidReservationException          If the range of dates provided is the same as the existing reservation.
+     * @throws InvalidCheckInDateException          If the check-in date is not valid.
+     * @throws IllegalArgumentException             If the check-out date is not valid.
+     * @throws RoomNotAvailableException            If the room is not available.
+     * @throws ReservationVersionMismatchException If the reservation does not have the expected version.
+     * @throws ReservationConflictException         If the reservation was changed concurrently.
+     */
     @Override
-    public ReservationDTO modifyReservation(Long id, ReservationDTO requestDto) {
+    @Transactional
+    public ReservationDTO modifyReservation(Long id, ReservationDTO requestDto, Long expectedVersion) {
+        BookingModifiedEvent event = new BookingModifiedEvent();
+        event.begin();
         LocalDate checkIn = requestDto.getCheckInDate();
         LocalDate checkOut = requestDto.getCheckOutDate();
-        String guestName = requestDto.getGuestName();
-        LocalDateTime modifiedAt = LocalDateTime.now();
-        Reservation reservationInDb = reservationRepository.findById(id).orElseThrow(() -> new RoomNotAvailableException("Room with id " + id + " not found."));
-        validateIsReservationIsCancelled(reservationInDb);
-        validateSameRangeDates(reservationInDb, checkIn, checkOut);
-        validateExistingReservation(checkIn, checkOut, reservationInDb.getId());
-
-        reservationInDb.setCheckInDate(checkIn);
-        reservationInDb.setCheckOutDate(checkOut);
-        reservationInDb.setGuestName(guestName);
-        reservationInDb.setModifiedAt(modifiedAt);
-        reservationInDb = reservationRepository.save(reservationInDb);
-
-        return mapper.map(reservationInDb, ReservationDTO.class);
+        bookingRules.validateStay(checkIn, checkOut);
+        Long hotelId = HotelContext.getHotelId();
+        // in its own statement, so the checks of the update see the holds placed while waiting for the lock
+        roomRepository.lockByReservation(hotelId, id);
+        Reservation reservation;
+        try {
+            reservation = reservationRepository.modifyIfAvailable(hotelId, id, expectedVersion,
+                            requestDto.getGuestName(), checkIn, checkOut, LocalDateTime.now())
+                    .orElseThrow(() -> modificationRejected(hotelId, id, expectedVersion, checkIn, checkOut));
+        } catch (DataIntegrityViolationException e) {
+            throw bookingConflict(e);
+        }
+        roomNightsRepository.move(reservation.getRoom().getId(), reservation.getPreviousCheckInDate(),
+                reservation.getPreviousCheckOutDate(), checkIn, checkOut);
+        publishChange(ReservationChangedEvent.Type.MODIFIED, reservation);
+        if (reservation.getPreviousCheckInDate().isBefore(checkIn)
+                || reservation.getPreviousCheckOutDate().isAfter(checkOut)) {
+            eventPublisher.publishEvent(new StayReleasedEvent(hotelId, reservation.getRoom().getId(),
+                    reservation.getPreviousCheckInDate(), reservation.getPreviousCheckOutDate()));
+        }
+        event.commitReservation(reservation);
+        return mapper.map(reservation, ReservationDTO.class);
     }
 
     /**
-     * Cancels a reservation with the specified ID.
+     * Cancels a reservation of the current hotel with the given ID.
      * If the reservation is already cancelled, throws a ReservationAlreadyCancelledException.
-     * If no reservation is found with the given ID, throws a RoomNotAvailableException.
+     * If no reservation is found with the given ID, throws a RoomNotAvailableException, unless the reservation
+     * was cancelled and has been moved to the archive since.
+     * <p>
+     * As in {@link #modifyReservation(Long, ReservationDTO, Long)}, the room is locked first and the reservation is
+     * cancelled with a single conditional statement, and its nights are offered to the waitlist once the cancellation is committed.
      *
-     * @param id the ID of the reservation to cancel
+     * @param id              the ID of the reservation to cancel
+     * @param expectedVersion the version the client read (from the If-Match header), or null to skip the check
      * @return a ModifyResponseDto containing a success message
      * @throws ReservationAlreadyCancelledException if the reservation was already cancelled
      * @throws RoomNotAvailableException            if no reservation was found with the given ID
+     * @throws ReservationVersionMismatchException  if the reservation does not have the expected version
+     * @throws ReservationConflictException         if the reservation was changed concurrently
      */
     @Override
-    public ModifyResponseDto cancelReservation(Long id) {
-        LocalDateTime modifiedAt = LocalDateTime.now();
-        Reservation reservationInDb = reservationRepository.findById(id).orElseThrow(() -> new RoomNotAvailableException("Reservation with id " + id + " not found."));
-        if (reservationInDb.getCancelled()) {
-            throw new ReservationAlreadyCancelledException("Reservation with id " + id + " was already cancelled");
-        }
-        reservationInDb.setCancelled(true);
-        reservationInDb.setModifiedAt(modifiedAt);
-        reservationRepository.save(reservationInDb);
+    @Transactional
+    public ModifyResponseDto cancelReservation(Long id, Long expectedVersion) {
+        BookingCancelledEvent event = new BookingCancelledEvent();
+        event.begin();
+        Long hotelId = HotelContext.getHotelId();
+        roomRepository.lockByReservation(hotelId, id);
+        Reservation reservation = reservationRepository.cancelIfActive(hotelId, id, expectedVersion,
+                        LocalDateTime.now())
+                .orElseThrow(() -> cancellationRejected(hotelId, id, expectedVersion));
+        roomNightsRepository.release(reservation.getRoom().getId(), reservation.getCheckInDate(),
+                reservation.getCheckOutDate());
+        publishChange(ReservationChangedEvent.Type.CANCELLED, reservation);
+        eventPublisher.publishEvent(new StayReleasedEvent(hotelId, reservation.getRoom().getId(),
+                reservation.getCheckInDate(), reservation.getCheckOutDate()));
+        event.commitReservation(reservation);
         return ModifyResponseDto.builder()
                 .message("Reservation cancelled successfully.")
                 .build();
     }
 
     /**
-     * Checks the availability of a room for a given check-in and check-out date range.
+     * Places a temporary hold on the room of the current hotel for the given dates. While the hold is active it blocks
+     * the dates exactly like a reservation does, until it is confirmed, released or its TTL expires.
+     *
+     * @param requestDto the reservation request DTO
+     * @return the hold, including its ID and expiry time
+     * @throws InvalidCheckInDateException  if the check-in date is not valid
+     * @throws InvalidCheckOutDateException if the check-out date is not valid
+     * @throws RoomNotAvailableException    if the room is already booked or held for these dates
+     */
+    @Override
+    @Transactional
+    public HoldDTO placeHold(ReservationDTO requestDto) {
+        LocalDate checkIn = requestDto.getCheckInDate();
+        LocalDate checkOut = requestDto.getCheckOutDate();
+        Room room = currentRoom();
+        roomRepository.lockById(room.getId());
+        validateReservation(room, checkIn, checkOut);
+        LocalDateTime now = LocalDateTime.now();
+        ReservationHold hold = ReservationHold.builder()
+                .hotelId(room.getHotelId())
+                .guestName(requestDto.getGuestName())
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .createdAt(now)
+                .expiresAt(now.plusMinutes(HOLD_TTL_MINUTES))
+                .room(room)
+                .build();
+        hold = holdRepository.save(hold);
+        return mapper.map(hold, HoldDTO.class);
+    }
+
+    /**
+     * Turns an active hold into a reservation. The dates are not checked for availability again because the
+     * hold has been blocking them since it was placed.
+     *
+     * @param holdId the ID of the hold to confirm
+     * @return the newly created reservation
+     * @throws HoldExpiredException      if the hold does not exist or has already expired
+     * @throws RoomNotAvailableException if a concurrent modification moved another reservation onto the held dates
+     */
+    @Override
+    @Transactional
+    public ReservationDTO confirmHold(Long holdId) {
+        BookingPlacedEvent event = new BookingPlacedEvent();
+        event.begin();
+        LocalDateTime now = LocalDateTime.now();
+        ReservationHold hold = holdRepository.findByIdAndHotelIdAndExpiresAtAfter(holdId, HotelContext.getHotelId(), now)
+                .orElseThrow(() -> new HoldExpiredException("Hold with id " + holdId + " not found or expired."));
+        roomRepository.lockById(hold.getRoom().getId());
+        Reservation reservation = Reservation.builder()
+                .hotelId(hold.getHotelId())
+                .guestName(hold.getGuestName())
+                .checkInDate(hold.getCheckInDate())
+                .checkOutDate(hold.getCheckOutDate())
+                .cancelled(false)
+                .createdAt(now)
+                .modifiedAt(now)
+                .room(hold.getRoom())
+                .build();
+        reservation = saveReservation(reservation);
+        holdRepository.delete(hold);
+        occupancyRepository.addStay(hold.getRoom().getId(), hold.getCheckInDate(), hold.getCheckOutDate(), 1);
+        roomNightsRepository.occupy(hold.getRoom().getId(), hold.getCheckInDate(), hold.getCheckOutDate());
+        publishChange(ReservationChangedEvent.Type.BOOKED, reservation);
+        event.commitReservation(reservation);
+        return mapper.map(reservation, ReservationDTO.class);
+    }
+
+    /**
+     * Releases an active hold so its dates become available again before the TTL expires.
+     *
+     * @param holdId the ID of the hold to release
+     * @return a ModifyResponseDto containing a success message
+     * @throws HoldExpiredException if the hold does not exist or has already expired
+     */
+    @Override
+    public ModifyResponseDto releaseHold(Long holdId) {
+        ReservationHold hold = holdRepository.findByIdAndHotelIdAndExpiresAtAfter(holdId, HotelContext.getHotelId(),
+                        LocalDateTime.now())
+                .orElseThrow(() -> new HoldExpiredException("Hold with id " + holdId + " not found or expired."));
+        holdRepository.delete(hold);
+        eventPublisher.publishEvent(new StayReleasedEvent(hold.getHotelId(), hold.getRoom().getId(),
+                hold.getCheckInDate(), hold.getCheckOutDate()));
+        return ModifyResponseDto.builder()
+                .message("Hold released successfully.")
+                .build();
+    }
+
+    /**
+     * Checks the availability of the room of the current hotel for a given check-in and check-out date range. While
+     * the database is slow or unreachable, the availability is answered from the latest snapshot and marked as stale.
      *
      * @param checkIn  The check-in date of the reservation.
      * @param checkOut The check-out date of the reservation.
@@ -137,7 +441,20 @@ public class ReservationServiceImpl implements ReservationService {
      */
     @Override
     public ResponseDto checkRoomAvailability(LocalDate checkIn, LocalDate checkOut) {
-        validateReservation(checkIn, checkOut);
+        return degradedAvailability.checkRoomAvailability(HotelContext.getHotelId(), checkIn, checkOut,
+                () -> checkRoomAvailabilityInDatabase(checkIn, checkOut));
+    }
+
+    private ResponseDto checkRoomAvailabilityInDatabase(LocalDate checkIn, LocalDate checkOut) {
+        AvailabilityQueryEvent event = new AvailabilityQueryEvent();
+        event.begin();
+        Room room = currentRoom();
+        try {
+            validateReservation(room, checkIn, checkOut);
+            event.setAvailable(true);
+        } finally {
+            event.commitStay(room.getHotelId(), room.getId(), checkIn, checkOut);
+        }
         return ResponseDto.builder()
                 .checkInDate(checkIn)
                 .checkOutDate(checkOut)
@@ -147,118 +464,183 @@ public class ReservationServiceImpl implements ReservationService {
     }
 
     /**
-     * Validates the reservation by checking if the check-in and check-out dates are valid and available for the room.
+     * Inserts a single reservation.
      *
-     * @param checkIn  the check-in date of the reservation
-     * @param checkOut the check-out date of the reservation
-     * @throws InvalidCheckInDateException  if the check-in date is invalid
-     * @throws InvalidCheckOutDateException if the check-out date is invalid
-     * @throws InvalidReservationException  if the reservation is invalid for any reason
-     * @throws RoomNotAvailableException    if the room is not available for the reservation dates
+     * @throws RoomNotAvailableException if a concurrent booking of the room for overlapping dates committed first
+     */
+    private Reservation saveReservation(Reservation reservation) {
+        try {
+            return reservationRepository.save(reservation);
+        } catch (DataIntegrityViolationException e) {
+            throw bookingConflict(e);
+        }
+    }
+
+    /**
+     * Publishes the change of a reservation, which is dispatched to the notification sinks once the transaction has
+     * committed.
      */
-    private void validateReservation(LocalDate checkIn, LocalDate checkOut) {
-        validateCheckInDate(checkIn);
-        validateCheckOutDate(checkIn, checkOut);
-        validateMaxStayDays(checkIn, checkOut);
-        validateRoomAvailability(checkIn, checkOut);
+    private void publishChange(ReservationChangedEvent.Type type, Reservation reservation) {
+        eventPublisher.publishEvent(ReservationChangedEvent.builder()
+                .type(type)
+                .reservationId(reservation.getId())
+                .version(reservation.getVersion() == null ? 0L : reservation.getVersion())
+                .hotelId(reservation.getHotelId())
+                .roomId(reservation.getRoom().getId())
+                .guestName(reservation.getGuestName())
+                .checkInDate(reservation.getCheckInDate())
+                .checkOutDate(reservation.getCheckOutDate())
+                .occurredAt(reservation.getModifiedAt())
+                .build());
     }
 
     /**
-     * Validates that a reservation with the given check-in and check-out dates and reservation ID does not violate any business rules, including check-in and check-out date validity, maximum stay duration, and existing reservation conflicts for the room.
+     * Builds the exception for a write rejected by the database. The availability checks run before every write, so
+     * the overlap constraint only rejects a write when a concurrent booking of the same room and dates committed in
+     * between; that case is reported like a failed availability check.
      *
-     * @param checkIn       the check-in date of the reservation to be validated
-     * @param checkOut      the check-out date of the reservation to be validated
-     * @param reservationId the ID of the reservation to be validated, if it exists
-     * @throws InvalidCheckInDateException  if the check-in date is invalid (i.e., before the current date plus one day or more than the maximum advance booking days in the future)
-     * @throws InvalidCheckOutDateException if the check-out date is invalid (i.e., before the check-in date)
-     * @throws InvalidReservationException  if the stay duration is longer than the maximum stay days or if the range of dates is the same as an existing reservation
-     * @throws RoomNotAvailableException    if there is already an existing reservation for the given room during the specified check-in and check-out dates, except for the reservation with the given ID (if it exists)
+     * @return a RoomNotAvailableException for an overlap, the given exception otherwise
      */
-    private void validateExistingReservation(LocalDate checkIn, LocalDate checkOut, Long reservationId) {
-        validateCheckInDate(checkIn);
-        validateCheckOutDate(checkIn, checkOut);
-        validateMaxStayDays(checkIn, checkOut);
-        validateRoomAvailabilityExistingReservation(checkIn, checkOut, reservationId);
+    private static RuntimeException bookingConflict(DataIntegrityViolationException e) {
+        Throwable cause = e.getMostSpecificCause();
+        if (cause instanceof SQLException && EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState())) {
+            return new RoomNotAvailableException("The room is already booked for this dates");
+        }
+        return e;
     }
 
-    private void validateIsReservationIsCancelled(Reservation reservation) {
-        boolean isReservationCancelled = reservation.getCancelled();
-        Long id = reservation.getId();
-        if (isReservationCancelled) {
-            throw new ReservationAlreadyCancelledException("Reservation with id " + id + " was already cancelled. You can't modify it!");
+    /**
+     * Finds the room booked by the single-room operations of the current hotel. The room of each hotel is looked up
+     * once and then kept in memory, so resolving it costs no query on the booking path.
+     *
+     * @return the first room of the current hotel
+     * @throws RoomNotAvailableException if the hotel has no room
+     */
+    private Room currentRoom() {
+        Long hotelId = HotelContext.getHotelId();
+        Room room = hotelRooms.get(hotelId);
+        if (room == null) {
+            room = roomRepository.findFirstByHotelIdOrderByIdAsc(hotelId)
+                    .orElseThrow(() -> new RoomNotAvailableException("Hotel with id " + hotelId + " has no rooms."));
+            hotelRooms.putIfAbsent(hotelId, room);
         }
+        return room;
     }
 
     /**
-     * Validates if the provided reservation has the same check-in and check-out dates as the given dates.
-     * If the dates are the same, throws an InvalidReservationException with a message indicating that a different range of dates should be provided.
+     * Validates the reservation by checking if the check-in and check-out dates are valid and available for the room.
      *
-     * @param reservation the reservation to check against
-     * @param checkIn     the proposed check-in date
-     * @param checkOut    the proposed check-out date
-     * @throws InvalidReservationException if the range of dates is the same as the provided reservation
+     * @param room     the room of the reservation
+     * @param checkIn  the check-in date of the reservation
+     * @param checkOut the check-out date of the reservation
+     * @throws InvalidCheckInDateException  if the check-in date is invalid
+     * @throws InvalidCheckOutDateException if the check-out date is invalid
+     * @throws InvalidReservationException  if the reservation is invalid for any reason
+     * @throws RoomNotAvailableException    if the room is not available for the reservation dates
      */
-    private void validateSameRangeDates(Reservation reservation, LocalDate checkIn, LocalDate checkOut) {
-        if (reservation.getCheckInDate().equals(checkIn) && reservation.getCheckOutDate().equals(checkOut)) {
-            throw new InvalidReservationException("The range of dates is the same. You have to provided a different range of dates");
+    private void validateReservation(Room room, LocalDate checkIn, LocalDate checkOut) {
+        Span span = tracer.spanBuilder("ReservationServiceImpl.validateReservation").startSpan();
+        try (Scope scope = span.makeCurrent()) {
+            bookingRules.validateStay(checkIn, checkOut);
+            validateRoomAvailability(room, checkIn, checkOut);
+        } catch (RuntimeException e) {
+            span.setStatus(StatusCode.ERROR, e.getMessage());
+            throw e;
+        } finally {
+            span.end();
         }
+    }
+
+    private static ReservationSummaryDto toSummary(ReservationRepository.ReservationRow row) {
+        return new ReservationSummaryDto(row.getId(), row.getGuestName(), row.getCheckInDate(), row.getCheckOutDate(),
+                row.getCreatedAt(), row.getModifiedAt(), row.getCancelled(), row.getVersion(), row.getRoomId(),
+                row.getNumberOfBeds(), row.getRoomType());
+    }
 
+    private static String escapeLikeWildcards(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
     }
 
     /**
-     * Validates that the check-in date is within the acceptable range of dates.
+     * Builds the exception for a modification whose conditional update matched no reservation, by reading the
+     * reservation again and applying the checks the update made in the same order.
      *
-     * @param checkIn The check-in date to be validated.
-     * @throws InvalidCheckInDateException if the check-in date is before the minimum check-in date or after the maximum check-in date.
+     * @return the exception explaining why the modification was rejected, or a ReservationConflictException if the
+     * reservation now passes all of the checks because it changed in between
      */
-    private void validateCheckInDate(LocalDate checkIn) {
-        LocalDate today = LocalDate.now();
-        LocalDate minCheckIn = today.plusDays(1);
-        LocalDate maxCheckIn = today.plusDays(MAX_ADVANCE_BOOKING_DAYS);
-
-        if (checkIn.isBefore(minCheckIn)) {
-            throw new InvalidCheckInDateException("Check-in date should be a date after " + minCheckIn);
-        }
-        if (checkIn.isAfter(maxCheckIn)) {
-            throw new InvalidCheckInDateException("Check-in date should be within the next " + MAX_ADVANCE_BOOKING_DAYS + " days");
-        }
+    private RuntimeException modificationRejected(Long hotelId, Long id, Long expectedVersion, LocalDate checkIn,
+                                                  LocalDate checkOut) {
+        Reservation reservation = reservationRepository.findByIdAndHotelId(id, hotelId)
+                .orElseThrow(() -> new RoomNotAvailableException("Room with id " + id + " not found."));
+        validateVersion(reservation, expectedVersion);
+        validateIsReservationIsCancelled(reservation);
+        bookingRules.validateDifferentDates(reservation.getCheckInDate(), reservation.getCheckOutDate(), checkIn,
+                checkOut);
+        validateRoomAvailabilityExistingReservation(reservation.getRoom(), checkIn, checkOut, id);
+        return concurrentChange(id);
     }
 
     /**
-     * Validates if the check-out date is after the check-in date.
+     * Builds the exception for a cancellation whose conditional update matched no reservation.
      *
-     * @param checkIn  The check-in date of the reservation
-     * @param checkOut The check-out date of the reservation
-     * @throws InvalidCheckOutDateException If the check-out date is before the check-in date
+     * @return the exception explaining why the cancellation was rejected
      */
-    private void validateCheckOutDate(LocalDate checkIn, LocalDate checkOut) {
-        if (checkOut.isBefore(checkIn)) {
-            throw new InvalidCheckOutDateException("Check-out date should be a date after check-in date");
+    private RuntimeException cancellationRejected(Long hotelId, Long id, Long expectedVersion) {
+        Reservation reservation = reservationRepository.findByIdAndHotelId(id, hotelId)
+                .orElseThrow(() -> reservationNotFound(hotelId, id));
+        validateVersion(reservation, expectedVersion);
+        if (reservation.getCancelled()) {
+            return new ReservationAlreadyCancelledException("Reservation with id " + id + " was already cancelled");
+        }
+        return concurrentChange(id);
+    }
+
+    private void validateVersion(Reservation reservation, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(reservation.getVersion())) {
+            throw new ReservationVersionMismatchException("Reservation with id " + reservation.getId() + " has been modified since version " + expectedVersion);
         }
     }
 
+    private static ReservationConflictException concurrentChange(Long id) {
+        return new ReservationConflictException("Reservation with id " + id + " is being modified concurrently. Please try again");
+    }
+
     /**
-     * Validates if the stay duration between the check-in and check-out dates is not longer than the maximum allowed stay days.
+     * Builds the exception for a reservation that is not in the reservation table. Cancelled reservations are moved to
+     * the archive by the archiver, so those are still reported as already cancelled.
      *
-     * @param checkIn  The check-in date of the reservation.
-     * @param checkOut The check-out date of the reservation.
-     * @throws InvalidReservationException if the stay duration is longer than the maximum allowed stay days.
+     * @param hotelId the ID of the hotel of the reservation
+     * @param id      the ID of the reservation
+     * @return a ReservationAlreadyCancelledException if the reservation was archived as cancelled, a
+     * RoomNotAvailableException otherwise
      */
-    private void validateMaxStayDays(LocalDate checkIn, LocalDate checkOut) {
-        if (checkIn.plusDays(MAX_STAY_DAYS - 1).isBefore(checkOut)) {
-            throw new InvalidReservationException("Stay cannot be longer than " + MAX_STAY_DAYS + " days");
+    private RuntimeException reservationNotFound(Long hotelId, Long id) {
+        if (archiveRepository.existsByIdAndHotelIdAndCancelledTrue(id, hotelId)) {
+            return new ReservationAlreadyCancelledException("Reservation with id " + id + " was already cancelled");
+        }
+        return new RoomNotAvailableException("Reservation with id " + id + " not found.");
+    }
+
+    private void validateIsReservationIsCancelled(Reservation reservation) {
+        boolean isReservationCancelled = reservation.getCancelled();
+        Long id = reservation.getId();
+        if (isReservationCancelled) {
+            throw new ReservationAlreadyCancelledException("Reservation with id " + id + " was already cancelled. You can't modify it!");
         }
     }
 
     /**
      * Validates the availability of the room for the given check-in and check-out dates.
      *
+     * @param room     the room.
      * @param checkIn  the check-in date.
      * @param checkOut the check-out date.
      * @throws RoomNotAvailableException if the room is not available for the given dates.
      */
-    private void validateRoomAvailability(LocalDate checkIn, LocalDate checkOut) {
-        if (!isRoomAvailable(checkIn, checkOut)) {
+    private void validateRoomAvailability(Room room, LocalDate checkIn, LocalDate checkOut) {
+        if (!isRoomAvailable(room, checkIn, checkOut)) {
             throw new RoomNotAvailableException("The room is already booked for this dates");
         }
     }
@@ -268,28 +650,64 @@ public class ReservationServiceImpl implements ReservationService {
      * If a reservation already exists for the room and the dates overlap with the given check-in and check-out dates,
      * a RoomNotAvailableException will be thrown.
      *
+     * @param room          the room
      * @param checkIn       the check-in date
      * @param checkOut      the check-out date
      * @param reservationId the ID of the current reservation (to be excluded from the check)
      * @throws RoomNotAvailableException if the room is not available for the given dates
      */
-    private void validateRoomAvailabilityExistingReservation(LocalDate checkIn, LocalDate checkOut, Long reservationId) {
-        List<Reservation> reservations = reservationRepository.findByRoomIdAndDatesOverlap(room, checkIn, checkOut, reservationId);
+    private void validateRoomAvailabilityExistingReservation(Room room, LocalDate checkIn, LocalDate checkOut,
+                                                             Long reservationId) {
+        OverlapQueryEvent event = new OverlapQueryEvent("reservation");
+        event.begin();
+        List<Reservation> reservations = reservationRepository.findByRoomIdAndDatesOverlap(room.getHotelId(), room,
+                checkIn, checkOut, reservationId);
+        event.setMatches(reservations.size());
+        event.commitStay(room.getHotelId(), room.getId(), checkIn, checkOut);
         if (!reservations.isEmpty()) {
-            reservations.forEach(System.out::println);
+            if (log.isDebugEnabled()) {
+                log.debug("Room {} is already booked from {} to {} by reservations {}", room.getId(), checkIn, checkOut,
+                        reservations.stream().map(Reservation::getId).collect(Collectors.toList()));
+            }
+            throw new RoomNotAvailableException("The room is already booked for this dates");
+        }
+        if (isRoomHeld(room, checkIn, checkOut)) {
             throw new RoomNotAvailableException("The room is already booked for this dates");
         }
     }
 
     /**
-     * Checks if the room is available for the given dates.
+     * Checks if the room is available for the given dates, taking active holds into account. The reservations are
+     * checked against the occupied nights of the room, which reads a single row per month of the stay.
      *
+     * @param room     the room
      * @param checkIn  the check-in date
      * @param checkOut the check-out date
      * @return true if the room is available
      */
-    private boolean isRoomAvailable(LocalDate checkIn, LocalDate checkOut) {
-        int numOfReservations = reservationRepository.countByRoomIdAndDatesOverlap(room, checkIn, checkOut);
-        return numOfReservations == 0;
+    private boolean isRoomAvailable(Room room, LocalDate checkIn, LocalDate checkOut) {
+        OverlapQueryEvent event = new OverlapQueryEvent("room_nights");
+        event.begin();
+        boolean occupied = roomNightsRepository.existsOccupiedNight(room.getId(), checkIn, checkOut);
+        event.setMatches(occupied ? 1 : 0);
+        event.commitStay(room.getHotelId(), room.getId(), checkIn, checkOut);
+        return !occupied && !isRoomHeld(room, checkIn, checkOut);
+    }
+
+    /**
+     * Checks if an active hold blocks the room for the given dates.
+     *
+     * @param room     the room
+     * @param checkIn  the check-in date
+     * @param checkOut the check-out date
+     * @return true if there is at least one active hold overlapping the dates
+     */
+    private boolean isRoomHeld(Room room, LocalDate checkIn, LocalDate checkOut) {
+        OverlapQueryEvent event = new OverlapQueryEvent("reservation_hold");
+        event.begin();
+        int numOfHolds = holdRepository.countByRoomIdAndDatesOverlap(room, checkIn, checkOut, LocalDateTime.now());
+        event.setMatches(numOfHolds);
+        event.commitStay(room.getHotelId(), room.getId(), checkIn, checkOut);
+        return numOfHolds > 0;
     }
 }
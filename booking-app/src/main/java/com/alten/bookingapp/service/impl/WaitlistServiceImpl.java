@@ -0,0 +1,200 @@
+package com.alten.bookingapp.service.impl;
+
+import com.alten.bookingapp.config.HotelContext;
+import com.alten.bookingapp.event.ReservationChangedEvent;
+import com.alten.bookingapp.event.StayReleasedEvent;
+import com.alten.bookingapp.exception.WaitlistEntryNotFoundException;
+import com.alten.bookingapp.model.dto.ModifyResponseDto;
+import com.alten.bookingapp.model.dto.ReservationDTO;
+import com.alten.bookingapp.model.dto.WaitlistDTO;
+import com.alten.bookingapp.model.entities.Reservation;
+import com.alten.bookingapp.model.entities.Room;
+import com.alten.bookingapp.model.entities.WaitlistEntry;
+import com.alten.bookingapp.repository.DailyOccupancyRepository;
+import com.alten.bookingapp.repository.ReservationHoldRepository;
+import com.alten.bookingapp.repository.ReservationRepository;
+import com.alten.bookingapp.repository.RoomNightsRepository;
+import com.alten.bookingapp.repository.RoomRepository;
+import com.alten.bookingapp.repository.WaitlistRepository;
+import com.alten.bookingapp.service.WaitlistService;
+import com.alten.bookingcore.BookingRules;
+import com.alten.bookingcore.exception.*;
+import org.modelmapper.ModelMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Queues the guests who want dates of a room that are already booked, and books the dates for them as soon as they
+ * are freed, instead of having the guests poll the availability.
+ * <p>
+ * Every change that frees nights publishes a {@link StayReleasedEvent}. Once that change has committed, the
+ * {@link com.alten.bookingapp.job.WaitlistMatcher} looks up the waiting entries of the room overlapping the freed
+ * nights with a single indexed query, and books them in the order they joined as long as their dates are still
+ * available.
+ */
+@Service
+@Profile("!edge")
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistServiceImpl.class);
+
+    private final ModelMapper mapper;
+    private final BookingRules bookingRules;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final WaitlistRepository waitlistRepository;
+    private final ReservationRepository reservationRepository;
+    private final ReservationHoldRepository holdRepository;
+    private final DailyOccupancyRepository occupancyRepository;
+    private final RoomNightsRepository roomNightsRepository;
+    private final RoomRepository roomRepository;
+
+    public WaitlistServiceImpl(ModelMapper mapper, BookingRules bookingRules,
+                               ApplicationEventPublisher eventPublisher,
+                               WaitlistRepository waitlistRepository,
+                               ReservationRepository reservationRepository,
+                               ReservationHoldRepository holdRepository,
+                               DailyOccupancyRepository occupancyRepository,
+                               RoomNightsRepository roomNightsRepository,
+                               RoomRepository roomRepository) {
+        this.mapper = mapper;
+        this.bookingRules = bookingRules;
+        this.eventPublisher = eventPublisher;
+        this.waitlistRepository = waitlistRepository;
+        this.reservationRepository = reservationRepository;
+        this.holdRepository = holdRepository;
+        this.occupancyRepository = occupancyRepository;
+        this.roomNightsRepository = roomNightsRepository;
+        this.roomRepository = roomRepository;
+    }
+
+    /**
+     * Adds the requested stay in the room of the current hotel to the waitlist. If the room is available for these
+     * dates, it is booked right away and the entry is returned already fulfilled.
+     *
+     * @param requestDto the reservation request DTO
+     * @return the entry, with the ID of its reservation if it was booked
+     * @throws InvalidCheckInDateException  if the check-in date is not valid
+     * @throws InvalidCheckOutDateException if the check-out date is not valid
+     * @throws InvalidReservationException  if the stay is too long
+     * @throws RoomNotAvailableException    if the hotel has no room
+     */
+    @Override
+    @Transactional
+    public WaitlistDTO joinWaitlist(ReservationDTO requestDto) {
+        LocalDate checkIn = requestDto.getCheckInDate();
+        LocalDate checkOut = requestDto.getCheckOutDate();
+        bookingRules.validateStay(checkIn, checkOut);
+        Long hotelId = HotelContext.getHotelId();
+        Room room = roomRepository.findFirstByHotelIdOrderByIdAsc(hotelId)
+                .orElseThrow(() -> new RoomNotAvailableException("Hotel with id " + hotelId + " has no rooms."));
+        roomRepository.lockById(room.getId());
+        WaitlistEntry entry = WaitlistEntry.builder()
+                .hotelId(hotelId)
+                .guestName(requestDto.getGuestName())
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .createdAt(LocalDateTime.now())
+                .room(room)
+                .build();
+        if (isRoomAvailable(room, checkIn, checkOut)) {
+            book(entry);
+        }
+        return mapper.map(waitlistRepository.save(entry), WaitlistDTO.class);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public WaitlistDTO getWaitlistEntry(Long id) {
+        return mapper.map(findEntry(id), WaitlistDTO.class);
+    }
+
+    /**
+     * Removes an entry of the current hotel from the waitlist. Leaving the waitlist does not cancel the reservation
+     * of a fulfilled entry.
+     *
+     * @throws WaitlistEntryNotFoundException if the entry does not exist
+     */
+    @Override
+    @Transactional
+    public ModifyResponseDto leaveWaitlist(Long id) {
+        waitlistRepository.delete(findEntry(id));
+        return ModifyResponseDto.builder()
+                .message("Waitlist entry removed successfully.")
+                .build();
+    }
+
+    /**
+     * Books the freed nights for the waiting entries that overlap them, in the order the entries joined. The room is
+     * locked first, like every booking of the room does, and each entry is checked against the bookings made for the
+     * entries before it.
+     *
+     * @return the number of entries booked
+     */
+    @Override
+    @Transactional
+    public int fulfilWaitlist(StayReleasedEvent event) {
+        roomRepository.lockById(event.getRoomId());
+        List<WaitlistEntry> entries = waitlistRepository.lockWaitingOverlapping(event.getRoomId(),
+                event.getCheckInDate(), event.getCheckOutDate(), LocalDate.now());
+        int booked = 0;
+        for (WaitlistEntry entry : entries) {
+            if (isRoomAvailable(entry.getRoom(), entry.getCheckInDate(), entry.getCheckOutDate())) {
+                book(entry);
+                booked++;
+            }
+        }
+        if (booked > 0) {
+            log.info("Booked {} of {} waitlist entries of room {} for the nights freed from {} to {}", booked,
+                    entries.size(), event.getRoomId(), event.getCheckInDate(), event.getCheckOutDate());
+        }
+        return booked;
+    }
+
+    private void book(WaitlistEntry entry) {
+        LocalDateTime now = LocalDateTime.now();
+        Reservation reservation = reservationRepository.save(Reservation.builder()
+                .hotelId(entry.getHotelId())
+                .guestName(entry.getGuestName())
+                .checkInDate(entry.getCheckInDate())
+                .checkOutDate(entry.getCheckOutDate())
+                .cancelled(false)
+                .createdAt(now)
+                .modifiedAt(now)
+                .room(entry.getRoom())
+                .build());
+        occupancyRepository.addStay(entry.getRoom().getId(), entry.getCheckInDate(), entry.getCheckOutDate(), 1);
+        roomNightsRepository.occupy(entry.getRoom().getId(), entry.getCheckInDate(), entry.getCheckOutDate());
+        entry.setReservationId(reservation.getId());
+        entry.setFulfilledAt(now);
+        eventPublisher.publishEvent(ReservationChangedEvent.builder()
+                .type(ReservationChangedEvent.Type.BOOKED)
+                .reservationId(reservation.getId())
+                .version(0L)
+                .hotelId(entry.getHotelId())
+                .roomId(entry.getRoom().getId())
+                .guestName(entry.getGuestName())
+                .checkInDate(entry.getCheckInDate())
+                .checkOutDate(entry.getCheckOutDate())
+                .occurredAt(now)
+                .build());
+    }
+
+    private boolean isRoomAvailable(Room room, LocalDate checkIn, LocalDate checkOut) {
+        return !roomNightsRepository.existsOccupiedNight(room.getId(), checkIn, checkOut)
+                && holdRepository.countByRoomIdAndDatesOverlap(room, checkIn, checkOut, LocalDateTime.now()) == 0;
+    }
+
+    private WaitlistEntry findEntry(Long id) {
+        return waitlistRepository.findByIdAndHotelId(id, HotelContext.getHotelId())
+                .orElseThrow(() -> new WaitlistEntryNotFoundException("Waitlist entry with id " + id + " not found."));
+    }
+}
@@ -0,0 +1,73 @@
+package com.alten.bookingapp.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opens a span around every call to a service or a repository made within a sampled trace. Outside of a sampled
+ * trace, the calls go straight through, without creating a span.
+ */
+@Aspect
+@Component
+public class TracingAspect {
+
+    private final Tracer tracer;
+    private final Map<Class<?>, String> componentNames = new ConcurrentHashMap<>();
+
+    public TracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("execution(public * com.alten.bookingapp.service..*(..))")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, SpanKind.INTERNAL);
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, SpanKind.CLIENT);
+    }
+
+    private Object trace(ProceedingJoinPoint joinPoint, SpanKind kind) throws Throwable {
+        if (!Span.current().isRecording()) {
+            return joinPoint.proceed();
+        }
+        String component = componentNames.computeIfAbsent(joinPoint.getThis().getClass(), TracingAspect::componentName);
+        Span span = tracer.spanBuilder(component + "." + joinPoint.getSignature().getName())
+                .setSpanKind(kind)
+                .startSpan();
+        try (Scope scope = span.makeCurrent()) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * @return the name of the repository interface behind a repository proxy, or the name of the class otherwise
+     */
+    private static String componentName(Class<?> type) {
+        for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(type)) {
+            if (Repository.class.isAssignableFrom(candidate) && candidate.getName().startsWith("com.alten.")) {
+                return candidate.getSimpleName();
+            }
+        }
+        return ClassUtils.getUserClass(type).getSimpleName();
+    }
+}
@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS public.reservation_hold (
+    id SERIAL PRIMARY KEY,
+    guest_name VARCHAR(255) NOT NULL,
+    check_in_date DATE NOT NULL,
+    check_out_date DATE NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    room_id BIGINT REFERENCES room(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_reservation_hold_room_dates ON reservation_hold (room_id, check_in_date, check_out_date);
+CREATE INDEX IF NOT EXISTS idx_reservation_hold_expires_at ON reservation_hold (expires_at);
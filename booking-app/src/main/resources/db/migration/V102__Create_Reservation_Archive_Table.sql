@@ -0,0 +1,16 @@
+CREATE TABLE IF NOT EXISTS public.reservation_archive (
+    id BIGINT PRIMARY KEY,
+    guest_name VARCHAR(255) NOT NULL,
+    check_in_date DATE NOT NULL,
+    check_out_date DATE NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    modified_at TIMESTAMP NOT NULL,
+    cancelled BOOLEAN NOT NULL,
+    room_id BIGINT REFERENCES room(id) ON DELETE CASCADE,
+    archived_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_reservation_archive_guest_name ON reservation_archive (lower(guest_name));
+
+CREATE INDEX IF NOT EXISTS idx_reservation_room_dates ON reservation (room_id, check_in_date, check_out_date);
+CREATE INDEX IF NOT EXISTS idx_reservation_closed ON reservation (check_out_date, cancelled);
@@ -0,0 +1,15 @@
+CREATE TABLE IF NOT EXISTS public.daily_occupancy (
+    day DATE NOT NULL,
+    room_type VARCHAR(255) NOT NULL,
+    occupied_rooms INTEGER NOT NULL,
+    PRIMARY KEY (day, room_type)
+);
+
+INSERT INTO daily_occupancy (day, room_type, occupied_rooms)
+SELECT d::date, rm.room_type, COUNT(*)
+FROM (SELECT room_id, check_in_date, check_out_date FROM reservation WHERE cancelled = false
+      UNION ALL
+      SELECT room_id, check_in_date, check_out_date FROM reservation_archive WHERE cancelled = false) r
+JOIN room rm ON rm.id = r.room_id
+CROSS JOIN LATERAL generate_series(r.check_in_date, r.check_out_date, interval '1 day') d
+GROUP BY d::date, rm.room_type;
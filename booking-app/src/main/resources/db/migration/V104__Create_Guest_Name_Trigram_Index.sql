@@ -0,0 +1,3 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_reservation_guest_name_trgm ON reservation USING gin (lower(guest_name) gin_trgm_ops);
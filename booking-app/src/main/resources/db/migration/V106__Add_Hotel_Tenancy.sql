@@ -0,0 +1,78 @@
+CREATE TABLE IF NOT EXISTS public.hotel (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL
+);
+
+-- The reservation table becomes a list-partitioned table with one partition per hotel, so the queries of a hotel,
+-- which all filter on hotel_id, only read its own partition and its own indexes.
+DROP INDEX IF EXISTS idx_reservation_room_dates;
+DROP INDEX IF EXISTS idx_reservation_closed;
+DROP INDEX IF EXISTS idx_reservation_guest_name_trgm;
+ALTER TABLE reservation DROP CONSTRAINT reservation_pkey;
+ALTER TABLE reservation RENAME TO reservation_unpartitioned;
+ALTER SEQUENCE reservation_id_seq OWNED BY NONE;
+ALTER TABLE reservation_unpartitioned ALTER COLUMN id DROP DEFAULT;
+
+CREATE TABLE public.reservation (
+    id BIGINT NOT NULL DEFAULT nextval('reservation_id_seq'),
+    hotel_id BIGINT NOT NULL REFERENCES hotel(id),
+    guest_name VARCHAR(255) NOT NULL,
+    check_in_date DATE NOT NULL,
+    check_out_date DATE NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    modified_at TIMESTAMP NOT NULL,
+    cancelled BOOLEAN NOT NULL,
+    room_id BIGINT REFERENCES room(id) ON DELETE CASCADE,
+    version BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (hotel_id, id)
+) PARTITION BY LIST (hotel_id);
+
+ALTER SEQUENCE reservation_id_seq OWNED BY reservation.id;
+
+-- Every new hotel gets its reservation partition as soon as it is inserted.
+CREATE OR REPLACE FUNCTION create_hotel_partition() RETURNS trigger AS $$
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF reservation FOR VALUES IN (%s)',
+                   'reservation_hotel_' || NEW.id, NEW.id);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER hotel_create_partition AFTER INSERT ON hotel
+    FOR EACH ROW EXECUTE FUNCTION create_hotel_partition();
+
+INSERT INTO hotel (id, name) VALUES (1, 'Alten hotel');
+SELECT setval(pg_get_serial_sequence('hotel', 'id'), (SELECT MAX(id) FROM hotel));
+
+ALTER TABLE room ADD COLUMN hotel_id BIGINT NOT NULL DEFAULT 1 REFERENCES hotel(id);
+ALTER TABLE room ALTER COLUMN hotel_id DROP DEFAULT;
+CREATE INDEX IF NOT EXISTS idx_room_hotel_type ON room (hotel_id, room_type);
+
+INSERT INTO reservation (id, hotel_id, guest_name, check_in_date, check_out_date, created_at, modified_at, cancelled,
+                         room_id, version)
+SELECT r.id, rm.hotel_id, r.guest_name, r.check_in_date, r.check_out_date, r.created_at, r.modified_at, r.cancelled,
+       r.room_id, r.version
+FROM reservation_unpartitioned r
+JOIN room rm ON rm.id = r.room_id;
+
+DROP TABLE reservation_unpartitioned;
+
+CREATE INDEX IF NOT EXISTS idx_reservation_room_dates ON reservation (room_id, check_in_date, check_out_date);
+CREATE INDEX IF NOT EXISTS idx_reservation_closed ON reservation (check_out_date, cancelled);
+CREATE INDEX IF NOT EXISTS idx_reservation_guest_name_trgm ON reservation USING gin (lower(guest_name) gin_trgm_ops);
+
+ALTER TABLE reservation_hold ADD COLUMN hotel_id BIGINT REFERENCES hotel(id);
+UPDATE reservation_hold h SET hotel_id = rm.hotel_id FROM room rm WHERE rm.id = h.room_id;
+ALTER TABLE reservation_hold ALTER COLUMN hotel_id SET NOT NULL;
+
+ALTER TABLE reservation_archive ADD COLUMN hotel_id BIGINT REFERENCES hotel(id);
+UPDATE reservation_archive a SET hotel_id = rm.hotel_id FROM room rm WHERE rm.id = a.room_id;
+ALTER TABLE reservation_archive ALTER COLUMN hotel_id SET NOT NULL;
+DROP INDEX IF EXISTS idx_reservation_archive_guest_name;
+CREATE INDEX IF NOT EXISTS idx_reservation_archive_guest_name ON reservation_archive (hotel_id, lower(guest_name));
+CREATE INDEX IF NOT EXISTS idx_reservation_archive_hotel ON reservation_archive (hotel_id, id);
+
+ALTER TABLE daily_occupancy ADD COLUMN hotel_id BIGINT NOT NULL DEFAULT 1 REFERENCES hotel(id);
+ALTER TABLE daily_occupancy ALTER COLUMN hotel_id DROP DEFAULT;
+ALTER TABLE daily_occupancy DROP CONSTRAINT daily_occupancy_pkey;
+ALTER TABLE daily_occupancy ADD PRIMARY KEY (hotel_id, day, room_type);
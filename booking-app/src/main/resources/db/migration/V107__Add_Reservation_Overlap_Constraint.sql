@@ -0,0 +1,31 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Two active reservations of the same room can never overlap, whatever the path that writes them and however they
+-- interleave. Dates are compared both ends included, as in the availability queries. The constraint is declared on
+-- each hotel partition, where the rooms of the hotel live.
+CREATE OR REPLACE FUNCTION add_reservation_overlap_constraint(partition_name TEXT) RETURNS void AS $$
+BEGIN
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING gist (room_id WITH =, '
+                   'daterange(check_in_date, check_out_date, ''[]'') WITH &&) WHERE (cancelled = false)',
+                   partition_name, partition_name || '_no_overlap');
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION create_hotel_partition() RETURNS trigger AS $$
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF reservation FOR VALUES IN (%s)',
+                   'reservation_hotel_' || NEW.id, NEW.id);
+    PERFORM add_reservation_overlap_constraint('reservation_hotel_' || NEW.id);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    hotel_row_id BIGINT;
+BEGIN
+    FOR hotel_row_id IN SELECT id FROM hotel LOOP
+        PERFORM add_reservation_overlap_constraint('reservation_hotel_' || hotel_row_id);
+    END LOOP;
+END;
+$$;
@@ -0,0 +1,16 @@
+CREATE TABLE IF NOT EXISTS public.reservation_waitlist (
+    id BIGSERIAL PRIMARY KEY,
+    hotel_id BIGINT NOT NULL REFERENCES hotel(id),
+    guest_name VARCHAR(255) NOT NULL,
+    check_in_date DATE NOT NULL,
+    check_out_date DATE NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    reservation_id BIGINT,
+    fulfilled_at TIMESTAMP,
+    room_id BIGINT REFERENCES room(id) ON DELETE CASCADE
+);
+
+-- Freeing the nights of a room only looks up the waiting entries of that room whose dates overlap the freed ones.
+CREATE INDEX IF NOT EXISTS idx_reservation_waitlist_waiting ON reservation_waitlist
+    USING gist (room_id, daterange(check_in_date, check_out_date, '[]')) WHERE reservation_id IS NULL;
+CREATE INDEX IF NOT EXISTS idx_reservation_waitlist_check_out ON reservation_waitlist (check_out_date);
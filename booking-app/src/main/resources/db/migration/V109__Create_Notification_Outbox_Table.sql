@@ -0,0 +1,12 @@
+-- Notifications that could not be delivered by the in-process dispatcher, kept until a sink accepts them.
+CREATE TABLE IF NOT EXISTS public.notification_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    sink VARCHAR(64) NOT NULL,
+    payload TEXT NOT NULL,
+    attempts INT NOT NULL,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL,
+    next_attempt_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_next_attempt ON notification_outbox (next_attempt_at);
@@ -0,0 +1,15 @@
+-- Append-only log of every change of the reservations, kept after the reservations are archived.
+CREATE TABLE IF NOT EXISTS public.reservation_change (
+    id BIGSERIAL PRIMARY KEY,
+    reservation_id BIGINT NOT NULL,
+    version BIGINT NOT NULL,
+    hotel_id BIGINT NOT NULL,
+    change_type VARCHAR(16) NOT NULL,
+    guest_name VARCHAR(255) NOT NULL,
+    check_in_date DATE NOT NULL,
+    check_out_date DATE NOT NULL,
+    room_id BIGINT NOT NULL,
+    changed_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_reservation_change_reservation ON reservation_change (reservation_id, version);
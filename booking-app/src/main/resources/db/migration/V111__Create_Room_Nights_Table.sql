@@ -0,0 +1,27 @@
+-- Nights occupied by the reservations of each room, one row per room and month with one bit per night: bit 0 is the
+-- first day of the month. As in the availability queries, a reservation occupies its room on every date from check-in
+-- to check-out, both included. Archiving a reservation leaves its nights occupied, as in the daily occupancy.
+CREATE TABLE IF NOT EXISTS public.room_nights (
+    room_id BIGINT NOT NULL REFERENCES room(id) ON DELETE CASCADE,
+    month_start DATE NOT NULL,
+    nights BIGINT NOT NULL,
+    PRIMARY KEY (room_id, month_start)
+);
+
+-- Bits of the nights of the month starting on month_start that a stay occupies, 0 if the stay is in another month.
+CREATE OR REPLACE FUNCTION stay_nights(month_start DATE, check_in DATE, check_out DATE) RETURNS BIGINT AS $$
+    SELECT CASE WHEN n.first_night > n.last_night THEN CAST(0 AS BIGINT)
+                ELSE ((CAST(1 AS BIGINT) << (n.last_night - n.first_night + 1)) - 1) << (n.first_night - 1) END
+    FROM (SELECT GREATEST(check_in, month_start) - month_start + 1 AS first_night,
+                 LEAST(check_out, CAST(month_start + interval '1 month' - interval '1 day' AS DATE)) - month_start + 1
+                     AS last_night) n
+$$ LANGUAGE sql IMMUTABLE;
+
+INSERT INTO room_nights (room_id, month_start, nights)
+SELECT r.room_id, CAST(m AS DATE), bit_or(stay_nights(CAST(m AS DATE), r.check_in_date, r.check_out_date))
+FROM (SELECT room_id, check_in_date, check_out_date FROM reservation WHERE cancelled = false
+      UNION ALL
+      SELECT room_id, check_in_date, check_out_date FROM reservation_archive WHERE cancelled = false) r
+CROSS JOIN LATERAL generate_series(date_trunc('month', r.check_in_date), date_trunc('month', r.check_out_date),
+                                   interval '1 month') m
+GROUP BY r.room_id, CAST(m AS DATE);
@@ -3,7 +3,7 @@ package com.alten.bookingapp;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "reservation.warmup.enabled=false")
 class BookingAppApplicationTests {
 
 	@Test
@@ -0,0 +1,68 @@
+package com.alten.bookingapp.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FreeStayFinderTest {
+
+    private static final LocalDate FROM = LocalDate.of(2023, 4, 28);
+
+    @Test
+    void findsEveryStartBetweenTheOccupiedNights() {
+        FreeStayFinder finder = new FreeStayFinder(FROM, FROM.plusDays(6), 2);
+        finder.addRoom(1L);
+        finder.occupy(1L, FROM.plusDays(2), FROM.plusDays(3));
+
+        List<FreeStayFinder.FreeStay> stays = finder.findStays();
+
+        assertEquals(List.of(
+                new FreeStayFinder.FreeStay(1L, FROM, FROM.plusDays(1), 0, 0),
+                new FreeStayFinder.FreeStay(1L, FROM.plusDays(4), FROM.plusDays(5), 0, 2),
+                new FreeStayFinder.FreeStay(1L, FROM.plusDays(5), FROM.plusDays(6), 1, 1),
+                new FreeStayFinder.FreeStay(1L, FROM.plusDays(6), FROM.plusDays(7), 2, 0)), stays);
+    }
+
+    @Test
+    void readsTheNightsOfEachMonth() {
+        FreeStayFinder finder = new FreeStayFinder(FROM, FROM.plusDays(6), 1);
+        finder.addRoom(1L);
+        finder.addRoom(2L);
+        // April 30th and May 2nd
+        finder.occupyMonth(1L, LocalDate.of(2023, 4, 1), 1L << 29);
+        finder.occupyMonth(1L, LocalDate.of(2023, 5, 1), 1L << 1);
+
+        List<LocalDate> firstRoom = finder.findStays().stream()
+                .filter(stay -> stay.getRoomId() == 1L)
+                .map(FreeStayFinder.FreeStay::getCheckInDate)
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(FROM, FROM.plusDays(1), FROM.plusDays(3), FROM.plusDays(5), FROM.plusDays(6)), firstRoom);
+        assertEquals(7, finder.findStays().stream().filter(stay -> stay.getRoomId() == 2L).count());
+    }
+
+    @Test
+    void ignoresTheStaysOfUnknownRooms() {
+        FreeStayFinder finder = new FreeStayFinder(FROM, FROM, 3);
+        finder.addRoom(1L);
+        finder.occupy(2L, FROM, FROM.plusDays(2));
+        finder.occupy(1L, FROM.plusDays(3), FROM.plusDays(10));
+
+        assertEquals(1, finder.findStays().size());
+    }
+
+    @Test
+    void findsNothingWhenNoRunIsLongEnough() {
+        FreeStayFinder finder = new FreeStayFinder(FROM, FROM.plusDays(4), 3);
+        finder.addRoom(1L);
+        finder.occupy(1L, FROM.plusDays(2), FROM.plusDays(2));
+        finder.occupy(1L, FROM.plusDays(5), FROM.plusDays(5));
+
+        assertTrue(finder.findStays().isEmpty());
+    }
+}
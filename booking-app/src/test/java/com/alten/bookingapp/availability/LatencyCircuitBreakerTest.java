@@ -0,0 +1,75 @@
+package com.alten.bookingapp.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyCircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final LatencyCircuitBreaker circuitBreaker = new LatencyCircuitBreaker(250, 0.5, 10, 4, 1000,
+            clock::get);
+
+    @Test
+    void staysClosedWhileMostCallsAreFast() {
+        for (int i = 0; i < 20; i++) {
+            assertTrue(circuitBreaker.tryAcquire());
+            circuitBreaker.record(i % 4 == 3 ? SLOW : FAST, false);
+        }
+
+        assertEquals(LatencyCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void opensWhenHalfTheCallsAreSlowOrFailed() {
+        recordCalls(FAST, FAST, SLOW);
+        assertEquals(LatencyCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        circuitBreaker.tryAcquire();
+        circuitBreaker.record(FAST, true);
+
+        assertEquals(LatencyCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void closesAfterAFastTrialCall() {
+        recordCalls(SLOW, SLOW, SLOW, SLOW);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+        assertTrue(circuitBreaker.tryAcquire());
+        assertFalse(circuitBreaker.tryAcquire());
+        circuitBreaker.record(FAST, false);
+
+        assertEquals(LatencyCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        recordCalls(SLOW, FAST, FAST, FAST);
+        assertEquals(LatencyCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void opensAgainAfterASlowTrialCall() {
+        recordCalls(SLOW, SLOW, SLOW, SLOW);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.record(SLOW, false);
+
+        assertEquals(LatencyCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    private void recordCalls(long... elapsedNanos) {
+        for (long elapsed : elapsedNanos) {
+            assertTrue(circuitBreaker.tryAcquire());
+            circuitBreaker.record(elapsed, false);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.alten.bookingapp.controller;
+
+import com.alten.bookingapp.config.HotelInterceptor;
+import com.alten.bookingapp.service.ReservationBulkService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ReservationAdminController.class)
+class ReservationAdminControllerTest {
+
+    private static final String ADMIN_API_PATH = "/api/v1/admin/reservations";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private ReservationBulkService bulkService;
+
+    @Test
+    void shouldExportTheReservationsOfTheRequestedHotel() throws Exception {
+        MvcResult result = mockMvc.perform(get(ADMIN_API_PATH + "/export")
+                        .header(HotelInterceptor.HOTEL_HEADER, "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+        verify(bulkService).exportReservations(eq(2L), any(OutputStream.class));
+    }
+}
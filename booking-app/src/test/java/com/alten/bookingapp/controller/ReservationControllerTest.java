@@ -1,10 +1,21 @@
 package com.alten.bookingapp.controller;
 
+import com.alten.bookingapp.config.CacheBypassFilter;
+import com.alten.bookingapp.config.HotelContext;
+import com.alten.bookingapp.config.HotelInterceptor;
 import com.alten.bookingapp.exception.*;
+import com.alten.bookingapp.model.dto.GroupReservationDTO;
+import com.alten.bookingapp.model.dto.GroupReservationResponseDto;
+import com.alten.bookingapp.model.dto.GroupRoomDTO;
+import com.alten.bookingapp.model.dto.HoldDTO;
 import com.alten.bookingapp.model.dto.ModifyResponseDto;
 import com.alten.bookingapp.model.dto.ReservationDTO;
+import com.alten.bookingapp.model.dto.ReservationSummaryDto;
 import com.alten.bookingapp.model.dto.ResponseDto;
+import com.alten.bookingapp.model.dto.RoomDto;
+import com.alten.bookingapp.model.entities.RoomType;
 import com.alten.bookingapp.service.impl.ReservationServiceImpl;
+import com.alten.bookingcore.exception.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.hamcrest.core.IsNot;
 import org.hamcrest.core.IsNull;
@@ -15,16 +26,24 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -89,7 +108,8 @@ class ReservationControllerTest {
                 .andExpect(jsonPath("$.roomAvailable", is(true)))
                 .andExpect(jsonPath("$.checkInDate", is(checkInDate.toString())))
                 .andExpect(jsonPath("$.checkOutDate", is(checkOut.toString())))
-                .andExpect(jsonPath("$.message", is("The room is available for these dates")));
+                .andExpect(jsonPath("$.message", is("The room is available for these dates")))
+                .andExpect(cookie().doesNotExist(CacheBypassFilter.BYPASS_COOKIE));
     }
 
     @Test
@@ -99,12 +119,14 @@ class ReservationControllerTest {
                 .message("Reservation cancelled successfully.")
                 .build();
 
-        given(service.cancelReservation(id)).willReturn(modifyResponseDto);
+        given(service.cancelReservation(id, null)).willReturn(modifyResponseDto);
 
         mockMvc.perform(delete(BOOKINGS_API_PATH + "/cancel/{reservationId}", id)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.message", is("Reservation cancelled successfully.")));
+                .andExpect(jsonPath("$.message", is("Reservation cancelled successfully.")))
+                .andExpect(cookie().value(CacheBypassFilter.BYPASS_COOKIE, "1"))
+                .andExpect(cookie().maxAge(CacheBypassFilter.BYPASS_COOKIE, 2));
     }
 
     @Test
@@ -118,7 +140,7 @@ class ReservationControllerTest {
                 .build();
 
 
-        given(service.modifyReservation(id, newDTO)).willReturn(newDTO);
+        given(service.modifyReservation(id, newDTO, null)).willReturn(newDTO);
 
         mockMvc.perform(put(BOOKINGS_API_PATH + "/modify/{reservationId}", id)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -236,7 +258,7 @@ class ReservationControllerTest {
                 .checkOutDate(checkOut)
                 .build();
 
-        given(service.modifyReservation(id, newDTO)).willThrow(new ReservationAlreadyCancelledException("Reservation with id 1 was already cancelled"));
+        given(service.modifyReservation(id, newDTO, null)).willThrow(new ReservationAlreadyCancelledException("Reservation with id 1 was already cancelled"));
 
         mockMvc.perform(put(BOOKINGS_API_PATH + "/modify/{reservationId}", id)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -244,4 +266,166 @@ class ReservationControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.message", is("Reservation with id 1 was already cancelled")));
     }
+
+    @Test
+    void shouldPlaceHold() throws Exception {
+        ReservationDTO reservationDto = ReservationDTO.builder()
+                .guestName("Oscar Abril")
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .build();
+
+        HoldDTO holdDto = HoldDTO.builder()
+                .id(5L)
+                .guestName("Oscar Abril")
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .expiresAt(LocalDateTime.now().plusMinutes(10))
+                .build();
+
+        when(service.placeHold(reservationDto)).thenReturn(holdDto);
+
+        mockMvc.perform(post(BOOKINGS_API_PATH + "/hold")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reservationDto)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", is(5)))
+                .andExpect(jsonPath("$.checkInDate", equalTo(checkIn.toString())));
+    }
+
+    @Test
+    void confirmExpiredHoldReturnError() throws Exception {
+        given(service.confirmHold(5L)).willThrow(new HoldExpiredException("Hold with id 5 not found or expired."));
+
+        mockMvc.perform(post(BOOKINGS_API_PATH + "/hold/{holdId}/confirm", 5L)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Hold with id 5 not found or expired.")));
+    }
+
+    @Test
+    void shouldSearchReservationsByGuestName() throws Exception {
+        ReservationSummaryDto reservation = ReservationSummaryDto.builder()
+                .id(3L)
+                .guestName("Oscar Abril")
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .cancelled(false)
+                .room(RoomDto.builder().id(1L).roomType(RoomType.STANDARD).build())
+                .build();
+
+        given(service.searchReservations("osc", true, PageRequest.of(1, 10)))
+                .willReturn(new PageImpl<>(List.of(reservation), PageRequest.of(1, 10), 11));
+
+        mockMvc.perform(get(BOOKINGS_API_PATH + "/search")
+                        .param("guestName", "osc")
+                        .param("fuzzy", "true")
+                        .param("page", "1")
+                        .param("size", "10")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].guestName", is("Oscar Abril")))
+                .andExpect(jsonPath("$.content[0].room.roomType", is("STANDARD")))
+                .andExpect(jsonPath("$.totalElements", is(11)));
+    }
+
+    @Test
+    void shouldCreateGroupReservation() throws Exception {
+        GroupReservationDTO requestDto = GroupReservationDTO.builder()
+                .guestName("Wedding Abril")
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .rooms(List.of(new GroupRoomDTO(RoomType.STANDARD, 2)))
+                .build();
+        GroupReservationResponseDto responseDto = GroupReservationResponseDto.builder()
+                .guestName("Wedding Abril")
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .reservations(List.of(new GroupReservationResponseDto.Allocation(10L, 1L, RoomType.STANDARD),
+                        new GroupReservationResponseDto.Allocation(11L, 2L, RoomType.STANDARD)))
+                .build();
+
+        when(service.placeGroupReservation(requestDto)).thenReturn(responseDto);
+
+        mockMvc.perform(post(BOOKINGS_API_PATH + "/group")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.reservations[1].reservationId", is(11)))
+                .andExpect(jsonPath("$.reservations[1].roomId", is(2)));
+    }
+
+    @Test
+    void groupReservationWithoutRoomsReturnError() throws Exception {
+        GroupReservationDTO requestDto = GroupReservationDTO.builder()
+                .guestName("Wedding Abril")
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .rooms(List.of())
+                .build();
+
+        mockMvc.perform(post(BOOKINGS_API_PATH + "/group")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.violations[0].details", is("rooms")));
+    }
+
+    @Test
+    void shouldModifyReservationWithMatchingVersion() throws Exception {
+        Long id = 1L;
+        ReservationDTO newDTO = ReservationDTO.builder()
+                .guestName("Henry Miller")
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .build();
+        ReservationDTO modifiedDTO = ReservationDTO.builder()
+                .guestName("Henry Miller")
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .version(4L)
+                .build();
+
+        given(service.modifyReservation(id, newDTO, 3L)).willReturn(modifiedDTO);
+
+        mockMvc.perform(put(BOOKINGS_API_PATH + "/modify/{reservationId}", id)
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+    }
+
+    @Test
+    void cancelWithStaleVersionReturnPreconditionFailed() throws Exception {
+        given(service.cancelReservation(1L, 3L)).willThrow(new ReservationVersionMismatchException("Reservation with id 1 has been modified since version 3"));
+
+        mockMvc.perform(delete(BOOKINGS_API_PATH + "/cancel/{reservationId}", 1L)
+                        .header("If-Match", "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message", is("Reservation with id 1 has been modified since version 3")));
+    }
+
+    @Test
+    void shouldResolveHotelFromHeader() throws Exception {
+        AtomicLong hotelId = new AtomicLong();
+        given(service.getAllReservations()).willAnswer(invocation -> {
+            hotelId.set(HotelContext.getHotelId());
+            return List.of();
+        });
+
+        mockMvc.perform(get(BOOKINGS_API_PATH).header(HotelInterceptor.HOTEL_HEADER, "2"))
+                .andExpect(status().isOk());
+
+        assertEquals(2L, hotelId.get());
+        assertEquals(HotelContext.DEFAULT_HOTEL_ID, HotelContext.getHotelId());
+    }
+
+    @Test
+    void invalidHotelHeaderReturnError() throws Exception {
+        mockMvc.perform(get(BOOKINGS_API_PATH).header(HotelInterceptor.HOTEL_HEADER, "abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Invalid X-Hotel-Id header: abc")));
+    }
 }
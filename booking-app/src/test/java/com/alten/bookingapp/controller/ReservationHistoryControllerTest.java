@@ -0,0 +1,101 @@
+package com.alten.bookingapp.controller;
+
+import com.alten.bookingapp.event.ReservationChangedEvent;
+import com.alten.bookingapp.model.dto.ArchivedReservationDto;
+import com.alten.bookingapp.model.dto.ReservationChangeDto;
+import com.alten.bookingapp.service.impl.ReservationHistoryServiceImpl;
+import com.alten.bookingcore.exception.RoomNotAvailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ReservationHistoryController.class)
+class ReservationHistoryControllerTest {
+
+    private static final String HISTORY_API_PATH = "/api/v1/bookings/history";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private ReservationHistoryServiceImpl service;
+
+    @Test
+    void shouldReturnGuestHistory() throws Exception {
+        ArchivedReservationDto archived = ArchivedReservationDto.builder()
+                .id(4L)
+                .guestName("Oscar Abril")
+                .checkInDate(LocalDate.now().minusDays(10))
+                .checkOutDate(LocalDate.now().minusDays(8))
+                .cancelled(false)
+                .archivedAt(LocalDateTime.now())
+                .build();
+
+        given(service.getHistory(eq("Oscar Abril"), any(Pageable.class))).willReturn(new PageImpl<>(List.of(archived)));
+
+        mockMvc.perform(get(HISTORY_API_PATH)
+                        .param("guestName", "Oscar Abril")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id", is(4)))
+                .andExpect(jsonPath("$.totalElements", is(1)));
+    }
+
+    @Test
+    void unknownArchivedReservationReturnError() throws Exception {
+        given(service.getArchivedReservation(9L)).willThrow(new RoomNotAvailableException("Archived reservation with id 9 not found."));
+
+        mockMvc.perform(get(HISTORY_API_PATH + "/{reservationId}", 9L)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Archived reservation with id 9 not found.")));
+    }
+
+    @Test
+    void shouldReturnReservationChanges() throws Exception {
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        ReservationChangeDto booked = ReservationChangeDto.builder()
+                .version(0L)
+                .changeType(ReservationChangedEvent.Type.BOOKED)
+                .guestName("Oscar Abril")
+                .checkInDate(checkIn)
+                .checkOutDate(checkIn.plusDays(2))
+                .roomId(1L)
+                .changedAt(LocalDateTime.now().minusDays(1))
+                .build();
+        ReservationChangeDto modified = ReservationChangeDto.builder()
+                .version(1L)
+                .changeType(ReservationChangedEvent.Type.MODIFIED)
+                .guestName("Oscar Abril")
+                .checkInDate(checkIn.plusDays(1))
+                .checkOutDate(checkIn.plusDays(3))
+                .roomId(1L)
+                .changedAt(LocalDateTime.now())
+                .build();
+
+        given(service.getChanges(4L)).willReturn(List.of(booked, modified));
+
+        mockMvc.perform(get(HISTORY_API_PATH + "/{reservationId}/changes", 4L)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].changeType", is("BOOKED")))
+                .andExpect(jsonPath("$[1].changeType", is("MODIFIED")))
+                .andExpect(jsonPath("$[1].checkInDate", is(checkIn.plusDays(1).toString())));
+    }
+}
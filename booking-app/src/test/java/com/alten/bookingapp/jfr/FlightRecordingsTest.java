@@ -0,0 +1,64 @@
+package com.alten.bookingapp.jfr;
+
+import com.alten.bookingapp.exception.RecordingNotFoundException;
+import com.alten.bookingapp.model.dto.RecordingDto;
+import com.alten.bookingapp.model.entities.Reservation;
+import com.alten.bookingapp.model.entities.Room;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(classes = FlightRecordings.class)
+class FlightRecordingsTest {
+
+    @Autowired
+    private FlightRecordings flightRecordings;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordsTheBookingEventsWithTheBundledProfile() throws Exception {
+        LocalDate checkIn = LocalDate.of(2023, 4, 15);
+        Reservation reservation = Reservation.builder()
+                .id(7L)
+                .hotelId(1L)
+                .checkInDate(checkIn)
+                .checkOutDate(checkIn.plusDays(2))
+                .room(Room.builder().id(3L).build())
+                .build();
+        RecordingDto recording = flightRecordings.start();
+
+        BookingPlacedEvent event = new BookingPlacedEvent();
+        event.begin();
+        event.commitReservation(reservation);
+
+        Path file = directory.resolve("booking.jfr");
+        try (OutputStream output = Files.newOutputStream(file)) {
+            flightRecordings.dump(recording.getId(), output);
+        }
+        flightRecordings.stop(recording.getId());
+
+        List<RecordedEvent> placed = RecordingFile.readAllEvents(file).stream()
+                .filter(recorded -> recorded.getEventType().getName().equals("com.alten.booking.BookingPlaced"))
+                .collect(Collectors.toList());
+        assertEquals(1, placed.size());
+        assertEquals(7L, placed.get(0).getLong("reservationId"));
+        assertEquals(3L, placed.get(0).getLong("roomId"));
+        assertEquals("2023-04-15", placed.get(0).getString("checkInDate"));
+        Assertions.assertThrows(RecordingNotFoundException.class, () -> flightRecordings.getRecording(recording.getId()));
+    }
+}
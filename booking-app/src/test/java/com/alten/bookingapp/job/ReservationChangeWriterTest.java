@@ -0,0 +1,100 @@
+package com.alten.bookingapp.job;
+
+import com.alten.bookingapp.event.ReservationChangedEvent;
+import com.alten.bookingapp.model.entities.ReservationChange;
+import com.alten.bookingapp.repository.ReservationChangeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = ReservationChangeWriter.class, properties = {
+        "reservation.history.queue-capacity=2",
+        "reservation.history.batch-size=10",
+        "reservation.history.offer-timeout-ms=10",
+        "reservation.history.max-backoff-ms=50"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ReservationChangeWriterTest {
+
+    @MockBean
+    private ReservationChangeRepository changeRepository;
+
+    @Autowired
+    private ReservationChangeWriter writer;
+
+    @Test
+    void writesTheChangesInOrderAndRetriesAFailedBatch() throws InterruptedException {
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Long> written = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            if (failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Database unavailable");
+            }
+            List<ReservationChange> changes = invocation.getArgument(0);
+            changes.forEach(change -> {
+                written.add(change.getVersion());
+                done.countDown();
+            });
+            return null;
+        }).when(changeRepository).insertAll(anyList());
+
+        writer.onReservationChanged(event(ReservationChangedEvent.Type.BOOKED, 0L));
+        writer.onReservationChanged(event(ReservationChangedEvent.Type.MODIFIED, 1L));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(0L, 1L), written);
+    }
+
+    @Test
+    void writesTheChangeDirectlyWhenTheQueueIsFull() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            if (Thread.currentThread().getName().equals("reservation-history")) {
+                blocked.countDown();
+                release.await();
+            }
+            return null;
+        }).when(changeRepository).insertAll(anyList());
+
+        writer.onReservationChanged(event(ReservationChangedEvent.Type.BOOKED, 0L));
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        for (long version = 1; version <= 3; version++) {
+            writer.onReservationChanged(event(ReservationChangedEvent.Type.MODIFIED, version));
+        }
+
+        verify(changeRepository, times(1)).insertAll(argThat(changes ->
+                changes.size() == 1 && changes.get(0).getVersion() == 3L));
+        release.countDown();
+        verify(changeRepository, timeout(5000).times(3)).insertAll(anyList());
+    }
+
+    private static ReservationChangedEvent event(ReservationChangedEvent.Type type, Long version) {
+        LocalDate checkIn = LocalDate.now().plusDays(10L);
+        return ReservationChangedEvent.builder()
+                .type(type)
+                .reservationId(1L)
+                .version(version)
+                .hotelId(1L)
+                .roomId(1L)
+                .guestName("Oscar Abril")
+                .checkInDate(checkIn)
+                .checkOutDate(checkIn.plusDays(2L))
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.alten.bookingapp.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final SamplingTurboFilter filter = new SamplingTurboFilter();
+
+    @BeforeEach
+    void setUp() {
+        filter.setContext(context);
+        filter.setLogger("com.alten.bookingapp.availability");
+        filter.setLevel("WARN");
+        filter.setOneIn(3);
+        filter.start();
+    }
+
+    @Test
+    void keepsOneInEveryNEventsOfTheLogger() {
+        Logger logger = context.getLogger("com.alten.bookingapp.availability.DegradedAvailability");
+
+        int kept = 0;
+        for (int i = 0; i < 9; i++) {
+            if (decide(logger, Level.WARN, "Availability query failed") == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+
+        assertEquals(3, kept);
+    }
+
+    @Test
+    void keepsTheEventsOfOtherLoggersAndHigherLevels() {
+        Logger other = context.getLogger("com.alten.bookingapp.job.WaitlistMatcher");
+        Logger sampled = context.getLogger("com.alten.bookingapp.availability.DegradedAvailability");
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(other, Level.WARN, "Could not match the waitlist"));
+            assertEquals(FilterReply.NEUTRAL, decide(sampled, Level.ERROR, "Lost"));
+        }
+    }
+
+    @Test
+    void doesNotCountTheEnabledChecks() {
+        Logger logger = context.getLogger("com.alten.bookingapp.availability.DegradedAvailability");
+
+        assertEquals(FilterReply.NEUTRAL, decide(logger, Level.WARN, null));
+        assertEquals(FilterReply.NEUTRAL, decide(logger, Level.WARN, null));
+        assertEquals(FilterReply.NEUTRAL, decide(logger, Level.WARN, "Availability query failed"));
+        assertEquals(FilterReply.DENY, decide(logger, Level.WARN, "Availability query failed"));
+    }
+
+    private FilterReply decide(Logger logger, Level level, String format) {
+        return filter.decide(null, logger, level, format, null, null);
+    }
+}
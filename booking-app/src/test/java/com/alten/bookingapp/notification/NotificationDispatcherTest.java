@@ -0,0 +1,178 @@
+package com.alten.bookingapp.notification;
+
+import com.alten.bookingapp.event.ReservationChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = {NotificationDispatcher.class, NotificationDispatcherTest.Sinks.class}, properties = {
+        "reservation.notifications.queue-capacity=2",
+        "reservation.notifications.batch-size=10",
+        "reservation.notifications.max-attempts=3",
+        "reservation.notifications.initial-backoff-ms=10"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class NotificationDispatcherTest {
+
+    @MockBean
+    private NotificationOutbox outbox;
+
+    @Autowired
+    private NotificationDispatcher dispatcher;
+
+    @Autowired
+    @Qualifier("mail")
+    private TestSink mail;
+
+    @Autowired
+    @Qualifier("channelManager")
+    private TestSink channelManager;
+
+    @AfterEach
+    void tearDown() {
+        mail.gate.countDown();
+        channelManager.gate.countDown();
+    }
+
+    @Test
+    void retriesAFailedBatchUntilItIsDelivered() throws InterruptedException {
+        mail.gate.countDown();
+        channelManager.gate.countDown();
+        mail.failures.set(2);
+        ReservationChangedEvent event = event(1L);
+
+        dispatcher.onReservationChanged(event);
+
+        assertTrue(mail.delivered.await(5, TimeUnit.SECONDS));
+        assertTrue(channelManager.delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(3, mail.attempts.get());
+        assertEquals(List.of(event), mail.events);
+        verifyNoInteractions(outbox);
+    }
+
+    @Test
+    void aSlowSinkDelaysNeitherTheRequestNorTheOtherSinks() throws InterruptedException {
+        mail.gate.countDown();
+        ReservationChangedEvent event = event(1L);
+
+        long start = System.nanoTime();
+        dispatcher.onReservationChanged(event);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMs < 100, "Dispatching took " + elapsedMs + " ms");
+        assertTrue(mail.delivered.await(5, TimeUnit.SECONDS));
+        assertTrue(channelManager.events.isEmpty());
+        channelManager.gate.countDown();
+        assertTrue(channelManager.delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(event), channelManager.events);
+    }
+
+    @Test
+    void storesTheBatchInTheOutboxAfterTheLastAttempt() {
+        mail.gate.countDown();
+        channelManager.gate.countDown();
+        mail.failures.set(Integer.MAX_VALUE);
+        ReservationChangedEvent event = event(1L);
+
+        dispatcher.onReservationChanged(event);
+
+        verify(outbox, timeout(5000)).save(eq("mail"), eq(List.of(event)), anyString());
+        assertEquals(3, mail.attempts.get());
+    }
+
+    @Test
+    void storesTheChangesThatDoNotFitInTheQueueInTheOutbox() throws InterruptedException {
+        dispatcher.onReservationChanged(event(1L));
+        assertTrue(mail.blocked.await(5, TimeUnit.SECONDS));
+        assertTrue(channelManager.blocked.await(5, TimeUnit.SECONDS));
+        for (long id = 2; id <= 5; id++) {
+            dispatcher.onReservationChanged(event(id));
+        }
+
+        verify(outbox, times(2)).save(eq("mail"), anyList(), eq("Queue full"));
+        verify(outbox, times(2)).save(eq("channelManager"), anyList(), eq("Queue full"));
+        verify(outbox).save(eq("channelManager"), argThat(events -> events.size() == 1
+                && events.get(0).getReservationId() == 5L), eq("Queue full"));
+    }
+
+    private static ReservationChangedEvent event(Long reservationId) {
+        LocalDate checkIn = LocalDate.now().plusDays(10L);
+        return ReservationChangedEvent.builder()
+                .type(ReservationChangedEvent.Type.BOOKED)
+                .reservationId(reservationId)
+                .hotelId(1L)
+                .roomId(1L)
+                .guestName("Oscar Abril")
+                .checkInDate(checkIn)
+                .checkOutDate(checkIn.plusDays(2L))
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    @TestConfiguration
+    static class Sinks {
+
+        @Bean
+        TestSink mail() {
+            return new TestSink("mail");
+        }
+
+        @Bean
+        TestSink channelManager() {
+            return new TestSink("channelManager");
+        }
+    }
+
+    /**
+     * A sink that waits for its gate to open before each delivery, and fails the number of deliveries it is told to.
+     * {@code blocked} is released as soon as a worker is waiting on the gate with its batch.
+     */
+    static class TestSink implements NotificationSink {
+
+        private final String name;
+        private final CountDownLatch gate = new CountDownLatch(1);
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final CountDownLatch delivered = new CountDownLatch(1);
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final List<ReservationChangedEvent> events = new ArrayList<>();
+
+        TestSink(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void deliver(List<ReservationChangedEvent> batch) throws Exception {
+            blocked.countDown();
+            gate.await();
+            attempts.incrementAndGet();
+            if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException(name + " is unavailable");
+            }
+            events.addAll(batch);
+            delivered.countDown();
+        }
+    }
+}
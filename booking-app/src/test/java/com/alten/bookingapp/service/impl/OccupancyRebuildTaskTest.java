@@ -0,0 +1,51 @@
+package com.alten.bookingapp.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class OccupancyRebuildTaskTest {
+
+    @Test
+    void countsEveryDayOfEachStay() {
+        int[] roomTypes = {0, 0, 1};
+        int[] checkInDays = {100, 101, 100};
+        int[] checkOutDays = {102, 101, 100};
+
+        int[][] occupancy = OccupancyRebuildTask.occupancy(ForkJoinPool.commonPool(), roomTypes, checkInDays,
+                checkOutDays, 3, 100, 4, 3);
+
+        assertArrayEquals(new int[]{1, 2, 1, 0, 0}, occupancy[0]);
+        assertArrayEquals(new int[]{1, 0, 0, 0, 0}, occupancy[1]);
+        assertArrayEquals(new int[]{0, 0, 0, 0, 0}, occupancy[2]);
+    }
+
+    @Test
+    void parallelResultMatchesSequentialCount() {
+        int size = 100_000;
+        int days = 400;
+        Random random = new Random(42);
+        int[] roomTypes = new int[size];
+        int[] checkInDays = new int[size];
+        int[] checkOutDays = new int[size];
+        int[][] expected = new int[3][days + 1];
+        for (int i = 0; i < size; i++) {
+            roomTypes[i] = random.nextInt(3);
+            checkInDays[i] = random.nextInt(days - 3);
+            checkOutDays[i] = checkInDays[i] + random.nextInt(3);
+            for (int day = checkInDays[i]; day <= checkOutDays[i]; day++) {
+                expected[roomTypes[i]][day]++;
+            }
+        }
+
+        int[][] occupancy = OccupancyRebuildTask.occupancy(ForkJoinPool.commonPool(), roomTypes, checkInDays,
+                checkOutDays, size, 0, days, 3);
+
+        for (int type = 0; type < 3; type++) {
+            assertArrayEquals(expected[type], occupancy[type]);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.alten.bookingapp.service.impl;
+
+import com.alten.bookingapp.config.HotelContext;
+import com.alten.bookingapp.model.dto.OccupancyDto;
+import com.alten.bookingapp.model.entities.DailyOccupancy;
+import com.alten.bookingapp.model.entities.RoomType;
+import com.alten.bookingapp.repository.DailyOccupancyRepository;
+import com.alten.bookingapp.repository.RoomNightsRepository;
+import com.alten.bookingapp.repository.RoomRepository;
+import com.alten.bookingcore.exception.InvalidReservationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = OccupancyServiceImpl.class, properties = "reservation.occupancy.max-range-days=31")
+class OccupancyServiceImplTest {
+
+    private static final Long HOTEL_ID = HotelContext.DEFAULT_HOTEL_ID;
+    private static final LocalDate FROM = LocalDate.of(2023, 4, 1);
+
+    @MockBean
+    private DailyOccupancyRepository occupancyRepository;
+
+    @MockBean
+    private RoomNightsRepository roomNightsRepository;
+
+    @MockBean
+    private RoomRepository roomRepository;
+
+    @MockBean
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OccupancyServiceImpl service;
+
+    @Test
+    void getOccupancyOfTheLongestRangeWithSuccess() {
+        LocalDate to = FROM.plusDays(30);
+        when(occupancyRepository.findByHotelIdAndDayBetweenOrderByDayAscRoomTypeAsc(HOTEL_ID, FROM, to))
+                .thenReturn(List.of(DailyOccupancy.builder()
+                        .hotelId(HOTEL_ID)
+                        .day(to)
+                        .roomType(RoomType.STANDARD)
+                        .occupiedRooms(2)
+                        .build()));
+
+        List<OccupancyDto> occupancy = service.getOccupancy(FROM, to);
+
+        assertEquals(1, occupancy.size());
+        assertEquals(to, occupancy.get(0).getDay());
+        assertEquals(2, occupancy.get(0).getOccupiedRooms());
+    }
+
+    @Test
+    void getOccupancyOfATooLongRangeThrowsException() {
+        assertThrows(InvalidReservationException.class, () -> service.getOccupancy(FROM, FROM.plusDays(31)));
+        assertThrows(InvalidReservationException.class, () -> service.getOccupancy(LocalDate.MIN, LocalDate.MAX));
+
+        verify(roomRepository, never()).countRoomsByType(any());
+        verifyNoInteractions(occupancyRepository);
+    }
+
+    @Test
+    void rebuildOccupancyRebuildsEachHotelInItsOwnTransaction() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class))).thenReturn(List.of(1L, 2L));
+
+        assertEquals(0, service.rebuildOccupancy());
+
+        InOrder inOrder = inOrder(roomRepository, jdbcTemplate, transactionManager);
+        for (Long hotelId : List.of(1L, 2L)) {
+            inOrder.verify(transactionManager).getTransaction(any());
+            inOrder.verify(roomRepository).lockByHotelId(hotelId);
+            inOrder.verify(jdbcTemplate).update("DELETE FROM daily_occupancy WHERE hotel_id = ?", hotelId);
+            inOrder.verify(transactionManager).commit(any());
+        }
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void repairRoomNightsRepairsEachHotelInItsOwnTransaction() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class))).thenReturn(List.of(1L, 2L));
+        when(roomNightsRepository.repair(1L)).thenReturn(3);
+        when(roomNightsRepository.repair(2L)).thenReturn(0);
+
+        assertEquals(3, service.repairRoomNights());
+
+        InOrder inOrder = inOrder(roomRepository, roomNightsRepository, transactionManager);
+        for (Long hotelId : List.of(1L, 2L)) {
+            inOrder.verify(transactionManager).getTransaction(any());
+            inOrder.verify(roomRepository).lockByHotelId(hotelId);
+            inOrder.verify(roomNightsRepository).repair(hotelId);
+            inOrder.verify(transactionManager).commit(any());
+        }
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+}
@@ -0,0 +1,126 @@
+package com.alten.bookingapp.service.impl;
+
+import com.alten.bookingapp.config.HotelContext;
+import com.alten.bookingapp.event.ReservationChangedEvent;
+import com.alten.bookingapp.event.StayReleasedEvent;
+import com.alten.bookingapp.model.dto.BulkCancelDTO;
+import com.alten.bookingapp.model.dto.BulkChangeDto;
+import com.alten.bookingapp.model.dto.BulkChangeResultDto;
+import com.alten.bookingapp.model.dto.BulkShiftDTO;
+import com.alten.bookingapp.repository.ReservationRepository;
+import com.alten.bookingcore.exception.InvalidReservationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = {ReservationBulkServiceImpl.class})
+@RecordApplicationEvents
+class ReservationBulkServiceImplTest {
+
+    private static final Long HOTEL_ID = HotelContext.DEFAULT_HOTEL_ID;
+
+    @MockBean
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationBulkServiceImpl service;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    void shiftReservationsPublishesOnlyTheShiftedOnes() {
+        LocalDate checkIn = LocalDate.now().plusDays(10L);
+        BulkChangeDto shifted = BulkChangeDto.builder()
+                .reservationId(1L)
+                .status(BulkChangeDto.Status.SHIFTED)
+                .roomId(1L)
+                .checkInDate(checkIn.plusDays(2L))
+                .checkOutDate(checkIn.plusDays(3L))
+                .previousCheckInDate(checkIn)
+                .previousCheckOutDate(checkIn.plusDays(1L))
+                .version(1L)
+                .build();
+        BulkChangeDto conflict = BulkChangeDto.builder()
+                .reservationId(2L)
+                .status(BulkChangeDto.Status.CONFLICT)
+                .roomId(1L)
+                .checkInDate(checkIn.plusDays(5L))
+                .checkOutDate(checkIn.plusDays(6L))
+                .version(0L)
+                .build();
+        BulkChangeDto notFound = BulkChangeDto.builder()
+                .reservationId(3L)
+                .status(BulkChangeDto.Status.NOT_FOUND)
+                .build();
+        when(reservationRepository.shiftReservations(eq(HOTEL_ID), eq(List.of(1L, 2L, 3L)), eq(2),
+                any(LocalDate.class), any(LocalDate.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(shifted, conflict, notFound));
+
+        BulkChangeResultDto result = service.shiftReservations(new BulkShiftDTO(List.of(1L, 2L, 1L, 3L), 2));
+
+        assertEquals(1, result.getChanged());
+        assertEquals(2, result.getRejected());
+        assertEquals(List.of(shifted, conflict, notFound), result.getResults());
+        List<ReservationChangedEvent> changes = events.stream(ReservationChangedEvent.class).collect(Collectors.toList());
+        assertEquals(1, changes.size());
+        assertEquals(ReservationChangedEvent.Type.MODIFIED, changes.get(0).getType());
+        assertEquals(checkIn.plusDays(2L), changes.get(0).getCheckInDate());
+        List<StayReleasedEvent> released = events.stream(StayReleasedEvent.class).collect(Collectors.toList());
+        assertEquals(List.of(new StayReleasedEvent(HOTEL_ID, 1L, checkIn, checkIn.plusDays(1L))), released);
+    }
+
+    @Test
+    void shiftReservationsByZeroDaysIsRejected() {
+        assertThrows(InvalidReservationException.class,
+                () -> service.shiftReservations(new BulkShiftDTO(List.of(1L), 0)));
+        verify(reservationRepository, never()).shiftReservations(any(), any(), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    void cancelReservationsWithoutFilterIsRejected() {
+        assertThrows(InvalidReservationException.class, () -> service.cancelReservations(new BulkCancelDTO()));
+        verify(reservationRepository, never()).cancelMatching(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void cancelReservationsReleasesTheCancelledStays() {
+        LocalDate checkIn = LocalDate.now().plusDays(10L);
+        BulkChangeDto cancelled = BulkChangeDto.builder()
+                .reservationId(1L)
+                .status(BulkChangeDto.Status.CANCELLED)
+                .roomId(2L)
+                .checkInDate(checkIn)
+                .checkOutDate(checkIn.plusDays(1L))
+                .version(1L)
+                .build();
+        when(reservationRepository.cancelMatching(eq(HOTEL_ID), eq(2L), eq(null), eq(null), eq(null),
+                any(LocalDateTime.class))).thenReturn(List.of(cancelled));
+
+        BulkChangeResultDto result = service.cancelReservations(BulkCancelDTO.builder().roomId(2L).build());
+
+        assertEquals(1, result.getChanged());
+        assertEquals(1, events.stream(ReservationChangedEvent.class).count());
+        assertEquals(List.of(new StayReleasedEvent(HOTEL_ID, 2L, checkIn, checkIn.plusDays(1L))),
+                events.stream(StayReleasedEvent.class).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,84 @@
+package com.alten.bookingapp.service.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ReservationImportValidatorTest {
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void acceptsSortedRowsWithoutOverlap() {
+        ReservationImportValidator validator = new ReservationImportValidator();
+
+        assertNull(validator.validate(row(1, 1, "2023-04-15", "2023-04-16", false)));
+        assertNull(validator.validate(row(2, 1, "2023-04-17", "2023-04-18", false)));
+        assertNull(validator.validate(row(3, 2, "2023-04-15", "2023-04-16", false)));
+    }
+
+    @Test
+    void rejectsOverlapWithPreviousRowOfSameRoom() {
+        ReservationImportValidator validator = new ReservationImportValidator();
+
+        assertNull(validator.validate(row(1, 1, "2023-04-15", "2023-04-18", false)));
+        assertEquals("The room is already booked for this dates", validator.validate(row(2, 1, "2023-04-16", "2023-04-17", false)));
+        assertEquals("The room is already booked for this dates", validator.validate(row(3, 1, "2023-04-18", "2023-04-19", false)));
+        assertNull(validator.validate(row(4, 1, "2023-04-19", "2023-04-20", false)));
+    }
+
+    @Test
+    void cancelledRowsDoNotBlockTheRoom() {
+        ReservationImportValidator validator = new ReservationImportValidator();
+
+        assertNull(validator.validate(row(1, 1, "2023-04-15", "2023-04-18", true)));
+        assertNull(validator.validate(row(2, 1, "2023-04-16", "2023-04-17", false)));
+    }
+
+    @Test
+    void rejectsUnsortedRows() {
+        ReservationImportValidator validator = new ReservationImportValidator();
+
+        assertNull(validator.validate(row(1, 2, "2023-04-15", "2023-04-16", false)));
+        assertEquals("Rows must be sorted by room_id and check_in_date", validator.validate(row(2, 1, "2023-04-20", "2023-04-21", false)));
+        assertEquals("Rows must be sorted by room_id and check_in_date", validator.validate(row(3, 2, "2023-04-10", "2023-04-11", false)));
+    }
+
+    @Test
+    void parsesQuotedFieldsAndDefaultsTimestamps() {
+        ReservationCsvRow row = ReservationCsvRow.parse(2, "7,1,\"Baudelaire, \"\"Charles\"\"\",2023-04-19,2023-04-21,f,2023-04-01 12:00:00,", now);
+
+        assertEquals(1L, row.getRoomId());
+        assertEquals("Baudelaire, \"Charles\"", row.getGuestName());
+        assertEquals(LocalDate.parse("2023-04-19"), row.getCheckInDate());
+        assertEquals(LocalDateTime.parse("2023-04-01T12:00:00"), row.getCreatedAt());
+        assertEquals(now, row.getModifiedAt());
+        assertEquals(List.of("a", "b,c", ""), ReservationCsvRow.split("a,\"b,c\","));
+    }
+
+    @Test
+    void rejectsMalformedLines() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ReservationCsvRow.parse(1, "1,2,3", now));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ReservationCsvRow.parse(1, ",1,Guest,2023-13-01,2023-04-21,f,,", now));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ReservationCsvRow.parse(1, ",1,\"Guest,2023-04-01,2023-04-21,f,,", now));
+    }
+
+    private ReservationCsvRow row(long line, long roomId, String checkIn, String checkOut, boolean cancelled) {
+        return ReservationCsvRow.builder()
+                .lineNumber(line)
+                .roomId(roomId)
+                .guestName("Guest " + line)
+                .checkInDate(LocalDate.parse(checkIn))
+                .checkOutDate(LocalDate.parse(checkOut))
+                .cancelled(cancelled)
+                .createdAt(now)
+                .modifiedAt(now)
+                .build();
+    }
+}
@@ -1,45 +1,105 @@
 package com.alten.bookingapp.service.impl;
 
+import com.alten.bookingapp.availability.AvailabilitySnapshot;
+import com.alten.bookingapp.availability.DegradedAvailability;
+import com.alten.bookingapp.config.BookingCoreConfig;
+import com.alten.bookingapp.config.HotelContext;
+import com.alten.bookingapp.event.ReservationChangedEvent;
+import com.alten.bookingapp.event.StayReleasedEvent;
 import com.alten.bookingapp.exception.*;
+import com.alten.bookingapp.model.dto.GroupReservationDTO;
+import com.alten.bookingapp.model.dto.GroupReservationResponseDto;
+import com.alten.bookingapp.model.dto.GroupRoomDTO;
+import com.alten.bookingapp.model.dto.HoldDTO;
 import com.alten.bookingapp.model.dto.ModifyResponseDto;
 import com.alten.bookingapp.model.dto.ReservationDTO;
 import com.alten.bookingapp.model.dto.ResponseDto;
 import com.alten.bookingapp.model.entities.Reservation;
+import com.alten.bookingapp.model.entities.ReservationHold;
 import com.alten.bookingapp.model.entities.Room;
+import com.alten.bookingapp.model.entities.RoomType;
+import com.alten.bookingapp.repository.DailyOccupancyRepository;
+import com.alten.bookingapp.repository.ReservationArchiveRepository;
+import com.alten.bookingapp.repository.ReservationHoldRepository;
 import com.alten.bookingapp.repository.ReservationRepository;
+import com.alten.bookingapp.repository.RoomNightsRepository;
+import com.alten.bookingapp.repository.RoomRepository;
+import com.alten.bookingapp.testUtil.NoopTracingConfig;
+import com.alten.bookingcore.exception.*;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
-@SpringBootTest(classes = ReservationServiceImpl.class)
+@SpringBootTest(classes = {ReservationServiceImpl.class, DegradedAvailability.class, BookingCoreConfig.class,
+        NoopTracingConfig.class})
+@RecordApplicationEvents
 class ReservationServiceImplTest {
 
+    private static final Long HOTEL_ID = HotelContext.DEFAULT_HOTEL_ID;
+
     @MockBean
     private ReservationRepository repository;
 
+    @MockBean
+    private ReservationHoldRepository holdRepository;
+
+    @MockBean
+    private ReservationArchiveRepository archiveRepository;
+
+    @MockBean
+    private DailyOccupancyRepository occupancyRepository;
+
+    @MockBean
+    private RoomNightsRepository roomNightsRepository;
+
+    @MockBean
+    private RoomRepository roomRepository;
+
     @MockBean
     private ModelMapper mapper;
 
     @MockBean
-    private Room room;
+    private PlatformTransactionManager transactionManager;
+
+    private final Room room = Room.builder().id(1L).hotelId(HOTEL_ID).build();
 
     @Autowired
     private ReservationServiceImpl service;
 
+    @Autowired
+    private DegradedAvailability degradedAvailability;
+
+    @Autowired
+    private ApplicationEvents events;
+
     private LocalDate checkIn;
     private LocalDate checkOut;
 
@@ -48,6 +108,7 @@ class ReservationServiceImplTest {
     public void setUp() {
         checkIn = LocalDate.now().plusDays(10L);
         checkOut = checkIn.plusDays(2L);
+        when(roomRepository.findFirstByHotelIdOrderByIdAsc(HOTEL_ID)).thenReturn(Optional.of(room));
     }
 
     @Test
@@ -78,6 +139,9 @@ class ReservationServiceImplTest {
         verify(mapper, times(1)).map(reservationDto, Reservation.class);
         verify(repository, times(1)).save(reservation);
         verify(mapper, times(1)).map(reservation, ReservationDTO.class);
+        assertEquals(List.of(ReservationChangedEvent.Type.BOOKED), events.stream(ReservationChangedEvent.class)
+                .map(ReservationChangedEvent::getType)
+                .collect(Collectors.toList()));
     }
 
     @Test
@@ -137,9 +201,27 @@ class ReservationServiceImplTest {
                 .cancelled(false)
                 .build();
 
-        when(repository.countByRoomIdAndDatesOverlap(any(Room.class), any(LocalDate.class), any(LocalDate.class))).thenReturn(2);
+        when(roomNightsRepository.existsOccupiedNight(anyLong(), any(LocalDate.class), any(LocalDate.class))).thenReturn(true);
+
+        Assertions.assertThrows(RoomNotAvailableException.class, () -> service.placeReservation(reservationDto));
+    }
+
+    @Test
+    void createReservationOverlappingConcurrentBookingError() {
+        ReservationDTO reservationDto = ReservationDTO.builder()
+                .guestName("Oscar Abril")
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .cancelled(false)
+                .build();
+
+        when(mapper.map(reservationDto, Reservation.class)).thenReturn(Reservation.builder().build());
+        when(repository.save(any(Reservation.class))).thenThrow(new DataIntegrityViolationException("overlap",
+                new SQLException("conflicting key value violates exclusion constraint", "23P01")));
 
         Assertions.assertThrows(RoomNotAvailableException.class, () -> service.placeReservation(reservationDto));
+        verify(roomRepository).lockById(room.getId());
+        verifyNoInteractions(occupancyRepository);
     }
 
     @Test
@@ -170,15 +252,27 @@ class ReservationServiceImplTest {
                 .modifiedAt(LocalDateTime.now())
                 .room(room)
                 .cancelled(false)
+                .previousCheckInDate(reservationInDB.getCheckInDate())
+                .previousCheckOutDate(reservationInDB.getCheckOutDate())
                 .build();
 
-        when(repository.findById(reservationInDB.getId())).thenReturn(Optional.of(reservationInDB));
-        when(repository.save(newReservation)).thenReturn(newReservation);
+        when(repository.modifyIfAvailable(eq(HOTEL_ID), eq(reservationInDB.getId()), isNull(), eq("Oscar Abril"), eq(checkOut),
+                eq(checkOut.plusDays(2)), any(LocalDateTime.class))).thenReturn(Optional.of(newReservation));
 
         service.modifyReservation(reservationInDB.getId(), reservationDTO);
 
-        verify(repository, times(1)).findById(reservationInDB.getId());
-        verify(repository, times(1)).save(reservationInDB);
+        InOrder inOrder = inOrder(roomRepository, repository);
+        inOrder.verify(roomRepository).lockByReservation(HOTEL_ID, reservationInDB.getId());
+        inOrder.verify(repository, times(1)).modifyIfAvailable(eq(HOTEL_ID), eq(reservationInDB.getId()), isNull(), eq("Oscar Abril"),
+                eq(checkOut), eq(checkOut.plusDays(2)), any(LocalDateTime.class));
+        verify(repository, never()).findByIdAndHotelId(reservationInDB.getId(), HOTEL_ID);
+        verify(repository, never()).save(any(Reservation.class));
+        verify(roomNightsRepository, times(1)).move(room.getId(), checkIn, checkOut, checkOut, checkOut.plusDays(2));
+        assertEquals(List.of(new StayReleasedEvent(HOTEL_ID, room.getId(), checkIn, checkOut)),
+                events.stream(StayReleasedEvent.class).collect(Collectors.toList()));
+        assertEquals(List.of(ReservationChangedEvent.Type.MODIFIED), events.stream(ReservationChangedEvent.class)
+                .map(ReservationChangedEvent::getType)
+                .collect(Collectors.toList()));
     }
 
     @Test
@@ -200,7 +294,7 @@ class ReservationServiceImplTest {
                 .checkOutDate(reservationInDB.getCheckOutDate())
                 .build();
 
-        when(repository.findById(reservationInDB.getId())).thenReturn(Optional.of(reservationInDB));
+        when(repository.findByIdAndHotelId(reservationInDB.getId(), HOTEL_ID)).thenReturn(Optional.of(reservationInDB));
 
         Assertions.assertThrows(InvalidReservationException.class, () -> service.modifyReservation(reservationInDB.getId(), reservationDTO));
     }
@@ -224,7 +318,8 @@ class ReservationServiceImplTest {
                 .checkOutDate(checkOut.plusDays(2))
                 .build();
 
-        when(repository.findByRoomIdAndDatesOverlap(any(Room.class), any(LocalDate.class), any(LocalDate.class), any(Long.class))).thenReturn(List.of(reservationInDB));
+        when(repository.findByIdAndHotelId(reservationInDB.getId(), HOTEL_ID)).thenReturn(Optional.of(reservationInDB));
+        when(repository.findByRoomIdAndDatesOverlap(anyLong(), any(Room.class), any(LocalDate.class), any(LocalDate.class), any(Long.class))).thenReturn(List.of(reservationInDB));
 
         Assertions.assertThrows(RoomNotAvailableException.class, () -> service.modifyReservation(reservationInDB.getId(), reservationDTO));
     }
@@ -248,14 +343,18 @@ class ReservationServiceImplTest {
                 .message("Reservation cancelled successfully.")
                 .build();
 
-        when(repository.findById(reservationInDB.getId())).thenReturn(Optional.of(reservationInDB));
-        when(repository.save(reservationInDB)).thenReturn(reservationInDB);
-
-        service.cancelReservation(reservationInDB.getId());
+        when(repository.cancelIfActive(eq(HOTEL_ID), eq(reservationInDB.getId()), isNull(), any(LocalDateTime.class))).thenReturn(Optional.of(reservationInDB));
 
+        ModifyResponseDto response = service.cancelReservation(reservationInDB.getId());
 
-        verify(repository, times(1)).findById(reservationInDB.getId());
-        verify(repository, times(1)).save(reservationInDB);
+        Assertions.assertEquals(expected, response);
+        InOrder inOrder = inOrder(roomRepository, repository);
+        inOrder.verify(roomRepository).lockByReservation(HOTEL_ID, reservationInDB.getId());
+        inOrder.verify(repository, times(1)).cancelIfActive(eq(HOTEL_ID), eq(reservationInDB.getId()), isNull(), any(LocalDateTime.class));
+        verify(repository, never()).findByIdAndHotelId(reservationInDB.getId(), HOTEL_ID);
+        verify(roomNightsRepository, times(1)).release(room.getId(), checkIn, checkOut);
+        assertEquals(List.of(new StayReleasedEvent(HOTEL_ID, room.getId(), checkIn, checkOut)),
+                events.stream(StayReleasedEvent.class).collect(Collectors.toList()));
     }
 
     @Test
@@ -271,12 +370,61 @@ class ReservationServiceImplTest {
                 .cancelled(true)
                 .build();
 
-        when(repository.findById(reservationInDB.getId())).thenReturn(Optional.of(reservationInDB));
+        when(repository.findByIdAndHotelId(reservationInDB.getId(), HOTEL_ID)).thenReturn(Optional.of(reservationInDB));
 
         Assertions.assertThrows(ReservationAlreadyCancelledException.class, () -> service.cancelReservation(reservationInDB.getId()));
 
     }
 
+    @Test
+    void modifyAndCancelTakeASingleStatement() {
+        Reservation reservationInDB = Reservation.builder()
+                .id(1L)
+                .guestName("Oscar Abril")
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .createdAt(LocalDateTime.now().minusDays(10))
+                .modifiedAt(LocalDateTime.now().minusDays(10))
+                .room(room)
+                .cancelled(false)
+                .previousCheckInDate(checkIn)
+                .previousCheckOutDate(checkOut)
+                .build();
+        ReservationDTO reservationDTO = ReservationDTO.builder()
+                .guestName("Oscar Abril")
+                .checkInDate(checkOut)
+                .checkOutDate(checkOut.plusDays(1))
+                .build();
+
+        when(repository.modifyIfAvailable(eq(HOTEL_ID), eq(reservationInDB.getId()), isNull(), any(String.class), any(LocalDate.class),
+                any(LocalDate.class), any(LocalDateTime.class))).thenReturn(Optional.of(reservationInDB));
+        when(repository.cancelIfActive(eq(HOTEL_ID), eq(reservationInDB.getId()), isNull(), any(LocalDateTime.class))).thenReturn(Optional.of(reservationInDB));
+
+        service.modifyReservation(reservationInDB.getId(), reservationDTO);
+        service.cancelReservation(reservationInDB.getId());
+
+        verify(repository, times(1)).modifyIfAvailable(eq(HOTEL_ID), eq(reservationInDB.getId()), isNull(), any(String.class),
+                any(LocalDate.class), any(LocalDate.class), any(LocalDateTime.class));
+        verify(repository, times(1)).cancelIfActive(eq(HOTEL_ID), eq(reservationInDB.getId()), isNull(), any(LocalDateTime.class));
+        verifyNoMoreInteractions(repository);
+        verifyNoInteractions(occupancyRepository, holdRepository);
+    }
+
+    @Test
+    void cancelArchivedReservationReturnsAlreadyCancelled() {
+        when(repository.findByIdAndHotelId(1L, HOTEL_ID)).thenReturn(Optional.empty());
+        when(archiveRepository.existsByIdAndHotelIdAndCancelledTrue(1L, HOTEL_ID)).thenReturn(true);
+
+        Assertions.assertThrows(ReservationAlreadyCancelledException.class, () -> service.cancelReservation(1L));
+    }
+
+    @Test
+    void cancelUnknownReservationError() {
+        when(repository.findByIdAndHotelId(1L, HOTEL_ID)).thenReturn(Optional.empty());
+
+        Assertions.assertThrows(RoomNotAvailableException.class, () -> service.cancelReservation(1L));
+    }
+
     @Test
     void checkRoomAvailability() {
         LocalDate checkIn = LocalDate.now().plusDays(1);
@@ -290,12 +438,236 @@ class ReservationServiceImplTest {
                 .build();
 
 
-        when(repository.countByRoomIdAndDatesOverlap(room, checkIn, checkOut)).thenReturn(0);
+        when(roomNightsRepository.existsOccupiedNight(room.getId(), checkIn, checkOut)).thenReturn(false);
 
         ResponseDto response = service.checkRoomAvailability(checkIn, checkOut);
 
-        ArgumentCaptor<Room> roomCaptor = ArgumentCaptor.forClass(Room.class);
-        verify(repository, times(1)).countByRoomIdAndDatesOverlap(roomCaptor.capture(), eq(checkIn), eq(checkOut));
+        verify(roomNightsRepository, times(1)).existsOccupiedNight(room.getId(), checkIn, checkOut);
         assertEquals(expected, response);
     }
-}
\ No newline at end of file
+
+    @Test
+    void checkRoomAvailabilityFromSnapshotWhenTheDatabaseTimesOut() {
+        LocalDateTime takenAt = LocalDateTime.now();
+        AvailabilitySnapshot snapshot = new AvailabilitySnapshot(LocalDate.now(), takenAt);
+        snapshot.addHotelRoom(HOTEL_ID, room.getId());
+        snapshot.occupy(room.getId(), checkOut, checkOut.plusDays(1));
+        degradedAvailability.setSnapshot(snapshot);
+        when(roomNightsRepository.existsOccupiedNight(anyLong(), any(LocalDate.class), any(LocalDate.class)))
+                .thenThrow(new QueryTimeoutException("canceling statement due to statement timeout"));
+
+        ResponseDto response = service.checkRoomAvailability(checkIn, checkOut);
+
+        Assertions.assertFalse(response.isRoomAvailable());
+        Assertions.assertTrue(response.isStale());
+        assertEquals(takenAt, response.getSnapshotTakenAt());
+        assertEquals(ResponseDto.builder()
+                        .roomAvailable(true)
+                        .checkInDate(checkIn)
+                        .checkOutDate(checkOut.minusDays(1))
+                        .stale(true)
+                        .snapshotTakenAt(takenAt)
+                        .message("The room was available for these dates at " + takenAt)
+                        .build(),
+                service.checkRoomAvailability(checkIn, checkOut.minusDays(1)));
+    }
+
+    @Test
+    void placeHoldWithSuccess() {
+        ReservationDTO reservationDto = ReservationDTO.builder()
+                .guestName("Oscar Abril")
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .build();
+
+        when(holdRepository.save(any(ReservationHold.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.placeHold(reservationDto);
+
+        ArgumentCaptor<ReservationHold> holdCaptor = ArgumentCaptor.forClass(ReservationHold.class);
+        verify(holdRepository, times(1)).save(holdCaptor.capture());
+        ReservationHold hold = holdCaptor.getValue();
+        assertEquals(checkIn, hold.getCheckInDate());
+        assertEquals(checkOut, hold.getCheckOutDate());
+        Assertions.assertTrue(hold.getExpiresAt().isAfter(hold.getCreatedAt()));
+        verify(mapper, times(1)).map(hold, HoldDTO.class);
+    }
+
+    @Test
+    void createReservationWithRoomHeldError() {
+        ReservationDTO reservationDto = ReservationDTO.builder()
+                .guestName("Oscar Abril")
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .build();
+
+        when(holdRepository.countByRoomIdAndDatesOverlap(any(Room.class), any(LocalDate.class), any(LocalDate.class), any(LocalDateTime.class))).thenReturn(1);
+
+        Assertions.assertThrows(RoomNotAvailableException.class, () -> service.placeReservation(reservationDto));
+        verify(repository, never()).save(any(Reservation.class));
+    }
+
+    @Test
+    void confirmHoldWithSuccess() {
+        ReservationHold hold = ReservationHold.builder()
+                .id(7L)
+                .guestName("Oscar Abril")
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .createdAt(LocalDateTime.now().minusMinutes(2))
+                .expiresAt(LocalDateTime.now().plusMinutes(8))
+                .room(room)
+                .build();
+
+        when(holdRepository.findByIdAndHotelIdAndExpiresAtAfter(eq(hold.getId()), eq(HOTEL_ID), any(LocalDateTime.class))).thenReturn(Optional.of(hold));
+        when(repository.save(any(Reservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.confirmHold(hold.getId());
+
+        ArgumentCaptor<Reservation> reservationCaptor = ArgumentCaptor.forClass(Reservation.class);
+        verify(repository, times(1)).save(reservationCaptor.capture());
+        assertEquals(hold.getGuestName(), reservationCaptor.getValue().getGuestName());
+        assertEquals(hold.getCheckInDate(), reservationCaptor.getValue().getCheckInDate());
+        assertEquals(false, reservationCaptor.getValue().getCancelled());
+        verify(holdRepository, times(1)).delete(hold);
+    }
+
+    @Test
+    void confirmExpiredHoldError() {
+        when(holdRepository.findByIdAndHotelIdAndExpiresAtAfter(eq(7L), eq(HOTEL_ID), any(LocalDateTime.class))).thenReturn(Optional.empty());
+
+        Assertions.assertThrows(HoldExpiredException.class, () -> service.confirmHold(7L));
+        verify(repository, never()).save(any(Reservation.class));
+    }
+
+    @Test
+    void searchByPrefixEscapesWildcards() {
+        Pageable pageable = PageRequest.of(0, 20);
+        when(repository.findByGuestNamePrefix(eq(HOTEL_ID), any(String.class), eq(pageable))).thenReturn(Page.empty());
+
+        service.searchReservations(" Oscar_50% ", false, pageable);
+
+        verify(repository, times(1)).findByGuestNamePrefix(HOTEL_ID, "Oscar\\_50\\%", pageable);
+        verify(repository, never()).findByGuestNameSimilarTo(anyLong(), any(String.class), any(Pageable.class));
+    }
+
+    @Test
+    void fuzzySearchUsesSimilarity() {
+        Pageable pageable = PageRequest.of(0, 20);
+        when(repository.findByGuestNameSimilarTo(eq(HOTEL_ID), any(String.class), eq(pageable))).thenReturn(Page.empty());
+
+        service.searchReservations("Osacr", true, pageable);
+
+        verify(repository, times(1)).findByGuestNameSimilarTo(HOTEL_ID, "Osacr", pageable);
+    }
+
+    @Test
+    void searchWithBlankNameError() {
+        Assertions.assertThrows(InvalidReservationException.class, () -> service.searchReservations(" ", false, PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void placeGroupReservationWithSuccess() {
+        Room standard1 = Room.builder().id(1L).roomType(RoomType.STANDARD).build();
+        Room standard2 = Room.builder().id(2L).roomType(RoomType.STANDARD).build();
+        Room suite = Room.builder().id(3L).roomType(RoomType.SUITE).build();
+        GroupReservationDTO requestDto = GroupReservationDTO.builder()
+                .guestName("Wedding Abril")
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .rooms(List.of(new GroupRoomDTO(RoomType.STANDARD, 1), new GroupRoomDTO(RoomType.SUITE, 1)))
+                .build();
+
+        when(roomRepository.lockAvailableRooms(eq(HOTEL_ID), anyCollection(), eq(checkIn), eq(checkOut), any(LocalDateTime.class)))
+                .thenReturn(List.of(standard1, standard2, suite));
+        when(repository.insertForRooms(anyList(), eq("Wedding Abril"), eq(checkIn), eq(checkOut), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> {
+                    List<Room> rooms = invocation.getArgument(0);
+                    return rooms.stream()
+                            .map(allocated -> Reservation.builder().id(allocated.getId() + 100).room(allocated).build())
+                            .collect(Collectors.toList());
+                });
+
+        GroupReservationResponseDto response = service.placeGroupReservation(requestDto);
+
+        assertEquals(2, response.getReservations().size());
+        assertEquals(1L, response.getReservations().get(0).getRoomId());
+        assertEquals(3L, response.getReservations().get(1).getRoomId());
+        assertEquals(103L, response.getReservations().get(1).getReservationId());
+        verify(occupancyRepository, times(1)).addStays(List.of(1L, 3L), checkIn, checkOut, 1);
+    }
+
+    @Test
+    void placeGroupReservationWithNotEnoughRoomsError() {
+        GroupReservationDTO requestDto = GroupReservationDTO.builder()
+                .guestName("Wedding Abril")
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .rooms(List.of(new GroupRoomDTO(RoomType.DELUXE, 1), new GroupRoomDTO(RoomType.DELUXE, 1)))
+                .build();
+
+        when(roomRepository.lockAvailableRooms(eq(HOTEL_ID), anyCollection(), eq(checkIn), eq(checkOut), any(LocalDateTime.class)))
+                .thenReturn(List.of(Room.builder().id(4L).roomType(RoomType.DELUXE).build()));
+
+        Assertions.assertThrows(RoomNotAvailableException.class, () -> service.placeGroupReservation(requestDto));
+        verify(repository, never()).insertForRooms(anyList(), any(), any(), any(), any());
+    }
+
+    @Test
+    void modifyReservationWithStaleVersionError() {
+        Reservation reservationInDB = Reservation.builder()
+                .id(1L)
+                .guestName("Oscar Abril")
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .room(room)
+                .cancelled(false)
+                .version(4L)
+                .build();
+        ReservationDTO reservationDTO = ReservationDTO.builder()
+                .guestName("Oscar Abril")
+                .checkInDate(checkOut)
+                .checkOutDate(checkOut.plusDays(1))
+                .build();
+
+        when(repository.findByIdAndHotelId(reservationInDB.getId(), HOTEL_ID)).thenReturn(Optional.of(reservationInDB));
+
+        Assertions.assertThrows(ReservationVersionMismatchException.class, () -> service.modifyReservation(1L, reservationDTO, 3L));
+        verify(repository, times(1)).modifyIfAvailable(eq(HOTEL_ID), eq(1L), eq(3L), any(String.class), any(LocalDate.class),
+                any(LocalDate.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void cancelReservationWithStaleVersionError() {
+        Reservation reservationInDB = Reservation.builder()
+                .id(1L)
+                .guestName("Oscar Abril")
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .room(room)
+                .cancelled(false)
+                .version(5L)
+                .build();
+
+        when(repository.findByIdAndHotelId(reservationInDB.getId(), HOTEL_ID)).thenReturn(Optional.of(reservationInDB));
+
+        Assertions.assertThrows(ReservationVersionMismatchException.class, () -> service.cancelReservation(1L, 4L));
+    }
+
+    @Test
+    void cancelReservationChangedConcurrentlyError() {
+        Reservation reservationInDB = Reservation.builder()
+                .id(1L)
+                .guestName("Oscar Abril")
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .room(room)
+                .cancelled(false)
+                .version(5L)
+                .build();
+
+        when(repository.findByIdAndHotelId(reservationInDB.getId(), HOTEL_ID)).thenReturn(Optional.of(reservationInDB));
+
+        Assertions.assertThrows(ReservationConflictException.class, () -> service.cancelReservation(1L));
+    }
+}
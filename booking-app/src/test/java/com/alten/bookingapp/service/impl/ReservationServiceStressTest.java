@@ -0,0 +1,332 @@
+package com.alten.bookingapp.service.impl;
+
+import com.alten.bookingapp.config.HotelContext;
+import com.alten.bookingapp.exception.ReservationConflictException;
+import com.alten.bookingapp.model.dto.GroupReservationDTO;
+import com.alten.bookingapp.model.dto.GroupRoomDTO;
+import com.alten.bookingapp.model.dto.ReservationDTO;
+import com.alten.bookingapp.model.entities.RoomType;
+import com.alten.bookingapp.service.ReservationService;
+import com.alten.bookingcore.exception.InvalidReservationException;
+import com.alten.bookingcore.exception.ReservationAlreadyCancelledException;
+import com.alten.bookingcore.exception.RoomNotAvailableException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fires thousands of conflicting bookings, group bookings, modifications and cancellations from many threads at the
+ * {@link ReservationService}, against a real PostgreSQL with the production migrations, then checks that no room was
+ * double-booked and that the daily occupancy matches the bookings, and logs the throughput and latency percentiles.
+ * It also replays, step by step, a modification racing with a hold placed on its new dates.
+ * <p>
+ * Every change to the concurrency or caching of the booking path must keep this test green. It needs Docker and only
+ * runs with the {@code stress} Maven profile: {@code ./mvnw test -Pstress}.
+ */
+@Tag("stress")
+@Testcontainers
+@SpringBootTest(properties = "reservation.warmup.enabled=false")
+class ReservationServiceStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationServiceStressTest.class);
+
+    private static final int THREADS = 32;
+    private static final int OPERATIONS = 5_000;
+    private static final int ROOMS = 10;
+    private static final String GUEST_NAME = "Stress guest";
+    private static final long HOLD_HOTEL_ID = 2L;
+    private static final long HOLD_ROOM_ID = 200L;
+
+    private static final String OVERLAPPING_RESERVATIONS = "SELECT COUNT(*) FROM reservation a " +
+            "JOIN reservation b ON b.hotel_id = a.hotel_id AND b.room_id = a.room_id AND b.id > a.id " +
+            "WHERE a.cancelled = false AND b.cancelled = false " +
+            "AND a.check_out_date >= b.check_in_date AND a.check_in_date <= b.check_out_date";
+
+    private static final String MISCOUNTED_OCCUPANCY = "WITH expected AS (" +
+            "SELECT s.hotel_id, CAST(d AS date) AS day, rm.room_type, COUNT(*) AS occupied_rooms " +
+            "FROM (SELECT hotel_id, room_id, check_in_date, check_out_date FROM reservation " +
+            "WHERE cancelled = false " +
+            "UNION ALL " +
+            "SELECT hotel_id, room_id, check_in_date, check_out_date FROM reservation_archive " +
+            "WHERE cancelled = false) s " +
+            "JOIN room rm ON rm.id = s.room_id " +
+            "CROSS JOIN generate_series(s.check_in_date, s.check_out_date, interval '1 day') d " +
+            "GROUP BY s.hotel_id, CAST(d AS date), rm.room_type) " +
+            "SELECT COUNT(*) FROM expected e " +
+            "FULL JOIN (SELECT * FROM daily_occupancy WHERE occupied_rooms <> 0) o " +
+            "ON o.hotel_id = e.hotel_id AND o.day = e.day AND o.room_type = e.room_type " +
+            "WHERE o.occupied_rooms IS DISTINCT FROM e.occupied_rooms";
+
+    private static final String INSERT_HOLD = "INSERT INTO reservation_hold " +
+            "(hotel_id, room_id, guest_name, check_in_date, check_out_date, created_at, expires_at) " +
+            "VALUES (?, ?, ?, ?, ?, now(), now() + interval '1 hour') " +
+            "RETURNING id";
+
+    private static final String LOCK_WAITS = "SELECT COUNT(*) FROM pg_stat_activity " +
+            "WHERE datname = current_database() AND wait_event_type = 'Lock'";
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void databaseProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("flyway_locations", () -> "classpath:db/migration");
+    }
+
+    @Value("${reservation.max-stay-days}")
+    private int MAX_STAY_DAYS;
+
+    @Value("${reservation.max-advance-booking-days}")
+    private int MAX_ADVANCE_BOOKING_DAYS;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private enum Operation {
+        BOOK, GROUP_BOOK, MODIFY, CANCEL
+    }
+
+    private enum Outcome {
+        BOOKED, REJECTED, FAILED
+    }
+
+    @Test
+    void concurrentBookingsNeverOverlap() throws InterruptedException {
+        jdbcTemplate.update("INSERT INTO room (id, hotel_id, number_of_beds, room_type) " +
+                "SELECT g, 1, 2, 'STANDARD' FROM generate_series(2, ?) g", ROOMS);
+
+        Operation[] operations = new Operation[OPERATIONS];
+        Outcome[] outcomes = new Outcome[OPERATIONS];
+        long[] latencies = new long[OPERATIONS];
+        List<Long> reservationIds = Collections.synchronizedList(new ArrayList<>());
+        Queue<RuntimeException> failures = new ConcurrentLinkedQueue<>();
+        AtomicInteger next = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            executor.execute(() -> {
+                awaitQuietly(start);
+                Random random = ThreadLocalRandom.current();
+                int i;
+                while ((i = next.getAndIncrement()) < OPERATIONS) {
+                    operations[i] = pickOperation(random, reservationIds);
+                    long begin = System.nanoTime();
+                    try {
+                        run(operations[i], random, reservationIds);
+                        outcomes[i] = Outcome.BOOKED;
+                    } catch (RoomNotAvailableException | ReservationConflictException
+                             | ReservationAlreadyCancelledException | InvalidReservationException e) {
+                        outcomes[i] = Outcome.REJECTED;
+                    } catch (RuntimeException e) {
+                        outcomes[i] = Outcome.FAILED;
+                        failures.add(e);
+                    }
+                    latencies[i] = System.nanoTime() - begin;
+                }
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.MINUTES), "The stress test did not finish in time");
+        long elapsed = System.nanoTime() - begin;
+
+        report(operations, outcomes, latencies, elapsed);
+        RuntimeException firstFailure = failures.peek();
+        assertTrue(failures.isEmpty(), () -> failures.size() + " operations failed, first with " + firstFailure);
+        assertTrue(Arrays.stream(outcomes).anyMatch(outcome -> outcome == Outcome.BOOKED), "No operation succeeded");
+        assertEquals(0L, jdbcTemplate.queryForObject(OVERLAPPING_RESERVATIONS, Long.class),
+                "Active reservations of the same room overlap");
+        assertEquals(0L, jdbcTemplate.queryForObject(MISCOUNTED_OCCUPANCY, Long.class),
+                "The daily occupancy does not match the reservations");
+    }
+
+    /**
+     * A hold committed while a modification waits for the lock of the room must stop the modification, or the hold
+     * could no longer be confirmed. The room is locked by a transaction that places the hold only once the
+     * modification is waiting for the lock. The rooms of a hotel of their own keep the other test out of the way.
+     */
+    @Test
+    void modificationWaitingForTheRoomSeesTheHoldPlacedMeanwhile() throws Exception {
+        jdbcTemplate.update("INSERT INTO hotel (id, name) VALUES (?, 'Hold hotel')", HOLD_HOTEL_ID);
+        jdbcTemplate.update("INSERT INTO room (id, hotel_id, number_of_beds, room_type) VALUES (?, ?, 1, 'STANDARD')",
+                HOLD_ROOM_ID, HOLD_HOTEL_ID);
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        LocalDate heldCheckIn = checkIn.plusDays(10);
+        CountDownLatch locked = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        HotelContext.setHotelId(HOLD_HOTEL_ID);
+        try {
+            Long reservationId = reservationService.placeReservation(request(checkIn, checkIn.plusDays(1))).getId();
+
+            Future<Long> holdId = executor.submit(() -> new TransactionTemplate(transactionManager).execute(status -> {
+                jdbcTemplate.queryForList("SELECT id FROM room WHERE id = ? FOR UPDATE", Long.class, HOLD_ROOM_ID);
+                locked.countDown();
+                awaitLockWait();
+                return jdbcTemplate.queryForObject(INSERT_HOLD, Long.class, HOLD_HOTEL_ID, HOLD_ROOM_ID, GUEST_NAME,
+                        heldCheckIn, heldCheckIn.plusDays(1));
+            }));
+            assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+            assertThrows(RoomNotAvailableException.class, () -> reservationService.modifyReservation(reservationId,
+                    request(heldCheckIn, heldCheckIn.plusDays(1)), null));
+            assertEquals(heldCheckIn, reservationService.confirmHold(holdId.get(10, TimeUnit.SECONDS))
+                    .getCheckInDate());
+        } finally {
+            HotelContext.clear();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits until a statement of another transaction is blocked on a lock.
+     */
+    private void awaitLockWait() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (jdbcTemplate.queryForObject(LOCK_WAITS, Long.class) == 0) {
+            assertTrue(System.nanoTime() < deadline, "No statement waited for the room lock");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static ReservationDTO request(LocalDate checkIn, LocalDate checkOut) {
+        return ReservationDTO.builder()
+                .guestName(GUEST_NAME)
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .build();
+    }
+
+    /**
+     * Mostly single-room bookings, which all compete for the same room, with group bookings taking rooms from the same
+     * pool and modifications and cancellations of the reservations made so far.
+     */
+    private static Operation pickOperation(Random random, List<Long> reservationIds) {
+        int draw = random.nextInt(10);
+        if (reservationIds.isEmpty() || draw < 5) {
+            return Operation.BOOK;
+        }
+        if (draw < 7) {
+            return Operation.GROUP_BOOK;
+        }
+        return draw < 9 ? Operation.MODIFY : Operation.CANCEL;
+    }
+
+    private void run(Operation operation, Random random, List<Long> reservationIds) {
+        LocalDate checkIn = LocalDate.now().plusDays(1 + random.nextInt(MAX_ADVANCE_BOOKING_DAYS));
+        LocalDate checkOut = checkIn.plusDays(random.nextInt(MAX_STAY_DAYS));
+        ReservationDTO request = request(checkIn, checkOut);
+        switch (operation) {
+            case BOOK:
+                reservationIds.add(reservationService.placeReservation(request).getId());
+                break;
+            case GROUP_BOOK:
+                reservationService.placeGroupReservation(GroupReservationDTO.builder()
+                                .guestName(GUEST_NAME)
+                                .checkInDate(checkIn)
+                                .checkOutDate(checkOut)
+                                .rooms(List.of(new GroupRoomDTO(RoomType.STANDARD, 1 + random.nextInt(3))))
+                                .build())
+                        .getReservations()
+                        .forEach(allocation -> reservationIds.add(allocation.getReservationId()));
+                break;
+            case MODIFY:
+                reservationService.modifyReservation(randomId(random, reservationIds), request, null);
+                break;
+            case CANCEL:
+                reservationService.cancelReservation(randomId(random, reservationIds), null);
+                break;
+        }
+    }
+
+    private static Long randomId(Random random, List<Long> reservationIds) {
+        synchronized (reservationIds) {
+            return reservationIds.get(random.nextInt(reservationIds.size()));
+        }
+    }
+
+    private static void report(Operation[] operations, Outcome[] outcomes, long[] latencies, long elapsed) {
+        log.info("{} operations from {} threads in {} ms: {} operations/s", OPERATIONS, THREADS,
+                TimeUnit.NANOSECONDS.toMillis(elapsed), String.format("%.0f", OPERATIONS * 1e9 / elapsed));
+        for (Operation operation : Operation.values()) {
+            long[] sorted = new long[OPERATIONS];
+            int count = 0;
+            int booked = 0;
+            int rejected = 0;
+            for (int i = 0; i < OPERATIONS; i++) {
+                if (operations[i] == operation) {
+                    sorted[count++] = latencies[i];
+                    booked += outcomes[i] == Outcome.BOOKED ? 1 : 0;
+                    rejected += outcomes[i] == Outcome.REJECTED ? 1 : 0;
+                }
+            }
+            if (count == 0) {
+                continue;
+            }
+            Arrays.sort(sorted, 0, count);
+            log.info("{}: {} done, {} rejected, {} failed, latency p50 {} ms, p95 {} ms, p99 {} ms, max {} ms",
+                    operation, booked, rejected, count - booked - rejected, millis(sorted, count, 0.50),
+                    millis(sorted, count, 0.95), millis(sorted, count, 0.99), millis(sorted, count, 1.0));
+        }
+    }
+
+    private static String millis(long[] sorted, int count, double percentile) {
+        int index = Math.min(count - 1, (int) Math.ceil(percentile * count) - 1);
+        return String.format("%.2f", sorted[Math.max(index, 0)] / 1e6);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
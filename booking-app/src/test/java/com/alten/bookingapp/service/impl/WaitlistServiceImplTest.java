@@ -0,0 +1,156 @@
+package com.alten.bookingapp.service.impl;
+
+import com.alten.bookingapp.config.BookingCoreConfig;
+import com.alten.bookingapp.config.HotelContext;
+import com.alten.bookingapp.event.StayReleasedEvent;
+import com.alten.bookingapp.model.dto.ReservationDTO;
+import com.alten.bookingapp.model.entities.Reservation;
+import com.alten.bookingapp.model.entities.Room;
+import com.alten.bookingapp.model.entities.WaitlistEntry;
+import com.alten.bookingapp.repository.DailyOccupancyRepository;
+import com.alten.bookingapp.repository.ReservationHoldRepository;
+import com.alten.bookingapp.repository.ReservationRepository;
+import com.alten.bookingapp.repository.RoomNightsRepository;
+import com.alten.bookingapp.repository.RoomRepository;
+import com.alten.bookingapp.repository.WaitlistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = {WaitlistServiceImpl.class, BookingCoreConfig.class})
+class WaitlistServiceImplTest {
+
+    private static final Long HOTEL_ID = HotelContext.DEFAULT_HOTEL_ID;
+
+    @MockBean
+    private WaitlistRepository waitlistRepository;
+
+    @MockBean
+    private ReservationRepository reservationRepository;
+
+    @MockBean
+    private ReservationHoldRepository holdRepository;
+
+    @MockBean
+    private DailyOccupancyRepository occupancyRepository;
+
+    @MockBean
+    private RoomNightsRepository roomNightsRepository;
+
+    @MockBean
+    private RoomRepository roomRepository;
+
+    @MockBean
+    private ModelMapper mapper;
+
+    @Autowired
+    private WaitlistServiceImpl service;
+
+    private final Room room = Room.builder().id(1L).hotelId(HOTEL_ID).build();
+
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+
+    @BeforeEach
+    void setUp() {
+        checkIn = LocalDate.now().plusDays(10L);
+        checkOut = checkIn.plusDays(2L);
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            reservation.setId(100L);
+            return reservation;
+        });
+    }
+
+    @Test
+    void fulfilWaitlistBooksTheEntriesInOrderWhileAvailable() {
+        WaitlistEntry first = entry(1L, checkIn, checkOut);
+        WaitlistEntry second = entry(2L, checkOut, checkOut.plusDays(1));
+        WaitlistEntry third = entry(3L, checkOut.plusDays(2), checkOut.plusDays(2));
+        when(waitlistRepository.lockWaitingOverlapping(eq(room.getId()), eq(checkIn), eq(checkOut.plusDays(2)),
+                any(LocalDate.class))).thenReturn(List.of(first, second, third));
+        when(roomNightsRepository.existsOccupiedNight(room.getId(), checkIn, checkOut)).thenReturn(false);
+        when(roomNightsRepository.existsOccupiedNight(room.getId(), checkOut, checkOut.plusDays(1))).thenReturn(true);
+        when(roomNightsRepository.existsOccupiedNight(room.getId(), checkOut.plusDays(2), checkOut.plusDays(2)))
+                .thenReturn(false);
+
+        int booked = service.fulfilWaitlist(new StayReleasedEvent(HOTEL_ID, room.getId(), checkIn,
+                checkOut.plusDays(2)));
+
+        assertEquals(2, booked);
+        assertEquals(100L, first.getReservationId());
+        assertNotNull(first.getFulfilledAt());
+        assertNull(second.getReservationId());
+        assertEquals(100L, third.getReservationId());
+        verify(roomRepository, times(1)).lockById(room.getId());
+        verify(occupancyRepository, times(1)).addStay(room.getId(), checkIn, checkOut, 1);
+        verify(occupancyRepository, times(1)).addStay(room.getId(), checkOut.plusDays(2), checkOut.plusDays(2), 1);
+        verify(roomNightsRepository, times(1)).occupy(room.getId(), checkIn, checkOut);
+        verify(roomNightsRepository, times(1)).occupy(room.getId(), checkOut.plusDays(2), checkOut.plusDays(2));
+    }
+
+    @Test
+    void joinWaitlistWhenTheRoomIsBookedWaits() {
+        ReservationDTO request = ReservationDTO.builder()
+                .guestName("Oscar Abril")
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .build();
+        when(roomRepository.findFirstByHotelIdOrderByIdAsc(HOTEL_ID)).thenReturn(Optional.of(room));
+        when(roomNightsRepository.existsOccupiedNight(room.getId(), checkIn, checkOut)).thenReturn(true);
+        when(waitlistRepository.save(any(WaitlistEntry.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.joinWaitlist(request);
+
+        ArgumentCaptor<WaitlistEntry> saved = ArgumentCaptor.forClass(WaitlistEntry.class);
+        verify(waitlistRepository, times(1)).save(saved.capture());
+        assertNull(saved.getValue().getReservationId());
+        assertEquals(checkIn, saved.getValue().getCheckInDate());
+        verify(reservationRepository, never()).save(any(Reservation.class));
+    }
+
+    @Test
+    void joinWaitlistWhenTheRoomIsAvailableBooksRightAway() {
+        ReservationDTO request = ReservationDTO.builder()
+                .guestName("Oscar Abril")
+                .checkInDate(checkIn)
+                .checkOutDate(checkOut)
+                .build();
+        when(roomRepository.findFirstByHotelIdOrderByIdAsc(HOTEL_ID)).thenReturn(Optional.of(room));
+        when(waitlistRepository.save(any(WaitlistEntry.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.joinWaitlist(request);
+
+        ArgumentCaptor<WaitlistEntry> saved = ArgumentCaptor.forClass(WaitlistEntry.class);
+        verify(waitlistRepository, times(1)).save(saved.capture());
+        assertEquals(100L, saved.getValue().getReservationId());
+        verify(occupancyRepository, times(1)).addStay(room.getId(), checkIn, checkOut, 1);
+    }
+
+    private WaitlistEntry entry(Long id, LocalDate checkInDate, LocalDate checkOutDate) {
+        return WaitlistEntry.builder()
+                .id(id)
+                .hotelId(HOTEL_ID)
+                .guestName("Guest " + id)
+                .checkInDate(checkInDate)
+                .checkOutDate(checkOutDate)
+                .createdAt(LocalDateTime.now())
+                .room(room)
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package com.alten.bookingapp.testUtil;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Tracer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Provides a tracer that records nothing, for the tests that do not load the tracing configuration.
+ */
+@TestConfiguration
+public class NoopTracingConfig {
+
+    @Bean
+    public Tracer tracer() {
+        return OpenTelemetry.noop().getTracer("test");
+    }
+}
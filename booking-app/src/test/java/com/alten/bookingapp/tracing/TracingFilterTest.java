@@ -0,0 +1,95 @@
+package com.alten.bookingapp.tracing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TracingFilterTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String NGINX_SPAN_ID = "4bf92f3577b34da6";
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private SdkTracerProvider tracerProvider;
+    private TracingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("traces.jsonl");
+        tracerProvider = SdkTracerProvider.builder()
+                .setSampler(Sampler.parentBased(Sampler.alwaysOff()))
+                .addSpanProcessor(SimpleSpanProcessor.create(new FileSpanExporter(file)))
+                .build();
+        filter = new TracingFilter(ContextPropagators.create(W3CTraceContextPropagator.getInstance()),
+                tracerProvider.get(TracingConfig.INSTRUMENTATION_NAME));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Test
+    void continuesTheTraceSampledByNginx() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/bookings/availability");
+        request.addHeader("traceparent", "00-" + TRACE_ID + "-" + NGINX_SPAN_ID + "-01");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<String> childTraceIds = new ArrayList<>();
+
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+                childTraceIds.add(Span.current().getSpanContext().getTraceId());
+            }
+        }));
+
+        assertEquals(TRACE_ID, response.getHeader(TracingFilter.TRACE_ID_HEADER));
+        assertEquals(List.of(TRACE_ID), childTraceIds);
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(1, lines.size());
+        JsonNode span = new ObjectMapper().readTree(lines.get(0));
+        assertEquals(TRACE_ID, span.get("traceId").asText());
+        assertEquals(NGINX_SPAN_ID, span.get("parentSpanId").asText());
+        assertEquals("SERVER", span.get("kind").asText());
+        assertEquals(200, span.get("attributes").get("http.status_code").asInt());
+    }
+
+    @Test
+    void recordsNothingForATraceNotSampledByNginx() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/bookings");
+        request.addHeader("traceparent", "00-" + TRACE_ID + "-" + NGINX_SPAN_ID + "-00");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertNull(response.getHeader(TracingFilter.TRACE_ID_HEADER));
+        assertTrue(Files.notExists(file));
+    }
+}
@@ -0,0 +1,165 @@
+package com.alten.bookingcore;
+
+import com.alten.bookingcore.exception.InvalidCheckInDateException;
+import com.alten.bookingcore.exception.InvalidCheckOutDateException;
+import com.alten.bookingcore.exception.InvalidReservationException;
+import com.alten.bookingcore.exception.ReservationAlreadyCancelledException;
+import com.alten.bookingcore.exception.ReservationVersionMismatchException;
+import com.alten.bookingcore.exception.RoomNotAvailableException;
+import com.alten.bookingcore.spi.ReservationStore;
+import com.alten.bookingcore.spi.StoredReservation;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Books, modifies and cancels reservations in-process, applying the {@link BookingRules} on top of a
+ * {@link ReservationStore}, without any framework.
+ * <p>
+ * The changes of a room are serialized by a lock shared by the rooms of the same stripe, so the availability check
+ * and the write of a booking cannot interleave with another booking of the room. Availability checks take no lock.
+ */
+public class BookingEngine {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final BookingRules rules;
+    private final ReservationStore store;
+    private final Object[] roomLocks = new Object[LOCK_STRIPES];
+
+    public BookingEngine(BookingRules rules, ReservationStore store) {
+        this.rules = rules;
+        this.store = store;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            roomLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * Tells whether the room is available for the stay.
+     *
+     * @throws InvalidCheckInDateException  if the check-in date is not valid
+     * @throws InvalidCheckOutDateException if the check-out date is not valid
+     * @throws InvalidReservationException  if the stay is too long
+     */
+    public boolean isAvailable(long roomId, LocalDate checkIn, LocalDate checkOut) {
+        rules.validateStay(checkIn, checkOut);
+        return !store.hasOverlap(roomId, checkIn, checkOut, 0);
+    }
+
+    /**
+     * Books the room for the stay.
+     *
+     * @return the new reservation
+     * @throws InvalidCheckInDateException  if the check-in date is not valid
+     * @throws InvalidCheckOutDateException if the check-out date is not valid
+     * @throws InvalidReservationException  if the stay is too long
+     * @throws RoomNotAvailableException    if the room is already booked for some of the dates
+     */
+    public StoredReservation book(long roomId, String guestName, LocalDate checkIn, LocalDate checkOut) {
+        rules.validateStay(checkIn, checkOut);
+        synchronized (roomLock(roomId)) {
+            if (store.hasOverlap(roomId, checkIn, checkOut, 0)) {
+                throw new RoomNotAvailableException("The room is already booked for this dates");
+            }
+            return store.insert(roomId, guestName, checkIn, checkOut, LocalDateTime.now(rules.getClock()));
+        }
+    }
+
+    /**
+     * Moves a reservation to other dates, in the same room.
+     *
+     * @return the modified reservation
+     * @throws InvalidCheckInDateException          if the check-in date is not valid
+     * @throws InvalidCheckOutDateException         if the check-out date is not valid
+     * @throws InvalidReservationException          if the stay is too long or has the same dates
+     * @throws RoomNotAvailableException            if the reservation does not exist, or the room is already booked
+     *                                              for some of the dates
+     * @throws ReservationAlreadyCancelledException if the reservation is cancelled
+     */
+    public StoredReservation modify(long id, String guestName, LocalDate checkIn, LocalDate checkOut) {
+        return modify(id, guestName, checkIn, checkOut, null);
+    }
+
+    /**
+     * Moves a reservation to other dates, in the same room, if it still has the expected version.
+     *
+     * @param expectedVersion the version the reservation must have, or null to modify its latest version
+     * @return the modified reservation
+     * @throws ReservationVersionMismatchException if the reservation does not have the expected version
+     * @see #modify(long, String, LocalDate, LocalDate)
+     */
+    public StoredReservation modify(long id, String guestName, LocalDate checkIn, LocalDate checkOut,
+                                    Long expectedVersion) {
+        rules.validateStay(checkIn, checkOut);
+        StoredReservation current = find(id);
+        synchronized (roomLock(current.getRoomId())) {
+            current = find(id);
+            checkVersion(current, expectedVersion);
+            if (current.isCancelled()) {
+                throw new ReservationAlreadyCancelledException("Reservation with id " + id + " was already cancelled. You can't modify it!");
+            }
+            rules.validateDifferentDates(current.getCheckInDate(), current.getCheckOutDate(), checkIn, checkOut);
+            if (store.hasOverlap(current.getRoomId(), checkIn, checkOut, id)) {
+                throw new RoomNotAvailableException("The room is already booked for this dates");
+            }
+            StoredReservation modified = current.withStay(guestName, checkIn, checkOut,
+                    LocalDateTime.now(rules.getClock()));
+            store.update(current, modified);
+            return modified;
+        }
+    }
+
+    /**
+     * Cancels a reservation, which frees its dates.
+     *
+     * @return the cancelled reservation
+     * @throws RoomNotAvailableException            if the reservation does not exist
+     * @throws ReservationAlreadyCancelledException if the reservation is already cancelled
+     */
+    public StoredReservation cancel(long id) {
+        return cancel(id, null);
+    }
+
+    /**
+     * Cancels a reservation, which frees its dates, if it still has the expected version.
+     *
+     * @param expectedVersion the version the reservation must have, or null to cancel its latest version
+     * @return the cancelled reservation
+     * @throws ReservationVersionMismatchException if the reservation does not have the expected version
+     * @see #cancel(long)
+     */
+    public StoredReservation cancel(long id, Long expectedVersion) {
+        StoredReservation current = find(id);
+        synchronized (roomLock(current.getRoomId())) {
+            current = find(id);
+            checkVersion(current, expectedVersion);
+            if (current.isCancelled()) {
+                throw new ReservationAlreadyCancelledException("Reservation with id " + id + " was already cancelled");
+            }
+            StoredReservation cancelled = current.asCancelled(LocalDateTime.now(rules.getClock()));
+            store.update(current, cancelled);
+            return cancelled;
+        }
+    }
+
+    public BookingRules getRules() {
+        return rules;
+    }
+
+    private StoredReservation find(long id) {
+        return store.findById(id)
+                .orElseThrow(() -> new RoomNotAvailableException("Reservation with id " + id + " not found."));
+    }
+
+    private static void checkVersion(StoredReservation reservation, Long expectedVersion) {
+        if (expectedVersion != null && reservation.getVersion() != expectedVersion) {
+            throw new ReservationVersionMismatchException("Reservation with id " + reservation.getId()
+                    + " has been modified since version " + expectedVersion);
+        }
+    }
+
+    private Object roomLock(long roomId) {
+        return roomLocks[(int) Math.floorMod(roomId, (long) LOCK_STRIPES)];
+    }
+}
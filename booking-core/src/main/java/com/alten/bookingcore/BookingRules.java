@@ -0,0 +1,123 @@
+package com.alten.bookingcore;
+
+import com.alten.bookingcore.exception.InvalidCheckInDateException;
+import com.alten.bookingcore.exception.InvalidCheckOutDateException;
+import com.alten.bookingcore.exception.InvalidReservationException;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * The rules every stay must follow, whatever the storage of the reservations. Stays are inclusive: a stay occupies
+ * the room from its check-in date to its check-out date, both included.
+ */
+public final class BookingRules {
+
+    private final int maxStayDays;
+    private final int maxAdvanceBookingDays;
+    private final Clock clock;
+
+    /**
+     * @param maxStayDays           the maximum number of days of a stay, check-in and check-out dates included
+     * @param maxAdvanceBookingDays the number of days after today within which a stay must start
+     */
+    public BookingRules(int maxStayDays, int maxAdvanceBookingDays) {
+        this(maxStayDays, maxAdvanceBookingDays, Clock.systemDefaultZone());
+    }
+
+    public BookingRules(int maxStayDays, int maxAdvanceBookingDays, Clock clock) {
+        this.maxStayDays = maxStayDays;
+        this.maxAdvanceBookingDays = maxAdvanceBookingDays;
+        this.clock = clock;
+    }
+
+    /**
+     * Validates the dates of a new stay.
+     *
+     * @throws InvalidCheckInDateException  if the check-in date is not between tomorrow and the maximum advance
+     * @throws InvalidCheckOutDateException if the check-out date is before the check-in date
+     * @throws InvalidReservationException  if the stay is longer than the maximum stay
+     */
+    public void validateStay(LocalDate checkIn, LocalDate checkOut) {
+        validateCheckInDate(checkIn);
+        validateCheckOutDate(checkIn, checkOut);
+        validateMaxStayDays(checkIn, checkOut);
+    }
+
+    /**
+     * Validates that the check-in date is within the acceptable range of dates.
+     *
+     * @param checkIn The check-in date to be validated.
+     * @throws InvalidCheckInDateException if the check-in date is before the minimum check-in date or after the maximum check-in date.
+     */
+    public void validateCheckInDate(LocalDate checkIn) {
+        LocalDate today = LocalDate.now(clock);
+        LocalDate minCheckIn = today.plusDays(1);
+        LocalDate maxCheckIn = today.plusDays(maxAdvanceBookingDays);
+
+        if (checkIn.isBefore(minCheckIn)) {
+            throw new InvalidCheckInDateException("Check-in date should be a date after " + minCheckIn);
+        }
+        if (checkIn.isAfter(maxCheckIn)) {
+            throw new InvalidCheckInDateException("Check-in date should be within the next " + maxAdvanceBookingDays + " days");
+        }
+    }
+
+    /**
+     * Validates if the check-out date is after the check-in date.
+     *
+     * @param checkIn  The check-in date of the reservation
+     * @param checkOut The check-out date of the reservation
+     * @throws InvalidCheckOutDateException If the check-out date is before the check-in date
+     */
+    public void validateCheckOutDate(LocalDate checkIn, LocalDate checkOut) {
+        if (checkOut.isBefore(checkIn)) {
+            throw new InvalidCheckOutDateException("Check-out date should be a date after check-in date");
+        }
+    }
+
+    /**
+     * Validates if the stay duration between the check-in and check-out dates is not longer than the maximum allowed stay days.
+     *
+     * @param checkIn  The check-in date of the reservation.
+     * @param checkOut The check-out date of the reservation.
+     * @throws InvalidReservationException if the stay duration is longer than the maximum allowed stay days.
+     */
+    public void validateMaxStayDays(LocalDate checkIn, LocalDate checkOut) {
+        if (checkIn.plusDays(maxStayDays - 1).isBefore(checkOut)) {
+            throw new InvalidReservationException("Stay cannot be longer than " + maxStayDays + " days");
+        }
+    }
+
+    /**
+     * Validates that a modification moves the stay to other dates.
+     *
+     * @throws InvalidReservationException if the new dates are the same as the current ones
+     */
+    public void validateDifferentDates(LocalDate currentCheckIn, LocalDate currentCheckOut, LocalDate checkIn,
+                                       LocalDate checkOut) {
+        if (currentCheckIn.equals(checkIn) && currentCheckOut.equals(checkOut)) {
+            throw new InvalidReservationException("The range of dates is the same. You have to provided a different range of dates");
+        }
+    }
+
+    /**
+     * Tells whether two stays share at least one day.
+     */
+    public static boolean overlaps(LocalDate checkIn, LocalDate checkOut, LocalDate otherCheckIn,
+                                   LocalDate otherCheckOut) {
+        return !checkOut.isBefore(otherCheckIn) && !checkIn.isAfter(otherCheckOut);
+    }
+
+    public int getMaxStayDays() {
+        return maxStayDays;
+    }
+
+    public int getMaxAdvanceBookingDays() {
+        return maxAdvanceBookingDays;
+    }
+
+    public Clock getClock() {
+        return clock;
+    }
+}
@@ -0,0 +1,119 @@
+package com.alten.bookingcore;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * The active stays of one room, kept as parallel primitive arrays sorted by check-in day.
+ * <p>
+ * The stays of a room never overlap, so they are sorted by check-out day as well, and a stay overlaps the calendar
+ * only if it overlaps the last stay starting before its check-out, or the one before that when the last one is
+ * excluded. An availability check is a binary search that allocates nothing.
+ */
+public final class RoomCalendar {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private int[] checkInDays = new int[INITIAL_CAPACITY];
+    private int[] checkOutDays = new int[INITIAL_CAPACITY];
+    private long[] reservationIds = new long[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Tells whether a stay of the calendar, other than the one of {@code excludedReservationId}, shares at least one
+     * day with the given stay.
+     */
+    public synchronized boolean overlaps(LocalDate checkIn, LocalDate checkOut, long excludedReservationId) {
+        int checkInDay = (int) checkIn.toEpochDay();
+        int last = upperBound((int) checkOut.toEpochDay()) - 1;
+        if (last >= 0 && reservationIds[last] == excludedReservationId) {
+            last--;
+        }
+        return last >= 0 && checkOutDays[last] >= checkInDay;
+    }
+
+    /**
+     * Lists the reservations whose stays share at least one day with the given stay, other than
+     * {@code excludedReservationId}.
+     *
+     * @return the reservation IDs, ordered by check-in day
+     */
+    public synchronized long[] overlappingIds(LocalDate checkIn, LocalDate checkOut, long excludedReservationId) {
+        int checkInDay = (int) checkIn.toEpochDay();
+        int last = upperBound((int) checkOut.toEpochDay()) - 1;
+        int first = last + 1;
+        while (first > 0 && checkOutDays[first - 1] >= checkInDay) {
+            first--;
+        }
+        long[] ids = new long[last + 1 - first];
+        int count = 0;
+        for (int index = first; index <= last; index++) {
+            if (reservationIds[index] != excludedReservationId) {
+                ids[count++] = reservationIds[index];
+            }
+        }
+        return count == ids.length ? ids : Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * Adds a stay that does not overlap the calendar.
+     */
+    public synchronized void add(long reservationId, LocalDate checkIn, LocalDate checkOut) {
+        int checkInDay = (int) checkIn.toEpochDay();
+        if (size == checkInDays.length) {
+            int capacity = size * 2;
+            checkInDays = Arrays.copyOf(checkInDays, capacity);
+            checkOutDays = Arrays.copyOf(checkOutDays, capacity);
+            reservationIds = Arrays.copyOf(reservationIds, capacity);
+        }
+        int index = upperBound(checkInDay);
+        int moved = size - index;
+        System.arraycopy(checkInDays, index, checkInDays, index + 1, moved);
+        System.arraycopy(checkOutDays, index, checkOutDays, index + 1, moved);
+        System.arraycopy(reservationIds, index, reservationIds, index + 1, moved);
+        checkInDays[index] = checkInDay;
+        checkOutDays[index] = (int) checkOut.toEpochDay();
+        reservationIds[index] = reservationId;
+        size++;
+    }
+
+    /**
+     * Removes the stay of a reservation, if the calendar has it.
+     *
+     * @param checkIn the check-in date the stay was added with
+     */
+    public synchronized void remove(long reservationId, LocalDate checkIn) {
+        int checkInDay = (int) checkIn.toEpochDay();
+        for (int index = upperBound(checkInDay) - 1; index >= 0 && checkInDays[index] == checkInDay; index--) {
+            if (reservationIds[index] == reservationId) {
+                int moved = size - index - 1;
+                System.arraycopy(checkInDays, index + 1, checkInDays, index, moved);
+                System.arraycopy(checkOutDays, index + 1, checkOutDays, index, moved);
+                System.arraycopy(reservationIds, index + 1, reservationIds, index, moved);
+                size--;
+                return;
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return the index of the first stay starting after {@code day}
+     */
+    private int upperBound(int day) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (checkInDays[middle] <= day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -1,4 +1,4 @@
-package com.alten.bookingapp.exception;
+package com.alten.bookingcore.exception;
 
 public class InvalidCheckOutDateException extends RuntimeException{
     public InvalidCheckOutDateException(String message) {
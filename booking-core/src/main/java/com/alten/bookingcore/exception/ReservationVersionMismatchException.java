@@ -0,0 +1,7 @@
+package com.alten.bookingcore.exception;
+
+public class ReservationVersionMismatchException extends RuntimeException{
+    public ReservationVersionMismatchException(String message) {
+        super(message);
+    }
+}
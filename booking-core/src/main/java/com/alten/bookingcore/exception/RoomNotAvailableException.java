@@ -1,4 +1,4 @@
-package com.alten.bookingapp.exception;
+package com.alten.bookingcore.exception;
 
 public class RoomNotAvailableException extends RuntimeException{
     public RoomNotAvailableException(String message) {
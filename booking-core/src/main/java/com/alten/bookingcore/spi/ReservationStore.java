@@ -0,0 +1,57 @@
+package com.alten.bookingcore.spi;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage of the reservations used by the {@link com.alten.bookingcore.BookingEngine}.
+ * <p>
+ * The engine applies the booking rules and serializes the changes of each room, so an implementation only has to
+ * store what it is given and be safe for concurrent calls on different rooms. Stays are inclusive, as in
+ * {@link com.alten.bookingcore.BookingRules#overlaps}.
+ */
+public interface ReservationStore {
+
+    /**
+     * Tells whether an active reservation of the room, other than {@code excludedReservationId}, shares at least one
+     * day with the stay.
+     *
+     * @param excludedReservationId the reservation to ignore, or 0 to consider all of them
+     */
+    boolean hasOverlap(long roomId, LocalDate checkInDate, LocalDate checkOutDate, long excludedReservationId);
+
+    /**
+     * Finds the active reservations of the room, other than {@code excludedReservationId}, that share at least one
+     * day with the stay.
+     *
+     * @param excludedReservationId the reservation to ignore, or 0 to consider all of them
+     * @return the reservations, ordered by check-in date
+     */
+    List<StoredReservation> findOverlapping(long roomId, LocalDate checkInDate, LocalDate checkOutDate,
+                                            long excludedReservationId);
+
+    /**
+     * Finds all the reservations of the room, cancelled ones included.
+     *
+     * @return the reservations, ordered by ID
+     */
+    List<StoredReservation> findByRoom(long roomId);
+
+    Optional<StoredReservation> findById(long id);
+
+    /**
+     * Stores a new active reservation.
+     *
+     * @return the reservation, with its ID and version 0
+     */
+    StoredReservation insert(long roomId, String guestName, LocalDate checkInDate, LocalDate checkOutDate,
+                             LocalDateTime createdAt);
+
+    /**
+     * Replaces a stored reservation by its new state, as made by {@link StoredReservation#withStay} or
+     * {@link StoredReservation#asCancelled}.
+     */
+    void update(StoredReservation previous, StoredReservation reservation);
+}
@@ -0,0 +1,109 @@
+package com.alten.bookingcore.spi;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Immutable state of a reservation, as kept by a {@link ReservationStore}. Every change makes a new instance with the
+ * next version.
+ */
+public final class StoredReservation {
+
+    private final long id;
+    private final long roomId;
+    private final String guestName;
+    private final LocalDate checkInDate;
+    private final LocalDate checkOutDate;
+    private final boolean cancelled;
+    private final long version;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime modifiedAt;
+
+    public StoredReservation(long id, long roomId, String guestName, LocalDate checkInDate, LocalDate checkOutDate,
+                             boolean cancelled, long version, LocalDateTime createdAt, LocalDateTime modifiedAt) {
+        this.id = id;
+        this.roomId = roomId;
+        this.guestName = guestName;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+        this.cancelled = cancelled;
+        this.version = version;
+        this.createdAt = createdAt;
+        this.modifiedAt = modifiedAt;
+    }
+
+    public StoredReservation withStay(String guestName, LocalDate checkInDate, LocalDate checkOutDate,
+                                      LocalDateTime modifiedAt) {
+        return new StoredReservation(id, roomId, guestName, checkInDate, checkOutDate, cancelled, version + 1,
+                createdAt, modifiedAt);
+    }
+
+    public StoredReservation asCancelled(LocalDateTime modifiedAt) {
+        return new StoredReservation(id, roomId, guestName, checkInDate, checkOutDate, true, version + 1, createdAt,
+                modifiedAt);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getRoomId() {
+        return roomId;
+    }
+
+    public String getGuestName() {
+        return guestName;
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getModifiedAt() {
+        return modifiedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof StoredReservation)) {
+            return false;
+        }
+        StoredReservation that = (StoredReservation) o;
+        return id == that.id && roomId == that.roomId && cancelled == that.cancelled && version == that.version
+                && Objects.equals(guestName, that.guestName) && Objects.equals(checkInDate, that.checkInDate)
+                && Objects.equals(checkOutDate, that.checkOutDate) && Objects.equals(createdAt, that.createdAt)
+                && Objects.equals(modifiedAt, that.modifiedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, roomId, guestName, checkInDate, checkOutDate, cancelled, version, createdAt, modifiedAt);
+    }
+
+    @Override
+    public String toString() {
+        return "StoredReservation(id=" + id + ", roomId=" + roomId + ", guestName=" + guestName + ", checkInDate="
+                + checkInDate + ", checkOutDate=" + checkOutDate + ", cancelled=" + cancelled + ", version="
+                + version + ", createdAt=" + createdAt + ", modifiedAt=" + modifiedAt + ")";
+    }
+}
@@ -0,0 +1,88 @@
+package com.alten.bookingcore.store;
+
+import com.alten.bookingcore.RoomCalendar;
+import com.alten.bookingcore.spi.ReservationStore;
+import com.alten.bookingcore.spi.StoredReservation;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the reservations in memory only, with one {@link RoomCalendar} per room for the availability checks. Suited to
+ * embedding the engine where the reservations are persisted elsewhere, and to tests.
+ */
+public class InMemoryReservationStore implements ReservationStore {
+
+    private final Map<Long, StoredReservation> reservations = new ConcurrentHashMap<>();
+    private final Map<Long, RoomCalendar> calendars = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    @Override
+    public boolean hasOverlap(long roomId, LocalDate checkInDate, LocalDate checkOutDate, long excludedReservationId) {
+        RoomCalendar calendar = calendars.get(roomId);
+        return calendar != null && calendar.overlaps(checkInDate, checkOutDate, excludedReservationId);
+    }
+
+    @Override
+    public List<StoredReservation> findOverlapping(long roomId, LocalDate checkInDate, LocalDate checkOutDate,
+                                                   long excludedReservationId) {
+        RoomCalendar calendar = calendars.get(roomId);
+        List<StoredReservation> overlapping = new ArrayList<>();
+        if (calendar != null) {
+            for (long id : calendar.overlappingIds(checkInDate, checkOutDate, excludedReservationId)) {
+                overlapping.add(reservations.get(id));
+            }
+        }
+        return overlapping;
+    }
+
+    @Override
+    public List<StoredReservation> findByRoom(long roomId) {
+        List<StoredReservation> found = new ArrayList<>();
+        for (StoredReservation reservation : reservations.values()) {
+            if (reservation.getRoomId() == roomId) {
+                found.add(reservation);
+            }
+        }
+        found.sort(Comparator.comparingLong(StoredReservation::getId));
+        return found;
+    }
+
+    @Override
+    public StoredReservation insert(long roomId, String guestName, LocalDate checkInDate, LocalDate checkOutDate,
+                                    LocalDateTime createdAt) {
+        StoredReservation reservation = new StoredReservation(ids.incrementAndGet(), roomId, guestName, checkInDate,
+                checkOutDate, false, 0, createdAt, createdAt);
+        reservations.put(reservation.getId(), reservation);
+        calendar(roomId).add(reservation.getId(), checkInDate, checkOutDate);
+        return reservation;
+    }
+
+    @Override
+    public Optional<StoredReservation> findById(long id) {
+        return Optional.ofNullable(reservations.get(id));
+    }
+
+    @Override
+    public void update(StoredReservation previous, StoredReservation reservation) {
+        RoomCalendar calendar = calendar(reservation.getRoomId());
+        if (!previous.isCancelled()) {
+            calendar.remove(previous.getId(), previous.getCheckInDate());
+        }
+        if (!reservation.isCancelled()) {
+            calendar.add(reservation.getId(), reservation.getCheckInDate(), reservation.getCheckOutDate());
+        }
+        reservations.put(reservation.getId(), reservation);
+    }
+
+    private RoomCalendar calendar(long roomId) {
+        return calendars.computeIfAbsent(roomId, id -> new RoomCalendar());
+    }
+}
@@ -0,0 +1,415 @@
+package com.alten.bookingcore.store;
+
+import com.alten.bookingcore.RoomCalendar;
+import com.alten.bookingcore.spi.ReservationStore;
+import com.alten.bookingcore.spi.StoredReservation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps the reservations in memory, in parallel primitive arrays indexed by reservation ID with one
+ * {@link RoomCalendar} per room, and makes them durable with an append-only memory-mapped journal.
+ * <p>
+ * Every change appends the full new state of the reservation to {@code journal.dat}. Each record is framed as
+ * {@code [length][crc32][payload]} and its length is written last, so a record torn by a crash reads as the end of the
+ * journal. Every {@code snapshotEvery} records, and on {@link #close()}, all the reservations are written to
+ * {@code snapshot.dat} in the same format and the journal starts over. On start, the snapshot and then the journal are
+ * replayed; a record older than the state already loaded is skipped, so a journal left over by a crash during a
+ * snapshot replays safely. {@link #getRecoveryMillis()} and {@link #getRecoveredBytes()} tell how long the replay took
+ * for how much data.
+ * <p>
+ * Changes are serialized by the store, which matches the single writer of the journal. Availability checks only lock
+ * the calendar of their room.
+ */
+public class JournaledReservationStore implements ReservationStore, Closeable {
+
+    static final String JOURNAL_FILE = "journal.dat";
+    static final String SNAPSHOT_FILE = "snapshot.dat";
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int INITIAL_JOURNAL_BYTES = 1 << 20;
+    private static final int HEADER_BYTES = 8;
+    private static final int FIXED_PAYLOAD_BYTES = 8 + 8 + 4 + 4 + 8 + 1 + 8 + 8 + 4;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private final Path directory;
+    private final int snapshotEvery;
+    private final boolean syncOnWrite;
+    private final Map<Long, RoomCalendar> calendars = new ConcurrentHashMap<>();
+    private final CRC32 crc = new CRC32();
+
+    private long[] roomIds = new long[INITIAL_CAPACITY];
+    private int[] checkInDays = new int[INITIAL_CAPACITY];
+    private int[] checkOutDays = new int[INITIAL_CAPACITY];
+    private long[] versions = new long[INITIAL_CAPACITY];
+    private boolean[] cancelled = new boolean[INITIAL_CAPACITY];
+    private long[] createdAts = new long[INITIAL_CAPACITY];
+    private long[] modifiedAts = new long[INITIAL_CAPACITY];
+    private String[] guestNames = new String[INITIAL_CAPACITY];
+    private long lastId;
+
+    private FileChannel journalChannel;
+    private MappedByteBuffer journal;
+    private int recordsSinceSnapshot;
+
+    private long recoveredRecords;
+    private long recoveredBytes;
+    private long recoveryMillis;
+
+    /**
+     * Opens the store kept in {@code directory}, creating it if needed, and replays its snapshot and journal.
+     *
+     * @param snapshotEvery the number of journal records after which a snapshot is taken
+     * @param syncOnWrite   whether every change is forced to disk before returning, instead of being left to the OS
+     */
+    public JournaledReservationStore(Path directory, int snapshotEvery, boolean syncOnWrite) {
+        this.directory = directory;
+        this.snapshotEvery = snapshotEvery;
+        this.syncOnWrite = syncOnWrite;
+        try {
+            Files.createDirectories(directory);
+            long start = System.nanoTime();
+            Path snapshot = directory.resolve(SNAPSHOT_FILE);
+            if (Files.exists(snapshot)) {
+                try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+                    recoveredBytes += replay(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+                }
+            }
+            journalChannel = FileChannel.open(directory.resolve(JOURNAL_FILE), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            journal = journalChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    Math.max(journalChannel.size(), INITIAL_JOURNAL_BYTES));
+            int journalBytes = replay(journal);
+            recoveredBytes += journalBytes;
+            journal.position(journalBytes);
+            recoveryMillis = (System.nanoTime() - start) / 1_000_000;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the reservation journal in " + directory, e);
+        }
+    }
+
+    @Override
+    public boolean hasOverlap(long roomId, LocalDate checkInDate, LocalDate checkOutDate, long excludedReservationId) {
+        RoomCalendar calendar = calendars.get(roomId);
+        return calendar != null && calendar.overlaps(checkInDate, checkOutDate, excludedReservationId);
+    }
+
+    @Override
+    public List<StoredReservation> findOverlapping(long roomId, LocalDate checkInDate, LocalDate checkOutDate,
+                                                   long excludedReservationId) {
+        RoomCalendar calendar = calendars.get(roomId);
+        if (calendar == null) {
+            return new ArrayList<>();
+        }
+        long[] ids = calendar.overlappingIds(checkInDate, checkOutDate, excludedReservationId);
+        List<StoredReservation> overlapping = new ArrayList<>(ids.length);
+        synchronized (this) {
+            for (long id : ids) {
+                overlapping.add(toStoredReservation(id));
+            }
+        }
+        return overlapping;
+    }
+
+    @Override
+    public synchronized List<StoredReservation> findByRoom(long roomId) {
+        List<StoredReservation> found = new ArrayList<>();
+        for (long id = 1; id <= lastId; id++) {
+            if (roomIds[index(id)] == roomId) {
+                found.add(toStoredReservation(id));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public synchronized Optional<StoredReservation> findById(long id) {
+        return id > 0 && id <= lastId ? Optional.of(toStoredReservation(id)) : Optional.empty();
+    }
+
+    @Override
+    public synchronized StoredReservation insert(long roomId, String guestName, LocalDate checkInDate,
+                                                 LocalDate checkOutDate, LocalDateTime createdAt) {
+        StoredReservation reservation = new StoredReservation(lastId + 1, roomId, guestName, checkInDate,
+                checkOutDate, false, 0, createdAt, createdAt);
+        append(reservation);
+        apply(reservation);
+        snapshotIfDue();
+        return reservation;
+    }
+
+    @Override
+    public synchronized void update(StoredReservation previous, StoredReservation reservation) {
+        append(reservation);
+        apply(reservation);
+        snapshotIfDue();
+    }
+
+    /**
+     * Writes all the reservations to the snapshot and starts the journal over.
+     */
+    public synchronized void snapshot() {
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(INITIAL_JOURNAL_BYTES);
+            for (long id = 1; id <= lastId; id++) {
+                StoredReservation reservation = toStoredReservation(id);
+                if (buffer.remaining() < recordBytes(reservation)) {
+                    buffer.flip();
+                    writeFully(channel, buffer);
+                    buffer.clear();
+                    if (buffer.remaining() < recordBytes(reservation)) {
+                        buffer = ByteBuffer.allocate(recordBytes(reservation));
+                    }
+                }
+                writeRecord(buffer, reservation);
+            }
+            buffer.flip();
+            writeFully(channel, buffer);
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the reservation snapshot in " + directory, e);
+        }
+        try {
+            Files.move(temporary, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replace the reservation snapshot in " + directory, e);
+        }
+        byte[] zeros = new byte[Math.min(journal.position(), 64 * 1024)];
+        int written = journal.position();
+        journal.position(0);
+        while (journal.position() < written) {
+            journal.put(zeros, 0, Math.min(zeros.length, written - journal.position()));
+        }
+        journal.position(0);
+        journal.force();
+        recordsSinceSnapshot = 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (journalChannel.isOpen()) {
+            snapshot();
+            journalChannel.close();
+        }
+    }
+
+    /**
+     * @return the number of records replayed from the snapshot and the journal on start
+     */
+    public long getRecoveredRecords() {
+        return recoveredRecords;
+    }
+
+    /**
+     * @return the size of the snapshot and the journal replayed on start, in bytes
+     */
+    public long getRecoveredBytes() {
+        return recoveredBytes;
+    }
+
+    /**
+     * @return the time taken to replay the snapshot and the journal on start, in milliseconds
+     */
+    public long getRecoveryMillis() {
+        return recoveryMillis;
+    }
+
+    public synchronized long size() {
+        return lastId;
+    }
+
+    private void append(StoredReservation reservation) {
+        int bytes = recordBytes(reservation);
+        if (journal.remaining() < bytes + 4) {
+            growJournal(bytes + 4);
+        }
+        writeRecord(journal, reservation);
+        if (syncOnWrite) {
+            journal.force();
+        }
+        recordsSinceSnapshot++;
+    }
+
+    private void snapshotIfDue() {
+        if (recordsSinceSnapshot >= snapshotEvery) {
+            snapshot();
+        }
+    }
+
+    private void growJournal(int minimumBytes) {
+        int position = journal.position();
+        long capacity = Math.max((long) journal.capacity() * 2, (long) position + minimumBytes);
+        try {
+            journal = journalChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not grow the reservation journal in " + directory, e);
+        }
+        journal.position(position);
+    }
+
+    /**
+     * Writes the payload and its checksum before the length, so that the record only exists once it is complete.
+     */
+    private void writeRecord(ByteBuffer buffer, StoredReservation reservation) {
+        int start = buffer.position();
+        byte[] name = reservation.getGuestName() == null ? new byte[0]
+                : reservation.getGuestName().getBytes(StandardCharsets.UTF_8);
+        buffer.position(start + HEADER_BYTES);
+        buffer.putLong(reservation.getId())
+                .putLong(reservation.getRoomId())
+                .putInt((int) reservation.getCheckInDate().toEpochDay())
+                .putInt((int) reservation.getCheckOutDate().toEpochDay())
+                .putLong(reservation.getVersion())
+                .put((byte) (reservation.isCancelled() ? 1 : 0))
+                .putLong(toNanos(reservation.getCreatedAt()))
+                .putLong(toNanos(reservation.getModifiedAt()))
+                .putInt(name.length)
+                .put(name);
+        int end = buffer.position();
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(start + HEADER_BYTES).limit(end);
+        crc.reset();
+        crc.update(payload);
+        buffer.putInt(start + 4, (int) crc.getValue());
+        buffer.putInt(start, end - start - HEADER_BYTES);
+        buffer.position(end);
+    }
+
+    /**
+     * Applies the records of the buffer up to the first empty or torn one.
+     *
+     * @return the number of bytes of the complete records
+     */
+    private int replay(ByteBuffer buffer) {
+        int position = 0;
+        while (buffer.limit() - position >= HEADER_BYTES) {
+            int length = buffer.getInt(position);
+            if (length < FIXED_PAYLOAD_BYTES || length > buffer.limit() - position - HEADER_BYTES) {
+                break;
+            }
+            ByteBuffer payload = buffer.duplicate();
+            payload.limit(position + HEADER_BYTES + length).position(position + HEADER_BYTES);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                break;
+            }
+            StoredReservation reservation = readRecord(payload);
+            long id = reservation.getId();
+            if (id > lastId || versions[index(id)] < reservation.getVersion()) {
+                apply(reservation);
+            }
+            recoveredRecords++;
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    private static StoredReservation readRecord(ByteBuffer payload) {
+        long id = payload.getLong();
+        long roomId = payload.getLong();
+        LocalDate checkIn = LocalDate.ofEpochDay(payload.getInt());
+        LocalDate checkOut = LocalDate.ofEpochDay(payload.getInt());
+        long version = payload.getLong();
+        boolean cancelled = payload.get() == 1;
+        LocalDateTime createdAt = fromNanos(payload.getLong());
+        LocalDateTime modifiedAt = fromNanos(payload.getLong());
+        byte[] name = new byte[payload.getInt()];
+        payload.get(name);
+        return new StoredReservation(id, roomId, new String(name, StandardCharsets.UTF_8), checkIn, checkOut,
+                cancelled, version, createdAt, modifiedAt);
+    }
+
+    private void apply(StoredReservation reservation) {
+        long id = reservation.getId();
+        ensureCapacity(id);
+        int index = index(id);
+        RoomCalendar calendar = calendars.computeIfAbsent(reservation.getRoomId(), room -> new RoomCalendar());
+        if (id <= lastId && !cancelled[index]) {
+            calendar.remove(id, LocalDate.ofEpochDay(checkInDays[index]));
+        }
+        roomIds[index] = reservation.getRoomId();
+        checkInDays[index] = (int) reservation.getCheckInDate().toEpochDay();
+        checkOutDays[index] = (int) reservation.getCheckOutDate().toEpochDay();
+        versions[index] = reservation.getVersion();
+        cancelled[index] = reservation.isCancelled();
+        createdAts[index] = toNanos(reservation.getCreatedAt());
+        modifiedAts[index] = toNanos(reservation.getModifiedAt());
+        guestNames[index] = reservation.getGuestName();
+        lastId = Math.max(lastId, id);
+        if (!reservation.isCancelled()) {
+            calendar.add(id, reservation.getCheckInDate(), reservation.getCheckOutDate());
+        }
+    }
+
+    private StoredReservation toStoredReservation(long id) {
+        int index = index(id);
+        return new StoredReservation(id, roomIds[index], guestNames[index], LocalDate.ofEpochDay(checkInDays[index]),
+                LocalDate.ofEpochDay(checkOutDays[index]), cancelled[index], versions[index],
+                fromNanos(createdAts[index]), fromNanos(modifiedAts[index]));
+    }
+
+    private void ensureCapacity(long id) {
+        if (index(id) < roomIds.length) {
+            return;
+        }
+        int capacity = Math.max(roomIds.length * 2, index(id) + 1);
+        roomIds = Arrays.copyOf(roomIds, capacity);
+        checkInDays = Arrays.copyOf(checkInDays, capacity);
+        checkOutDays = Arrays.copyOf(checkOutDays, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        cancelled = Arrays.copyOf(cancelled, capacity);
+        createdAts = Arrays.copyOf(createdAts, capacity);
+        modifiedAts = Arrays.copyOf(modifiedAts, capacity);
+        guestNames = Arrays.copyOf(guestNames, capacity);
+    }
+
+    private static int index(long id) {
+        return Math.toIntExact(id - 1);
+    }
+
+    private static int recordBytes(StoredReservation reservation) {
+        int nameBytes = reservation.getGuestName() == null ? 0
+                : reservation.getGuestName().getBytes(StandardCharsets.UTF_8).length;
+        return HEADER_BYTES + FIXED_PAYLOAD_BYTES + nameBytes;
+    }
+
+    private static long toNanos(LocalDateTime dateTime) {
+        return dateTime == null ? NO_TIMESTAMP
+                : dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dateTime.getNano();
+    }
+
+    private static LocalDateTime fromNanos(long nanos) {
+        return nanos == NO_TIMESTAMP ? null : LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.alten.bookingcore;
+
+import com.alten.bookingcore.exception.InvalidCheckInDateException;
+import com.alten.bookingcore.exception.InvalidCheckOutDateException;
+import com.alten.bookingcore.exception.InvalidReservationException;
+import com.alten.bookingcore.exception.ReservationAlreadyCancelledException;
+import com.alten.bookingcore.exception.ReservationVersionMismatchException;
+import com.alten.bookingcore.exception.RoomNotAvailableException;
+import com.alten.bookingcore.spi.StoredReservation;
+import com.alten.bookingcore.store.InMemoryReservationStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingEngineTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2023, 4, 1);
+    private static final long ROOM_ID = 1L;
+
+    private BookingEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        engine = new BookingEngine(new BookingRules(3, 30, clock), new InMemoryReservationStore());
+    }
+
+    @Test
+    void bookWithSuccess() {
+        StoredReservation reservation = engine.book(ROOM_ID, "Oscar Abril", TODAY.plusDays(1), TODAY.plusDays(3));
+
+        assertEquals(ROOM_ID, reservation.getRoomId());
+        assertEquals(0L, reservation.getVersion());
+        assertFalse(engine.isAvailable(ROOM_ID, TODAY.plusDays(3), TODAY.plusDays(3)));
+        assertTrue(engine.isAvailable(ROOM_ID, TODAY.plusDays(4), TODAY.plusDays(4)));
+        assertTrue(engine.isAvailable(2L, TODAY.plusDays(1), TODAY.plusDays(3)));
+    }
+
+    @Test
+    void bookOverlappingStayError() {
+        engine.book(ROOM_ID, "Oscar Abril", TODAY.plusDays(5), TODAY.plusDays(6));
+
+        assertThrows(RoomNotAvailableException.class,
+                () -> engine.book(ROOM_ID, "Alten guest", TODAY.plusDays(4), TODAY.plusDays(5)));
+        assertThrows(RoomNotAvailableException.class,
+                () -> engine.book(ROOM_ID, "Alten guest", TODAY.plusDays(6), TODAY.plusDays(8)));
+    }
+
+    @Test
+    void bookInvalidDatesError() {
+        assertThrows(InvalidCheckInDateException.class, () -> engine.book(ROOM_ID, "Alten guest", TODAY, TODAY));
+        assertThrows(InvalidCheckInDateException.class,
+                () -> engine.book(ROOM_ID, "Alten guest", TODAY.plusDays(31), TODAY.plusDays(31)));
+        assertThrows(InvalidCheckOutDateException.class,
+                () -> engine.book(ROOM_ID, "Alten guest", TODAY.plusDays(2), TODAY.plusDays(1)));
+        assertThrows(InvalidReservationException.class,
+                () -> engine.book(ROOM_ID, "Alten guest", TODAY.plusDays(1), TODAY.plusDays(4)));
+    }
+
+    @Test
+    void modifyWithSuccess() {
+        StoredReservation reservation = engine.book(ROOM_ID, "Oscar Abril", TODAY.plusDays(1), TODAY.plusDays(2));
+        engine.book(ROOM_ID, "Alten guest", TODAY.plusDays(5), TODAY.plusDays(6));
+
+        StoredReservation modified = engine.modify(reservation.getId(), "Oscar Abril", TODAY.plusDays(2),
+                TODAY.plusDays(4));
+
+        assertEquals(1L, modified.getVersion());
+        assertTrue(engine.isAvailable(ROOM_ID, TODAY.plusDays(1), TODAY.plusDays(1)));
+        assertFalse(engine.isAvailable(ROOM_ID, TODAY.plusDays(4), TODAY.plusDays(4)));
+    }
+
+    @Test
+    void modifyOverlappingOwnStayWithSuccess() {
+        StoredReservation reservation = engine.book(ROOM_ID, "Oscar Abril", TODAY.plusDays(1), TODAY.plusDays(2));
+
+        StoredReservation modified = engine.modify(reservation.getId(), "Oscar Abril", TODAY.plusDays(2),
+                TODAY.plusDays(3));
+
+        assertEquals(TODAY.plusDays(3), modified.getCheckOutDate());
+    }
+
+    @Test
+    void modifyErrors() {
+        StoredReservation reservation = engine.book(ROOM_ID, "Oscar Abril", TODAY.plusDays(1), TODAY.plusDays(2));
+        engine.book(ROOM_ID, "Alten guest", TODAY.plusDays(5), TODAY.plusDays(6));
+
+        assertThrows(InvalidReservationException.class,
+                () -> engine.modify(reservation.getId(), "Oscar Abril", TODAY.plusDays(1), TODAY.plusDays(2)));
+        assertThrows(RoomNotAvailableException.class,
+                () -> engine.modify(reservation.getId(), "Oscar Abril", TODAY.plusDays(4), TODAY.plusDays(5)));
+        assertThrows(RoomNotAvailableException.class,
+                () -> engine.modify(99L, "Oscar Abril", TODAY.plusDays(8), TODAY.plusDays(9)));
+        engine.cancel(reservation.getId());
+        assertThrows(ReservationAlreadyCancelledException.class,
+                () -> engine.modify(reservation.getId(), "Oscar Abril", TODAY.plusDays(8), TODAY.plusDays(9)));
+    }
+
+    @Test
+    void modifyAndCancelCheckTheExpectedVersion() {
+        StoredReservation reservation = engine.book(ROOM_ID, "Oscar Abril", TODAY.plusDays(1), TODAY.plusDays(2));
+        engine.modify(reservation.getId(), "Oscar Abril", TODAY.plusDays(2), TODAY.plusDays(3), 0L);
+
+        assertThrows(ReservationVersionMismatchException.class,
+                () -> engine.modify(reservation.getId(), "Oscar Abril", TODAY.plusDays(4), TODAY.plusDays(5), 0L));
+        assertThrows(ReservationVersionMismatchException.class, () -> engine.cancel(reservation.getId(), 0L));
+        assertTrue(engine.cancel(reservation.getId(), 1L).isCancelled());
+    }
+
+    @Test
+    void cancelFreesTheDates() {
+        StoredReservation reservation = engine.book(ROOM_ID, "Oscar Abril", TODAY.plusDays(1), TODAY.plusDays(2));
+
+        StoredReservation cancelled = engine.cancel(reservation.getId());
+
+        assertTrue(cancelled.isCancelled());
+        assertTrue(engine.isAvailable(ROOM_ID, TODAY.plusDays(1), TODAY.plusDays(2)));
+        assertThrows(ReservationAlreadyCancelledException.class, () -> engine.cancel(reservation.getId()));
+    }
+
+    @Test
+    void concurrentBookingsOfTheSameDatesBookOnce() throws InterruptedException {
+        AtomicInteger booked = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> {
+                try {
+                    engine.book(ROOM_ID, "Alten guest", TODAY.plusDays(10), TODAY.plusDays(11));
+                    booked.incrementAndGet();
+                } catch (RoomNotAvailableException e) {
+                    // lost the race, as expected
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(1, booked.get());
+    }
+}
@@ -0,0 +1,73 @@
+package com.alten.bookingcore;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoomCalendarTest {
+
+    private static final LocalDate DAY = LocalDate.of(2023, 4, 15);
+
+    private RoomCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        calendar = new RoomCalendar();
+        calendar.add(1L, DAY, DAY.plusDays(1));
+        calendar.add(2L, DAY.plusDays(4), DAY.plusDays(6));
+        calendar.add(3L, DAY.plusDays(2), DAY.plusDays(2));
+    }
+
+    @Test
+    void overlapsBothEndsIncluded() {
+        assertTrue(calendar.overlaps(DAY.minusDays(2), DAY, 0));
+        assertTrue(calendar.overlaps(DAY.plusDays(1), DAY.plusDays(1), 0));
+        assertTrue(calendar.overlaps(DAY.plusDays(6), DAY.plusDays(8), 0));
+        assertTrue(calendar.overlaps(DAY.minusDays(5), DAY.plusDays(10), 0));
+        assertFalse(calendar.overlaps(DAY.plusDays(3), DAY.plusDays(3), 0));
+        assertFalse(calendar.overlaps(DAY.plusDays(7), DAY.plusDays(9), 0));
+        assertFalse(calendar.overlaps(DAY.minusDays(3), DAY.minusDays(1), 0));
+    }
+
+    @Test
+    void overlapsIgnoresExcludedReservation() {
+        assertFalse(calendar.overlaps(DAY.plusDays(4), DAY.plusDays(5), 2L));
+        assertTrue(calendar.overlaps(DAY.plusDays(2), DAY.plusDays(5), 2L));
+        assertFalse(calendar.overlaps(DAY.plusDays(2), DAY.plusDays(3), 3L));
+    }
+
+    @Test
+    void overlappingIdsInCheckInOrder() {
+        assertArrayEquals(new long[]{1L, 3L, 2L}, calendar.overlappingIds(DAY.minusDays(5), DAY.plusDays(10), 0));
+        assertArrayEquals(new long[]{3L, 2L}, calendar.overlappingIds(DAY.plusDays(2), DAY.plusDays(4), 0));
+        assertArrayEquals(new long[]{1L, 2L}, calendar.overlappingIds(DAY.plusDays(1), DAY.plusDays(5), 3L));
+        assertArrayEquals(new long[0], calendar.overlappingIds(DAY.plusDays(3), DAY.plusDays(3), 0));
+    }
+
+    @Test
+    void removeFreesTheStay() {
+        calendar.remove(3L, DAY.plusDays(2));
+        calendar.remove(99L, DAY);
+
+        assertEquals(2, calendar.size());
+        assertFalse(calendar.overlaps(DAY.plusDays(2), DAY.plusDays(3), 0));
+        assertTrue(calendar.overlaps(DAY, DAY, 0));
+    }
+
+    @Test
+    void addGrowsTheCalendar() {
+        for (int i = 0; i < 20; i++) {
+            calendar.add(10L + i, DAY.plusDays(10 + 2L * i), DAY.plusDays(10 + 2L * i));
+        }
+
+        assertEquals(23, calendar.size());
+        assertTrue(calendar.overlaps(DAY.plusDays(48), DAY.plusDays(48), 0));
+        assertFalse(calendar.overlaps(DAY.plusDays(49), DAY.plusDays(49), 0));
+    }
+}
@@ -0,0 +1,137 @@
+package com.alten.bookingcore.store;
+
+import com.alten.bookingcore.spi.StoredReservation;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JournaledReservationStoreTest {
+
+    private static final Logger log = Logger.getLogger(JournaledReservationStoreTest.class.getName());
+    private static final LocalDate DAY = LocalDate.of(2023, 4, 15);
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 4, 1, 12, 30, 15, 123_456_789);
+    private static final long ROOM_ID = 1L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void insertAndUpdateWithSuccess() throws IOException {
+        try (JournaledReservationStore store = new JournaledReservationStore(directory, 1000, false)) {
+            StoredReservation first = store.insert(ROOM_ID, "Oscar Abril", DAY, DAY.plusDays(1), NOW);
+            StoredReservation second = store.insert(ROOM_ID, "Alten guest", DAY.plusDays(3), DAY.plusDays(4), NOW);
+            StoredReservation moved = first.withStay("Oscar Abril", DAY.plusDays(6), DAY.plusDays(7), NOW);
+            store.update(first, moved);
+
+            assertEquals(1L, first.getId());
+            assertEquals(2L, second.getId());
+            assertEquals(moved, store.findById(1L).orElseThrow());
+            assertFalse(store.hasOverlap(ROOM_ID, DAY, DAY.plusDays(1), 0));
+            assertTrue(store.hasOverlap(ROOM_ID, DAY.plusDays(7), DAY.plusDays(9), 0));
+            assertEquals(List.of(second, moved), store.findOverlapping(ROOM_ID, DAY, DAY.plusDays(10), 0));
+            assertEquals(List.of(moved, second), store.findByRoom(ROOM_ID));
+            assertFalse(store.findById(3L).isPresent());
+        }
+    }
+
+    @Test
+    void recoversFromTheJournalAfterACrash() {
+        JournaledReservationStore store = new JournaledReservationStore(directory, 1000, false);
+        StoredReservation first = store.insert(ROOM_ID, "Óscar Abril", DAY, DAY.plusDays(1), NOW);
+        StoredReservation second = store.insert(2L, "Alten guest", DAY, DAY.plusDays(2), NOW);
+        StoredReservation cancelled = first.asCancelled(NOW.plusHours(1));
+        store.update(first, cancelled);
+
+        JournaledReservationStore recovered = new JournaledReservationStore(directory, 1000, false);
+
+        assertEquals(3L, recovered.getRecoveredRecords());
+        assertEquals(cancelled, recovered.findById(1L).orElseThrow());
+        assertEquals(second, recovered.findById(2L).orElseThrow());
+        assertFalse(recovered.hasOverlap(ROOM_ID, DAY, DAY.plusDays(1), 0));
+        assertTrue(recovered.hasOverlap(2L, DAY.plusDays(2), DAY.plusDays(2), 0));
+        assertEquals(3L, recovered.insert(ROOM_ID, "New guest", DAY, DAY, NOW).getId());
+    }
+
+    @Test
+    void recoversFromTheSnapshotAndTheJournal() throws IOException {
+        JournaledReservationStore store = new JournaledReservationStore(directory, 10, false);
+        for (int i = 0; i < 25; i++) {
+            store.insert(ROOM_ID, "Guest " + i, DAY.plusDays(2L * i), DAY.plusDays(2L * i), NOW);
+        }
+
+        try (JournaledReservationStore recovered = new JournaledReservationStore(directory, 10, false)) {
+            assertEquals(25L, recovered.size());
+            assertEquals(25, recovered.findOverlapping(ROOM_ID, DAY, DAY.plusDays(100), 0).size());
+            assertEquals("Guest 24", recovered.findById(25L).orElseThrow().getGuestName());
+        }
+        try (JournaledReservationStore reopened = new JournaledReservationStore(directory, 10, false)) {
+            assertEquals(25L, reopened.getRecoveredRecords());
+            assertEquals(25L, reopened.size());
+        }
+    }
+
+    @Test
+    void ignoresATornRecord() throws IOException {
+        JournaledReservationStore store = new JournaledReservationStore(directory, 1000, false);
+        store.insert(ROOM_ID, "Oscar Abril", DAY, DAY.plusDays(1), NOW);
+        store.insert(ROOM_ID, "Alten guest", DAY.plusDays(3), DAY.plusDays(4), NOW);
+        long firstRecordBytes = new JournaledReservationStore(directory, 1000, false).getRecoveredBytes() / 2;
+        try (FileChannel journal = FileChannel.open(directory.resolve(JournaledReservationStore.JOURNAL_FILE),
+                StandardOpenOption.WRITE)) {
+            journal.write(ByteBuffer.wrap(new byte[]{42}), firstRecordBytes + 20);
+        }
+
+        JournaledReservationStore recovered = new JournaledReservationStore(directory, 1000, false);
+
+        assertEquals(1L, recovered.getRecoveredRecords());
+        assertEquals(1L, recovered.size());
+        assertFalse(recovered.hasOverlap(ROOM_ID, DAY.plusDays(3), DAY.plusDays(4), 0));
+    }
+
+    @Test
+    void recoversEveryRecordOfALongJournal() {
+        fillJournal(directory, 1_000);
+
+        JournaledReservationStore recovered = new JournaledReservationStore(directory, Integer.MAX_VALUE, false);
+
+        assertEquals(1_000L, recovered.getRecoveredRecords());
+        assertEquals(1_000L, recovered.size());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void recoveryTimeGrowsWithTheJournal() {
+        for (int records : new int[]{1_000, 10_000, 100_000}) {
+            Path journalDirectory = directory.resolve("journal-" + records);
+            fillJournal(journalDirectory, records);
+
+            JournaledReservationStore recovered = new JournaledReservationStore(journalDirectory, Integer.MAX_VALUE,
+                    false);
+
+            assertEquals(records, recovered.getRecoveredRecords());
+            log.info(String.format("Recovered %d records (%d KiB of journal) in %d ms", records,
+                    recovered.getRecoveredBytes() / 1024, recovered.getRecoveryMillis()));
+        }
+    }
+
+    private static void fillJournal(Path journalDirectory, int records) {
+        JournaledReservationStore store = new JournaledReservationStore(journalDirectory, Integer.MAX_VALUE, false);
+        for (int i = 0; i < records; i++) {
+            store.insert(i % 100, "Guest " + i, DAY.plusDays(i / 100), DAY.plusDays(i / 100), NOW);
+        }
+    }
+}
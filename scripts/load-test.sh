@@ -0,0 +1,24 @@
+#!/usr/bin/env bash
+# Compares the latency of the cached read endpoints through nginx with and without the micro-cache.
+# Run it against the stack started with `docker-compose -p alten-project up`.
+#
+# Usage: scripts/load-test.sh [duration] [concurrency]
+set -euo pipefail
+
+DURATION=${1:-30s}
+CONCURRENCY=${2:-50}
+BASE_URL=${BASE_URL:-http://localhost}
+CHECK_IN=$(date -d '+2 days' +%F 2>/dev/null || date -v+2d +%F)
+CHECK_OUT=$(date -d '+3 days' +%F 2>/dev/null || date -v+3d +%F)
+
+hey() {
+    docker run --rm --network host williamyeh/hey "$@"
+}
+
+for url in "$BASE_URL/api/v1/bookings" \
+           "$BASE_URL/api/v1/bookings/availability?checkIn=$CHECK_IN&checkOut=$CHECK_OUT"; do
+    echo "=== $url (micro-cache bypassed)"
+    hey -z "$DURATION" -c "$CONCURRENCY" -H "Pragma: no-cache" "$url" | grep -E "Requests/sec|(50|95|99)% in"
+    echo "=== $url (micro-cache)"
+    hey -z "$DURATION" -c "$CONCURRENCY" "$url" | grep -E "Requests/sec|(50|95|99)% in"
+done